@@ -0,0 +1,92 @@
+package org.mockserver.benchmarks;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.mockserver.matchers.HttpRequestMatcher;
+import org.mockserver.model.Cookie;
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.Parameter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+
+/**
+ * Compares and hashes two equal requests, and hashes a request matcher, comparing the explicit field based
+ * equals and hashCode against the reflective equals and hashCode the model and matcher classes used before
+ *
+ * the reflective implementations are reproduced with EqualsBuilder and HashCodeBuilder for the request or
+ * matcher only, the headers, parameters and cookies they contain use their explicit implementations
+ *
+ * run with "-prof gc" to see the allocation per operation
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EqualsHashCodeBenchmark {
+
+    private static final String[] FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"logger", "fieldsExcludedFromEqualsAndHashCode"};
+    private static final String[] MATCHER_FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"logger", "fieldsExcludedFromEqualsAndHashCode", "logFormatter", "matchPlan", "sharedConditions", "hashCode"};
+
+    private HttpRequest request;
+    private HttpRequest equalRequest;
+    private HttpRequestMatcher matcher;
+
+    @Setup
+    public void setup() {
+        request = createRequest();
+        equalRequest = createRequest();
+        matcher = new HttpRequestMatcher(createRequest());
+    }
+
+    private static HttpRequest createRequest() {
+        return request()
+                .withMethod("POST")
+                .withPath("/orders/12345")
+                .withQueryStringParameters(new Parameter("expand", "items"))
+                .withHeaders(
+                        new Header("host", "localhost:1080"),
+                        new Header("accept", "application/json"),
+                        new Header("content-type", "application/json; charset=utf-8")
+                )
+                .withCookies(new Cookie("session", "0123456789"))
+                .withKeepAlive(true);
+    }
+
+    @Benchmark
+    public boolean reflectiveEquals() {
+        return EqualsBuilder.reflectionEquals(request, equalRequest, FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE);
+    }
+
+    @Benchmark
+    public boolean explicitEquals() {
+        return request.equals(equalRequest);
+    }
+
+    @Benchmark
+    public int reflectiveHashCode() {
+        return HashCodeBuilder.reflectionHashCode(request, FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE);
+    }
+
+    @Benchmark
+    public int explicitHashCode() {
+        return request.hashCode();
+    }
+
+    @Benchmark
+    public int reflectiveMatcherHashCode() {
+        return HashCodeBuilder.reflectionHashCode(matcher, MATCHER_FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE);
+    }
+
+    @Benchmark
+    public int cachedMatcherHashCode() {
+        return matcher.hashCode();
+    }
+}
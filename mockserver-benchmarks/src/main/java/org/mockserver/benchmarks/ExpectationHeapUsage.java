@@ -0,0 +1,69 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.matchers.Times;
+import org.mockserver.mock.MockServerMatcher;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Loads simple expectations, i.e. a literal method and path with a string response, into a MockServerMatcher
+ * and prints the heap retained per expectation, which is measured after a full collection so it doesn't
+ * include the garbage created while the expectations were added
+ *
+ * this isn't a JMH benchmark as it measures retained memory not time, run it with the number of expectations:
+ *
+ * java -Xmx4g -cp mockserver-benchmarks/target/benchmarks.jar org.mockserver.benchmarks.ExpectationHeapUsage 1000000
+ *
+ * by default 1,000,000 expectations are loaded, which needs about 1.5GB of heap, adding an expectation only copies
+ * the few nodes of the expectation store's snapshot on its path so the time to load grows linearly
+ *
+ * @author jamesdbloom
+ */
+public class ExpectationHeapUsage {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws InterruptedException {
+        int expectations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        long before = usedHeapAfterCollection();
+        long start = System.nanoTime();
+        MockServerMatcher mockServerMatcher = new MockServerMatcher();
+        for (int i = 0; i < expectations; i++) {
+            // limited times avoids the scan for existing identical unlimited expectations when each expectation is added
+            mockServerMatcher.when(
+                    request().withMethod("GET").withPath("/orders/" + i),
+                    Times.exactly(Integer.MAX_VALUE),
+                    TimeToLive.unlimited()
+            ).thenRespond(response().withBody("response_" + i));
+        }
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long after = usedHeapAfterCollection();
+
+        System.out.println("expectations: " + mockServerMatcher.retrieve(null).length);
+        System.out.println("load time: " + loadMillis + " ms");
+        System.out.println("retained heap: " + (after - before) / (1024 * 1024) + " MB");
+        System.out.println("retained bytes per expectation: " + (after - before) / expectations);
+    }
+
+    private static long usedHeapAfterCollection() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        // repeat until a collection doesn't free any more memory
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+            long current = MEMORY.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
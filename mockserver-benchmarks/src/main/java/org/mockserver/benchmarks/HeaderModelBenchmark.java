@@ -0,0 +1,81 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+
+/**
+ * Builds the headers of a typical browser request the way the request decoders do, comparing received headers,
+ * which share the names of common headers, against creating every header with the public constructor
+ *
+ * run with "-prof gc" to see the allocation per request
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderModelBenchmark {
+
+    private static final String[] NAMES = new String[]{
+            "Host",
+            "Connection",
+            "Cache-Control",
+            "Upgrade-Insecure-Requests",
+            "User-Agent",
+            "Accept",
+            "Referer",
+            "Accept-Encoding",
+            "Accept-Language",
+            "Cookie",
+            "If-None-Match",
+            "X-Request-Id"
+    };
+
+    private List<List<String>> values;
+
+    @Setup
+    public void setup() {
+        values = Arrays.asList(
+                Arrays.asList("localhost:1080"),
+                Arrays.asList("keep-alive"),
+                Arrays.asList("max-age=0"),
+                Arrays.asList("1"),
+                Arrays.asList("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_11_6) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/53.0.2785.143 Safari/537.36"),
+                Arrays.asList("text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8"),
+                Arrays.asList("http://localhost:1080/"),
+                Arrays.asList("gzip, deflate, sdch"),
+                Arrays.asList("en-GB,en-US;q=0.8,en;q=0.6"),
+                Arrays.asList("session=0123456789abcdef; theme=dark"),
+                Arrays.asList("W/\"5e15153d-120f\""),
+                Arrays.asList("f058ebd6-02f7-4d3f-942e-904344e8cde5")
+        );
+    }
+
+    @Benchmark
+    public HttpRequest receivedHeaders() {
+        HttpRequest httpRequest = request();
+        for (int i = 0; i < NAMES.length; i++) {
+            httpRequest.withHeader(Header.receivedHeader(NAMES[i], values.get(i)));
+        }
+        return httpRequest;
+    }
+
+    @Benchmark
+    public HttpRequest constructedHeaders() {
+        HttpRequest httpRequest = request();
+        for (int i = 0; i < NAMES.length; i++) {
+            httpRequest.withHeader(new Header(NAMES[i], values.get(i)));
+        }
+        return httpRequest;
+    }
+}
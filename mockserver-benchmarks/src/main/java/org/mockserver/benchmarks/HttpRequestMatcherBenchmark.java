@@ -0,0 +1,111 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.matchers.HttpRequestMatcher;
+import org.mockserver.matchers.MatchContext;
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.Parameter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.JsonBody.json;
+import static org.mockserver.model.JsonSchemaBody.jsonSchema;
+import static org.mockserver.model.XPathBody.xpath;
+
+/**
+ * Matches a request against a mixed set of expectations, where only the last expectation matches, comparing
+ * the short-circuit match plan in HttpRequestMatcher against the previous full evaluation of every field
+ *
+ * the full evaluation is reproduced by matching each field of an expectation with its own single field matcher
+ * and combining the results without short-circuiting, as HttpRequestMatcher did before the match plan
+ *
+ * run with "-prof gc" to see the allocation per match
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpRequestMatcherBenchmark {
+
+    private HttpRequest request;
+    private List<HttpRequestMatcher> matchers;
+    private List<HttpRequestMatcher[]> fieldMatchers;
+
+    @Setup
+    public void setup() {
+        request = request()
+                .withMethod("POST")
+                .withPath("/orders/12345")
+                .withQueryStringParameters(new Parameter("expand", "items"))
+                .withHeaders(
+                        new Header("host", "localhost:1080"),
+                        new Header("accept", "application/json"),
+                        new Header("content-type", "application/json; charset=utf-8")
+                )
+                .withBody("{ \"id\": 12345, \"customer\": \"some_customer\", \"items\": [ { \"sku\": \"abc\", \"quantity\": 2 } ] }");
+
+        List<HttpRequest> expectations = new ArrayList<HttpRequest>();
+        // wrong method
+        expectations.add(request().withMethod("PUT").withPath("/orders/.*").withBody(jsonSchema("{ \"type\": \"object\", \"required\": [ \"id\", \"status\" ] }")));
+        expectations.add(request().withMethod("GET").withPath("/orders/.*").withHeaders(new Header("accept", ".*xml.*")));
+        // wrong path
+        expectations.add(request().withMethod("POST").withPath("/customers/.*").withBody(json("{ \"customer\": \"some_customer\" }")));
+        expectations.add(request().withMethod("POST").withPath("/basket").withBody(xpath("/basket/item[sku = 'abc']")));
+        // wrong query string parameter
+        expectations.add(request().withMethod("POST").withPath("/orders/.*").withQueryStringParameters(new Parameter("expand", "customer")).withBody(json("{ \"id\": 12345 }")));
+        // wrong header
+        expectations.add(request().withMethod("POST").withPath("/orders/.*").withHeaders(new Header("content-type", ".*xml.*")).withBody(xpath("/order[id = 12345]")));
+        // wrong body
+        expectations.add(request().withMethod("POST").withPath("/orders/.*").withBody(json("{ \"id\": 54321 }")));
+        // matches
+        expectations.add(request().withMethod("POST").withPath("/orders/.*").withHeaders(new Header("accept", "application/json")).withBody(json("{ \"customer\": \"some_customer\" }")));
+
+        matchers = new ArrayList<HttpRequestMatcher>();
+        fieldMatchers = new ArrayList<HttpRequestMatcher[]>();
+        for (HttpRequest expectation : expectations) {
+            matchers.add(new HttpRequestMatcher(expectation));
+            fieldMatchers.add(new HttpRequestMatcher[]{
+                    new HttpRequestMatcher(request().withMethod(expectation.getMethod())),
+                    new HttpRequestMatcher(request().withPath(expectation.getPath())),
+                    new HttpRequestMatcher(request().withQueryStringParameters(expectation.getQueryStringParameters())),
+                    new HttpRequestMatcher(request().withBody(expectation.getBody())),
+                    new HttpRequestMatcher(request().withHeaders(expectation.getHeaders())),
+                    new HttpRequestMatcher(request().withCookies(expectation.getCookies()))
+            });
+        }
+    }
+
+    @Benchmark
+    public int fullEvaluation() {
+        MatchContext matchContext = new MatchContext(request);
+        for (int i = 0; i < fieldMatchers.size(); i++) {
+            boolean matches = true;
+            for (HttpRequestMatcher fieldMatcher : fieldMatchers.get(i)) {
+                matches &= fieldMatcher.matches(matchContext, false);
+            }
+            if (matches) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int shortCircuitMatchPlan() {
+        MatchContext matchContext = new MatchContext(request);
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(matchContext, false)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,81 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.configuration.ConfigurationProperties;
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.matchers.Times;
+import org.mockserver.mock.MockServerMatcher;
+import org.mockserver.model.Action;
+import org.mockserver.model.HttpRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Matches a request against a large number of expectations that all have the same regex path, so every
+ * expectation is a candidate, comparing the sequential scan in MockServerMatcher against matching the
+ * candidates in parallel
+ *
+ * the parallel scan only pays for itself when the matching expectation is far down a long candidate list,
+ * when there are few candidates or the first candidate matches the cost of handing the ranges to the
+ * matching threads is greater than the cost of matching sequentially
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMatchingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int expectations;
+
+    @Param({"first", "last"})
+    private String matchingExpectation;
+
+    private MockServerMatcher sequentialMatcher;
+    private MockServerMatcher parallelMatcher;
+    private HttpRequest request;
+
+    @Setup
+    public void setup() {
+        ConfigurationProperties.parallelMatchingThreshold(0);
+        sequentialMatcher = createMatcher();
+        ConfigurationProperties.parallelMatchingThreshold(1);
+        parallelMatcher = createMatcher();
+        System.clearProperty("mockserver.parallelMatchingThreshold");
+
+        request = request()
+                .withMethod("GET")
+                .withPath("/orders/12345")
+                .withHeader("x-contract", "contract_" + (matchingExpectation.equals("first") ? 0 : expectations - 1));
+    }
+
+    private MockServerMatcher createMatcher() {
+        MockServerMatcher mockServerMatcher = new MockServerMatcher();
+        for (int i = 0; i < expectations; i++) {
+            // limited times avoids the scan for existing identical unlimited expectations when each expectation is added
+            mockServerMatcher.when(
+                    request().withMethod("GET").withPath("/orders/.*").withHeader("x-contract", "contract_" + i),
+                    Times.exactly(Integer.MAX_VALUE),
+                    TimeToLive.unlimited()
+            ).thenRespond(response().withBody("response_" + i));
+        }
+        return mockServerMatcher;
+    }
+
+    @Benchmark
+    public Action sequential() {
+        return sequentialMatcher.handle(request);
+    }
+
+    @Benchmark
+    public Action parallel() {
+        return parallelMatcher.handle(request);
+    }
+}
@@ -0,0 +1,150 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.collections.CaseInsensitiveRegexMultiMap;
+import org.mockserver.matchers.RegexStringMatcher;
+import org.mockserver.model.NottableString;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.PatternSyntaxException;
+
+import static org.mockserver.model.NottableString.string;
+
+/**
+ * Compares header style matching (case insensitive, regex in both directions) using the pre-compiled
+ * patterns in RegexStringMatcher against the previous implementation that used String.matches()
+ *
+ * run with "-prof gc" to see the allocation per match
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexStringMatcherBenchmark {
+
+    private NottableString matcherName;
+    private NottableString matcherValue;
+    private NottableString matchedName;
+    private NottableString matchedValue;
+    private CaseInsensitiveRegexMultiMap expectationHeaders;
+    private CaseInsensitiveRegexMultiMap requestHeaders;
+
+    @Setup
+    public void setup() {
+        matcherName = string("Content-Type");
+        matcherValue = string("application/json.*");
+        matchedName = string("content-type");
+        matchedValue = string("APPLICATION/JSON; charset=utf-8");
+        RegexStringMatcher.precompile(matcherName);
+        RegexStringMatcher.precompile(matcherValue);
+        expectationHeaders = CaseInsensitiveRegexMultiMap.multiMap(
+                new String[]{"Content-Type", "application/json.*"},
+                new String[]{"X-Request-Id", "[a-f0-9\\-]+"},
+                new String[]{"Accept", ".*json.*"}
+        );
+        requestHeaders = CaseInsensitiveRegexMultiMap.multiMap(
+                new String[]{"host", "localhost:1080"},
+                new String[]{"user-agent", "benchmark/1.0"},
+                new String[]{"accept", "application/json"},
+                new String[]{"accept-encoding", "gzip, deflate"},
+                new String[]{"connection", "keep-alive"},
+                new String[]{"content-type", "application/json; charset=utf-8"},
+                new String[]{"content-length", "128"},
+                new String[]{"x-request-id", "0f8fad5b-d9cb-469f-a165-70867728950e"}
+        );
+        for (Map.Entry<NottableString, NottableString> entry : expectationHeaders.entryList()) {
+            RegexStringMatcher.precompile(entry.getKey());
+            RegexStringMatcher.precompile(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public boolean singleValueStringMatches() {
+        return legacyMatches(matcherName.getValue(), matchedName.getValue(), true)
+                && legacyMatches(matcherValue.getValue(), matchedValue.getValue(), true);
+    }
+
+    @Benchmark
+    public boolean singleValueCompiledPattern() {
+        return RegexStringMatcher.matches(matcherName, matchedName, true)
+                && RegexStringMatcher.matches(matcherValue, matchedValue, true);
+    }
+
+    @Benchmark
+    public boolean headersStringMatches() {
+        for (Map.Entry<NottableString, NottableString> expected : expectationHeaders.entryList()) {
+            boolean found = false;
+            for (Map.Entry<NottableString, NottableString> actual : requestHeaders.entryList()) {
+                if (legacyMatches(expected.getValue().getValue(), actual.getValue().getValue(), true)
+                        && legacyMatches(expected.getKey().getValue(), actual.getKey().getValue(), true)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean headersCompiledPattern() {
+        return requestHeaders.containsAll(expectationHeaders);
+    }
+
+    /**
+     * the implementation of RegexStringMatcher.matches(String, String, boolean) before patterns were pre-compiled
+     */
+    private static boolean legacyMatches(String matcher, String matched, boolean ignoreCase) {
+        boolean result = false;
+        if (matcher == null || matcher.isEmpty()) {
+            result = true;
+        } else if (matched != null) {
+            if (matched.equals(matcher)) {
+                result = true;
+            }
+            if (!result) {
+                try {
+                    if (matched.matches(matcher)) {
+                        result = true;
+                    }
+                } catch (PatternSyntaxException pse) {
+                    // ignore
+                }
+                try {
+                    if (matcher.matches(matched)) {
+                        result = true;
+                    }
+                } catch (PatternSyntaxException pse) {
+                    // ignore
+                }
+                if (!result && ignoreCase) {
+                    if (matched.equalsIgnoreCase(matcher)) {
+                        result = true;
+                    }
+                    try {
+                        if (matched.toLowerCase().matches(matcher.toLowerCase())) {
+                            result = true;
+                        }
+                    } catch (PatternSyntaxException pse) {
+                        // ignore
+                    }
+                    try {
+                        if (matcher.toLowerCase().matches(matched.toLowerCase())) {
+                            result = true;
+                        }
+                    } catch (PatternSyntaxException pse) {
+                        // ignore
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package org.mockserver.benchmarks;
+
+import org.mockserver.matchers.StringToXmlDocumentParser;
+import org.mockserver.matchers.XmlStringMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches a large SOAP body against an xml expectation that differs in the last element, comparing the
+ * StAX canonical event stream in XmlStringMatcher against the previous DOM parse and pretty print of the body
+ *
+ * run with "-prof gc" to see the allocation per match
+ *
+ * @author jamesdbloom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlStringMatcherBenchmark {
+
+    @Param({"100", "10000"})
+    private int items;
+
+    private String body;
+    private String normalisedExpectation;
+    private XmlStringMatcher xmlStringMatcher;
+    private StringToXmlDocumentParser stringToXmlDocumentParser;
+    private StringToXmlDocumentParser.ErrorLogger errorLogger;
+
+    @Setup
+    public void setup() throws Exception {
+        body = soapEnvelope("12345");
+        String expectation = soapEnvelope("54321");
+        xmlStringMatcher = new XmlStringMatcher(expectation);
+        stringToXmlDocumentParser = new StringToXmlDocumentParser();
+        errorLogger = new StringToXmlDocumentParser.ErrorLogger() {
+            @Override
+            public void logError(String matched, Exception exception) {
+            }
+        };
+        normalisedExpectation = stringToXmlDocumentParser.normaliseXmlString(expectation, errorLogger);
+    }
+
+    private String soapEnvelope(String orderId) {
+        StringBuilder xml = new StringBuilder("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:ord=\"http://example.com/orders\">")
+                .append("<soapenv:Header/><soapenv:Body><ord:submitOrder>");
+        for (int i = 0; i < items; i++) {
+            xml.append("<ord:item sku=\"sku-").append(i).append("\" quantity=\"2\"><ord:description>item number ").append(i).append("</ord:description></ord:item>");
+        }
+        return xml.append("<ord:orderId>").append(orderId).append("</ord:orderId></ord:submitOrder></soapenv:Body></soapenv:Envelope>").toString();
+    }
+
+    @Benchmark
+    public boolean domNormalisation() throws Exception {
+        return normalisedExpectation.equals(stringToXmlDocumentParser.normaliseXmlString(body, errorLogger));
+    }
+
+    @Benchmark
+    public boolean canonicalEventStream() {
+        return xmlStringMatcher.matches(body);
+    }
+}
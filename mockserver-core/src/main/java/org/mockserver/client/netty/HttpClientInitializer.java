@@ -9,6 +9,7 @@ import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.ssl.SslHandler;
 import org.mockserver.client.netty.codec.MockServerClientCodec;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.logging.LoggingHandler;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.socket.SSLFactory;
@@ -44,7 +45,7 @@ public class HttpClientInitializer extends ChannelInitializer<SocketChannel> {
 
         pipeline.addLast(new HttpContentDecompressor());
 
-        pipeline.addLast(new HttpObjectAggregator(Integer.MAX_VALUE));
+        pipeline.addLast(new HttpObjectAggregator(ConfigurationProperties.maxAggregatedContentLength()));
 
         pipeline.addLast(new MockServerClientCodec());
 
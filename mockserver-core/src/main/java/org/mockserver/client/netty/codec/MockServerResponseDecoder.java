@@ -39,7 +39,7 @@ public class MockServerResponseDecoder extends MessageToMessageDecoder<FullHttpR
     private void setHeaders(HttpResponse httpResponse, FullHttpResponse fullHttpResponse) {
         Map<String, Header> mappedHeaders = new HashMap<String, Header>();
         for (String headerName : fullHttpResponse.headers().names()) {
-            mappedHeaders.put(headerName, new Header(headerName, fullHttpResponse.headers().getAll(headerName)));
+            mappedHeaders.put(headerName, Header.receivedHeader(headerName, fullHttpResponse.headers().getAll(headerName)));
         }
         List<Header> headers = new ArrayList<Header>(mappedHeaders.values());
         httpResponse.withHeaders(headers);
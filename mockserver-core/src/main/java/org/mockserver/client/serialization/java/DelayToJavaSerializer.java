@@ -2,6 +2,9 @@ package org.mockserver.client.serialization.java;
 
 import com.google.common.base.Strings;
 import org.mockserver.model.Delay;
+import org.mockserver.model.DelayDistribution;
+
+import java.util.Map;
 
 /**
  * @author jamesdbloom
@@ -12,7 +15,32 @@ public class DelayToJavaSerializer implements ToJavaSerializer<Delay> {
     public String serializeAsJava(int numberOfSpacesToIndent, Delay delay) {
         StringBuilder output = new StringBuilder();
         if (delay != null) {
-            output.append("new Delay(TimeUnit.").append(delay.getTimeUnit().name()).append(", ").append(delay.getValue()).append(")");
+            DelayDistribution distribution = delay.getDistribution();
+            if (distribution != null && distribution.getType() != null) {
+                String timeUnit = "TimeUnit." + delay.getTimeUnit().name();
+                switch (distribution.getType()) {
+                    case UNIFORM:
+                        output.append("Delay.uniform(").append(timeUnit).append(", ").append(distribution.getMin()).append(", ").append(distribution.getMax()).append(")");
+                        break;
+                    case NORMAL:
+                        output.append("Delay.normal(").append(timeUnit).append(", ").append(distribution.getMean()).append(", ").append(distribution.getStandardDeviation()).append(")");
+                        break;
+                    case LOG_NORMAL:
+                        output.append("Delay.logNormal(").append(timeUnit).append(", ").append(distribution.getMedian()).append(", ").append(distribution.getSigma()).append(")");
+                        break;
+                    case PERCENTILES:
+                        output.append("Delay.percentiles(").append(timeUnit).append(", ImmutableMap.<Double, Long>builder()");
+                        if (distribution.getPercentiles() != null) {
+                            for (Map.Entry<Double, Long> percentile : distribution.getPercentiles().entrySet()) {
+                                output.append(".put(").append(percentile.getKey()).append(", ").append(percentile.getValue()).append("L)");
+                            }
+                        }
+                        output.append(".build())");
+                        break;
+                }
+            } else {
+                output.append("new Delay(TimeUnit.").append(delay.getTimeUnit().name()).append(", ").append(delay.getValue()).append(")");
+            }
         }
         return output.toString();
     }
@@ -12,11 +12,15 @@ public class DelayDTO extends ObjectWithReflectiveEqualsHashCodeToString {
 
     private TimeUnit timeUnit;
     private long value;
+    private DelayDistributionDTO distribution;
 
     public DelayDTO(Delay delay) {
         if (delay != null) {
             timeUnit = delay.getTimeUnit();
             value = delay.getValue();
+            if (delay.getDistribution() != null) {
+                distribution = new DelayDistributionDTO(delay.getDistribution());
+            }
         }
     }
 
@@ -24,7 +28,11 @@ public class DelayDTO extends ObjectWithReflectiveEqualsHashCodeToString {
     }
 
     public Delay buildObject() {
-        return new Delay(timeUnit, value);
+        if (distribution != null) {
+            return new Delay(timeUnit, distribution.buildObject());
+        } else {
+            return new Delay(timeUnit, value);
+        }
     }
 
     public TimeUnit getTimeUnit() {
@@ -44,4 +52,13 @@ public class DelayDTO extends ObjectWithReflectiveEqualsHashCodeToString {
         this.value = value;
         return this;
     }
+
+    public DelayDistributionDTO getDistribution() {
+        return distribution;
+    }
+
+    public DelayDTO setDistribution(DelayDistributionDTO distribution) {
+        this.distribution = distribution;
+        return this;
+    }
 }
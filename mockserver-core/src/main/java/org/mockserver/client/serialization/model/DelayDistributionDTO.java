@@ -0,0 +1,131 @@
+package org.mockserver.client.serialization.model;
+
+import org.mockserver.model.DelayDistribution;
+import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
+
+import java.util.Map;
+
+/**
+ * @author jamesdbloom
+ */
+public class DelayDistributionDTO extends ObjectWithReflectiveEqualsHashCodeToString {
+
+    private DelayDistribution.Type type;
+    private Long min;
+    private Long max;
+    private Long mean;
+    private Long standardDeviation;
+    private Long median;
+    private Double sigma;
+    private Map<Double, Long> percentiles;
+
+    public DelayDistributionDTO(DelayDistribution distribution) {
+        if (distribution != null) {
+            type = distribution.getType();
+            min = distribution.getMin();
+            max = distribution.getMax();
+            mean = distribution.getMean();
+            standardDeviation = distribution.getStandardDeviation();
+            median = distribution.getMedian();
+            sigma = distribution.getSigma();
+            percentiles = distribution.getPercentiles();
+        }
+    }
+
+    public DelayDistributionDTO() {
+    }
+
+    public DelayDistribution buildObject() {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case UNIFORM:
+                return DelayDistribution.uniform(value(min), value(max));
+            case NORMAL:
+                return DelayDistribution.normal(value(mean), value(standardDeviation));
+            case LOG_NORMAL:
+                return DelayDistribution.logNormal(value(median), sigma != null ? sigma : 0);
+            case PERCENTILES:
+                return DelayDistribution.percentiles(percentiles);
+            default:
+                return null;
+        }
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0;
+    }
+
+    public DelayDistribution.Type getType() {
+        return type;
+    }
+
+    public DelayDistributionDTO setType(DelayDistribution.Type type) {
+        this.type = type;
+        return this;
+    }
+
+    public Long getMin() {
+        return min;
+    }
+
+    public DelayDistributionDTO setMin(Long min) {
+        this.min = min;
+        return this;
+    }
+
+    public Long getMax() {
+        return max;
+    }
+
+    public DelayDistributionDTO setMax(Long max) {
+        this.max = max;
+        return this;
+    }
+
+    public Long getMean() {
+        return mean;
+    }
+
+    public DelayDistributionDTO setMean(Long mean) {
+        this.mean = mean;
+        return this;
+    }
+
+    public Long getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public DelayDistributionDTO setStandardDeviation(Long standardDeviation) {
+        this.standardDeviation = standardDeviation;
+        return this;
+    }
+
+    public Long getMedian() {
+        return median;
+    }
+
+    public DelayDistributionDTO setMedian(Long median) {
+        this.median = median;
+        return this;
+    }
+
+    public Double getSigma() {
+        return sigma;
+    }
+
+    public DelayDistributionDTO setSigma(Double sigma) {
+        this.sigma = sigma;
+        return this;
+    }
+
+    public Map<Double, Long> getPercentiles() {
+        return percentiles;
+    }
+
+    public DelayDistributionDTO setPercentiles(Map<Double, Long> percentiles) {
+        this.percentiles = percentiles;
+        return this;
+    }
+}
@@ -0,0 +1,80 @@
+package org.mockserver.collections;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable list where appending returns a new list that shares the elements of this list, so appending
+ * doesn't copy the list, the lists share an array that only grows, each list only reads the elements before
+ * its own size, so an element written after the end of a list is never seen by that list
+ *
+ * only the first append to a list writes into the shared array, appending to the same list again (i.e. to an
+ * older version) copies the elements, so this is suited to a list that is updated by replacing it with the
+ * list returned by append, an appended list must be safely published (i.e. by an AtomicReference) to be read
+ * by another thread
+ *
+ * @author jamesdbloom
+ */
+public class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final AppendOnlyList<Object> EMPTY = new AppendOnlyList<Object>(new Elements(new Object[0], 0), 0);
+    private final Elements elements;
+    private final int size;
+
+    private AppendOnlyList(Elements elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> AppendOnlyList<E> empty() {
+        return (AppendOnlyList<E>) EMPTY;
+    }
+
+    public static <E> AppendOnlyList<E> copyOf(Collection<? extends E> values) {
+        Object[] array = values.toArray(new Object[values.size()]);
+        return new AppendOnlyList<E>(new Elements(array, array.length), array.length);
+    }
+
+    /**
+     * Returns a list with the value added to the end, the elements of this list are only copied if the array
+     * is full or another list has already been appended to this list
+     */
+    public AppendOnlyList<E> append(E value) {
+        if (size < elements.array.length && elements.claimed.compareAndSet(size, size + 1)) {
+            elements.array[size] = value;
+            return new AppendOnlyList<E>(elements, size + 1);
+        }
+        Object[] array = new Object[Math.max(8, size * 2)];
+        System.arraycopy(elements.array, 0, array, 0, size);
+        array[size] = value;
+        return new AppendOnlyList<E>(new Elements(array, size + 1), size + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) elements.array[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static class Elements {
+        private final Object[] array;
+        // the number of elements written, or about to be written, to the array by any list sharing it
+        private final AtomicInteger claimed;
+
+        Elements(Object[] array, int claimed) {
+            this.array = array;
+            this.claimed = new AtomicInteger(claimed);
+        }
+    }
+}
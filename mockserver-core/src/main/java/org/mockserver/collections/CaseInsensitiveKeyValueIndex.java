@@ -0,0 +1,122 @@
+package org.mockserver.collections;
+
+import org.mockserver.matchers.RegexStringMatcher;
+import org.mockserver.model.NottableString;
+
+import java.util.*;
+
+import static org.mockserver.model.NottableString.string;
+
+/**
+ * A read-only index of the keys and values of a request's query string parameters, headers or cookies
+ * that is built once per request and shared by all the expectations the request is matched against
+ *
+ * keys that only match themselves, ignoring case, are indexed by their lower case value so a literal key
+ * is found with a hash lookup, any other key (i.e. a regex, a notted key or a non ascii key) can match
+ * keys with a different value so those keys are always checked, matching is the same as
+ * CaseInsensitiveRegexMultiMap.containsAll and CaseInsensitiveRegexHashMap.containsAll
+ *
+ * @author jamesdbloom
+ */
+public class CaseInsensitiveKeyValueIndex {
+
+    private final List<Map.Entry<NottableString, NottableString>> entries;
+    private final Map<String, List<Map.Entry<NottableString, NottableString>>> literalKeyEntries = new HashMap<String, List<Map.Entry<NottableString, NottableString>>>();
+    private final List<Map.Entry<NottableString, NottableString>> nonLiteralKeyEntries = new ArrayList<Map.Entry<NottableString, NottableString>>();
+
+    private CaseInsensitiveKeyValueIndex(Collection<Map.Entry<NottableString, NottableString>> entries) {
+        this.entries = new ArrayList<Map.Entry<NottableString, NottableString>>(entries);
+        for (Map.Entry<NottableString, NottableString> entry : this.entries) {
+            if (isIndexable(entry.getKey())) {
+                String key = entry.getKey().getValue().toLowerCase(Locale.ENGLISH);
+                List<Map.Entry<NottableString, NottableString>> entriesForKey = literalKeyEntries.get(key);
+                if (entriesForKey == null) {
+                    entriesForKey = new ArrayList<Map.Entry<NottableString, NottableString>>(1);
+                    literalKeyEntries.put(key, entriesForKey);
+                }
+                entriesForKey.add(entry);
+            } else {
+                nonLiteralKeyEntries.add(entry);
+            }
+        }
+    }
+
+    public static CaseInsensitiveKeyValueIndex index(CaseInsensitiveRegexMultiMap multiMap) {
+        return new CaseInsensitiveKeyValueIndex(multiMap.entryList());
+    }
+
+    public static CaseInsensitiveKeyValueIndex index(CaseInsensitiveRegexHashMap hashMap) {
+        return new CaseInsensitiveKeyValueIndex(hashMap.entrySet());
+    }
+
+    /**
+     * Returns true if the key is not notted, not empty, only contains ascii characters and no regex metacharacters,
+     * so the key only matches a key with the same lower case value
+     */
+    static boolean isIndexable(NottableString key) {
+        if (key == null || key.isNot() || key.getValue() == null || key.getValue().isEmpty()) {
+            return false;
+        }
+        String value = key.getValue();
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return RegexStringMatcher.isLiteral(value);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return entries.toString();
+    }
+
+    public boolean containsAll(CaseInsensitiveRegexMultiMap subSet) {
+        return containsAll(subSet.entryList(), subSet.allKeysNotted());
+    }
+
+    public boolean containsAll(CaseInsensitiveRegexHashMap subSet) {
+        return containsAll(subSet.entrySet(), subSet.allKeysNotted());
+    }
+
+    private boolean containsAll(Collection<Map.Entry<NottableString, NottableString>> subSet, boolean allSubSetKeysNotted) {
+        if (isEmpty() && allSubSetKeysNotted) {
+            return true;
+        } else {
+            for (Map.Entry<NottableString, NottableString> entry : subSet) {
+                if ((entry.getKey().isNot() || entry.getValue().isNot()) && containsKeyValue(string(entry.getKey().getValue()), string(entry.getValue().getValue()))) {
+                    return false;
+                } else if (!containsKeyValue(entry.getKey(), entry.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean containsKeyValue(NottableString key, NottableString value) {
+        if (isIndexable(key)) {
+            return containsKeyValue(literalKeyEntries.get(key.getValue().toLowerCase(Locale.ENGLISH)), key, value)
+                    || containsKeyValue(nonLiteralKeyEntries, key, value);
+        } else {
+            return containsKeyValue(entries, key, value);
+        }
+    }
+
+    private static boolean containsKeyValue(List<Map.Entry<NottableString, NottableString>> entries, NottableString key, NottableString value) {
+        if (entries != null) {
+            for (int i = 0; i < entries.size(); i++) {
+                Map.Entry<NottableString, NottableString> matcherEntry = entries.get(i);
+                if (RegexStringMatcher.matches(value, matcherEntry.getValue(), true)
+                        && RegexStringMatcher.matches(key, matcherEntry.getKey(), true)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -50,7 +50,7 @@ public class CaseInsensitiveRegexHashMap extends LinkedHashMap<NottableString, N
         return true;
     }
 
-    private boolean allKeysNotted() {
+    boolean allKeysNotted() {
         for (NottableString key : keySet()) {
             if (!key.isNot()) {
                 return false;
@@ -1,6 +1,6 @@
 package org.mockserver.collections;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
+import com.google.common.base.Objects;
 import org.mockserver.matchers.RegexStringMatcher;
 import org.mockserver.model.NottableString;
 import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
@@ -57,7 +57,7 @@ public class CaseInsensitiveRegexMultiMap extends ObjectWithReflectiveEqualsHash
         return true;
     }
 
-    private boolean allKeysNotted() {
+    boolean allKeysNotted() {
         for (NottableString key : keySet()) {
             if (!key.isNot()) {
                 return false;
@@ -141,7 +141,7 @@ public class CaseInsensitiveRegexMultiMap extends ObjectWithReflectiveEqualsHash
     public synchronized NottableString put(NottableString key, NottableString value) {
         List<NottableString> list = Collections.synchronizedList(new ArrayList<NottableString>());
         for (Entry<NottableString, NottableString> entry : entryList()) {
-            if (EqualsBuilder.reflectionEquals(entry.getKey(), key)) {
+            if (isSameKey(entry.getKey(), key)) {
                 list.add(entry.getValue());
             }
         }
@@ -150,6 +150,13 @@ public class CaseInsensitiveRegexMultiMap extends ObjectWithReflectiveEqualsHash
         return value;
     }
 
+    /**
+     * Compares the exact value and 'not' operator, unlike NottableString.equals which treats a 'not' value as equal to every other value
+     */
+    private static boolean isSameKey(NottableString key, NottableString otherKey) {
+        return key == otherKey || (key != null && otherKey != null && Objects.equal(key.getValue(), otherKey.getValue()) && Objects.equal(key.getNot(), otherKey.getNot()));
+    }
+
     public synchronized List<NottableString> put(String key, List<String> values) {
         return put(string(key), strings(values));
     }
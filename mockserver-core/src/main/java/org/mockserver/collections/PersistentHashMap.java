@@ -0,0 +1,186 @@
+package org.mockserver.collections;
+
+/**
+ * An immutable hash map where put and remove return a new map that shares all but the path to the changed entry
+ * with this map, so updating a map copies at most a few small nodes however many entries the map holds
+ *
+ * the map is a hash array mapped trie, each node holds up to 32 entries or child nodes indexed by five bits of
+ * the hash of the key, keys whose hashes are equal are held in a list at the bottom of the trie, keys and values
+ * can't be null
+ *
+ * @author jamesdbloom
+ */
+public class PersistentHashMap<K, V> {
+
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<Object, Object>(null);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private final Node root;
+
+    private PersistentHashMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return root != null ? (V) root.get(key, hash(key), 0) : null;
+    }
+
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Node updated = (root != null ? root : Node.EMPTY).put(key, hash(key), value, 0);
+        return updated != root ? new PersistentHashMap<K, V>(updated) : this;
+    }
+
+    /**
+     * Returns this map if it doesn't contain the key
+     */
+    public PersistentHashMap<K, V> remove(K key) {
+        if (root == null) {
+            return this;
+        }
+        Node updated = root.remove(key, hash(key), 0);
+        return updated != root ? new PersistentHashMap<K, V>(updated) : this;
+    }
+
+    /**
+     * Holds its entries as pairs in one array, a pair with a null key holds a child node as its value,
+     * below the last level of hash bits the entries are a list of keys with the same hash
+     */
+    private static class Node {
+        private static final Node EMPTY = new Node(0, new Object[0]);
+        private final int bitmap;
+        private final Object[] pairs;
+
+        Node(int bitmap, Object[] pairs) {
+            this.bitmap = bitmap;
+            this.pairs = pairs;
+        }
+
+        private static boolean isCollisionLevel(int shift) {
+            return shift >= Integer.SIZE;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Object get(Object key, int hash, int shift) {
+            if (isCollisionLevel(shift)) {
+                for (int i = 0; i < pairs.length; i += 2) {
+                    if (key.equals(pairs[i])) {
+                        return pairs[i + 1];
+                    }
+                }
+                return null;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int index = index(bit);
+            Object existingKey = pairs[index];
+            if (existingKey == null) {
+                return ((Node) pairs[index + 1]).get(key, hash, shift + BITS);
+            }
+            return key.equals(existingKey) ? pairs[index + 1] : null;
+        }
+
+        Node put(Object key, int hash, Object value, int shift) {
+            if (isCollisionLevel(shift)) {
+                for (int i = 0; i < pairs.length; i += 2) {
+                    if (key.equals(pairs[i])) {
+                        return pairs[i + 1] == value ? this : new Node(0, replace(pairs, i + 1, value));
+                    }
+                }
+                return new Node(0, insert(pairs, pairs.length, key, value));
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                return new Node(bitmap | bit, insert(pairs, index, key, value));
+            }
+            Object existingKey = pairs[index];
+            Object existingValue = pairs[index + 1];
+            if (existingKey == null) {
+                Node child = ((Node) existingValue).put(key, hash, value, shift + BITS);
+                return child == existingValue ? this : new Node(bitmap, replace(pairs, index + 1, child));
+            } else if (key.equals(existingKey)) {
+                return existingValue == value ? this : new Node(bitmap, replace(pairs, index + 1, value));
+            } else {
+                Node child = EMPTY
+                        .put(existingKey, PersistentHashMap.hash(existingKey), existingValue, shift + BITS)
+                        .put(key, hash, value, shift + BITS);
+                Object[] updated = replace(pairs, index + 1, child);
+                updated[index] = null;
+                return new Node(bitmap, updated);
+            }
+        }
+
+        /**
+         * Returns this node if it doesn't contain the key, or null if the node is empty once the key is removed
+         */
+        Node remove(Object key, int hash, int shift) {
+            if (isCollisionLevel(shift)) {
+                for (int i = 0; i < pairs.length; i += 2) {
+                    if (key.equals(pairs[i])) {
+                        return pairs.length == 2 ? null : new Node(0, delete(pairs, i));
+                    }
+                }
+                return this;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object existingKey = pairs[index];
+            if (existingKey == null) {
+                Node child = ((Node) pairs[index + 1]).remove(key, hash, shift + BITS);
+                if (child == pairs[index + 1]) {
+                    return this;
+                } else if (child != null) {
+                    return new Node(bitmap, replace(pairs, index + 1, child));
+                }
+            } else if (!key.equals(existingKey)) {
+                return this;
+            }
+            return bitmap == bit ? null : new Node(bitmap & ~bit, delete(pairs, index));
+        }
+
+        private static Object[] replace(Object[] pairs, int index, Object value) {
+            Object[] updated = pairs.clone();
+            updated[index] = value;
+            return updated;
+        }
+
+        private static Object[] insert(Object[] pairs, int index, Object key, Object value) {
+            Object[] updated = new Object[pairs.length + 2];
+            System.arraycopy(pairs, 0, updated, 0, index);
+            updated[index] = key;
+            updated[index + 1] = value;
+            System.arraycopy(pairs, index, updated, index + 2, pairs.length - index);
+            return updated;
+        }
+
+        private static Object[] delete(Object[] pairs, int index) {
+            Object[] updated = new Object[pairs.length - 2];
+            System.arraycopy(pairs, 0, updated, 0, index);
+            System.arraycopy(pairs, index + 2, updated, index, pairs.length - index - 2);
+            return updated;
+        }
+    }
+}
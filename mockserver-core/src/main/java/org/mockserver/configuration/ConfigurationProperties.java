@@ -24,6 +24,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ConfigurationProperties {
 
     static final long DEFAULT_MAX_TIMEOUT = 120;
+    static final int DEFAULT_REGEX_PATTERN_CACHE_SIZE = 1000;
+    static final int DEFAULT_MATCH_CACHE_SIZE = 0;
+    static final int DEFAULT_PARALLEL_MATCHING_THRESHOLD = 0;
+    static final int DEFAULT_MAX_AGGREGATED_CONTENT_LENGTH = Integer.MAX_VALUE;
+    static final int DEFAULT_STREAMING_BODY_THRESHOLD = 0;
+    static final long DEFAULT_MAX_PRE_ENCODED_RESPONSE_BYTES = 64 * 1024 * 1024;
     static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationProperties.class);
     static final Properties PROPERTIES = readPropertyFile();
 
@@ -177,6 +183,105 @@ public class ConfigurationProperties {
         System.setProperty("mockserver.proxyPort", INTEGER_STRING_LIST_PARSER.toString(port));
     }
 
+    // matching config
+    public static int regexPatternCacheSize() {
+        return readLongProperty("mockserver.regexPatternCacheSize", DEFAULT_REGEX_PATTERN_CACHE_SIZE).intValue();
+    }
+
+    /**
+     * Override the maximum number of compiled regex patterns cached for regex matchers and values matched as a regex,
+     * this is read once when matching first happens so must be set before any expectations are created
+     *
+     * @param size the maximum number of cached patterns
+     */
+    public static void regexPatternCacheSize(int size) {
+        System.setProperty("mockserver.regexPatternCacheSize", "" + size);
+    }
+
+    public static int matchCacheSize() {
+        return readLongProperty("mockserver.matchCacheSize", DEFAULT_MATCH_CACHE_SIZE).intValue();
+    }
+
+    /**
+     * Override the maximum number of distinct requests whose matching expectation is cached, by default the cache
+     * is disabled (i.e. 0), requests with a body larger than a kilobyte aren't cached, this is read when a MockServer
+     * is created so must be set before it is started
+     *
+     * @param size the maximum number of cached requests
+     */
+    public static void matchCacheSize(int size) {
+        System.setProperty("mockserver.matchCacheSize", "" + size);
+    }
+
+    public static int parallelMatchingThreshold() {
+        return readLongProperty("mockserver.parallelMatchingThreshold", DEFAULT_PARALLEL_MATCHING_THRESHOLD).intValue();
+    }
+
+    /**
+     * Override the number of candidate expectations above which a request is matched against the candidates by
+     * multiple threads, by default requests are always matched by a single thread (i.e. 0), this is read when a
+     * MockServer is created so must be set before it is started
+     *
+     * the candidates are matched by a pool with a thread per core shared by every connection, while they are
+     * matched the thread handling the request, i.e. a netty event loop thread, is blocked and doesn't serve its
+     * other connections, so a threshold is only worth setting when there are many more expectations than
+     * concurrent requests
+     *
+     * @param threshold the number of candidate expectations above which matching is parallel
+     */
+    public static void parallelMatchingThreshold(int threshold) {
+        System.setProperty("mockserver.parallelMatchingThreshold", "" + threshold);
+    }
+
+    // request body config
+    public static int maxAggregatedContentLength() {
+        return readLongProperty("mockserver.maxAggregatedContentLength", DEFAULT_MAX_AGGREGATED_CONTENT_LENGTH).intValue();
+    }
+
+    /**
+     * Override the maximum size in bytes of a request or response body held in memory, by default there is no limit,
+     * requests with a larger body are rejected with a 413 status code, this is read when a connection is opened
+     *
+     * @param length the maximum size of a body
+     */
+    public static void maxAggregatedContentLength(int length) {
+        System.setProperty("mockserver.maxAggregatedContentLength", "" + length);
+    }
+
+    public static int streamingBodyThreshold() {
+        return readLongProperty("mockserver.streamingBodyThreshold", DEFAULT_STREAMING_BODY_THRESHOLD).intValue();
+    }
+
+    /**
+     * Override the size in bytes of a request body above which the body is streamed through the MockServer and
+     * discarded, instead of being held in memory, when no expectation can need it, i.e. no expectation that could
+     * match the method and path has a body matcher, forwards the request or calls back with it, a discarded body
+     * isn't recorded so can't be retrieved or verified, by default bodies are never discarded (i.e. 0), this is
+     * read when a MockServer is created so must be set before it is started
+     *
+     * @param threshold the size of a body above which it is discarded if it isn't needed
+     */
+    public static void streamingBodyThreshold(int threshold) {
+        System.setProperty("mockserver.streamingBodyThreshold", "" + threshold);
+    }
+
+    // response config
+    public static long maxPreEncodedResponseBytes() {
+        return readLongProperty("mockserver.maxPreEncodedResponseBytes", DEFAULT_MAX_PRE_ENCODED_RESPONSE_BYTES);
+    }
+
+    /**
+     * Override the maximum total size in bytes of the responses held encoded so they are written without being
+     * encoded again, by default 64MB, the least recently used responses are encoded again once the limit is
+     * reached and responses larger than a quarter of the limit are never held encoded, 0 disables it, this is
+     * read when a MockServer is created so must be set before it is started
+     *
+     * @param bytes the maximum total size of the encoded responses
+     */
+    public static void maxPreEncodedResponseBytes(long bytes) {
+        System.setProperty("mockserver.maxPreEncodedResponseBytes", "" + bytes);
+    }
+
     private static List<Integer> readIntegerProperty(String key, Integer defaultValue) {
         try {
             return INTEGER_STRING_LIST_PARSER.toList(readPropertyHierarchically(key, "" + defaultValue));
@@ -66,7 +66,7 @@ public class HttpServletRequestToMockServerRequestDecoder {
             while (headerValues.hasMoreElements()) {
                 mappedHeaderValues.add(headerValues.nextElement());
             }
-            mappedHeaders.add(new Header(headerName, mappedHeaderValues.toArray(new String[mappedHeaderValues.size()])));
+            mappedHeaders.add(Header.receivedHeader(headerName, mappedHeaderValues));
         }
         httpRequest.withHeaders(mappedHeaders);
     }
@@ -30,6 +30,10 @@ public class BinaryMatcher extends BodyMatcher<byte[]> {
         return reverseResultIfNot(result);
     }
 
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(matchContext.getBodyAsRawBytes());
+    }
+
     @Override
     public String[] fieldsExcludedFromEqualsAndHashCode() {
         return new String[]{"logger"};
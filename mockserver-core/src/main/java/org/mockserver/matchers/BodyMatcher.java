@@ -5,4 +5,9 @@ package org.mockserver.matchers;
  */
 public abstract class BodyMatcher<MatchedType> extends NotMatcher<MatchedType> {
 
+    /**
+     * Matches the body of the request in the context, the decoded and parsed forms
+     * of the body are held by the context so are only created once per request
+     */
+    public abstract boolean matchesBody(MatchContext matchContext);
 }
@@ -1,5 +1,6 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Objects;
 import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,5 +40,20 @@ public class BooleanMatcher extends ObjectWithReflectiveEqualsHashCodeToString i
         return new String[]{"logger"};
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        BooleanMatcher that = (BooleanMatcher) other;
+        return Objects.equal(matcher, that.matcher);
+    }
 
+    @Override
+    public int hashCode() {
+        return matcher != null ? matcher.hashCode() : 0;
+    }
 }
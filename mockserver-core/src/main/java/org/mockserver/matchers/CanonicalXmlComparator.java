@@ -0,0 +1,142 @@
+package org.mockserver.matchers;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares xml documents as a stream of canonical events, the expected document is converted to events once
+ * and each document it's compared against is streamed with StAX stopping at the first event that differs,
+ * so no DOM or serialised copy of the document is created
+ *
+ * the canonical events ignore whitespace only text, the order of attributes and namespace declarations, and
+ * the difference between CDATA and text, elements and attributes are compared by their name as written (i.e.
+ * with any prefix), which is the same as comparing documents normalised by StringToXmlDocumentParser
+ *
+ * @author jamesdbloom
+ */
+public class CanonicalXmlComparator {
+
+    // an XMLInputFactory isn't guaranteed to be thread safe so each thread reuses its own factory
+    private static final ThreadLocal<XMLInputFactory> threadXmlInputFactory = new ThreadLocal<XMLInputFactory>();
+    private final List<String> expectedEvents;
+
+    public CanonicalXmlComparator(String expectedXml) throws XMLStreamException {
+        List<String> events = new ArrayList<String>();
+        XMLStreamReader reader = createReader(expectedXml);
+        try {
+            StringBuilder text = new StringBuilder();
+            String event;
+            while ((event = nextEvent(reader, text)) != null) {
+                events.add(event);
+            }
+        } finally {
+            reader.close();
+        }
+        this.expectedEvents = events;
+    }
+
+    /**
+     * Returns null if the xml matches the expected document, otherwise a description of the first difference
+     */
+    public String compare(String xml) throws XMLStreamException {
+        XMLStreamReader reader = createReader(xml);
+        try {
+            StringBuilder text = new StringBuilder();
+            for (String expectedEvent : expectedEvents) {
+                String event = nextEvent(reader, text);
+                if (!expectedEvent.equals(event)) {
+                    return "expected [" + expectedEvent + "] but found [" + event + "]";
+                }
+            }
+            String event = nextEvent(reader, text);
+            if (event != null) {
+                return "expected end of document but found [" + event + "]";
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLStreamReader createReader(String xml) throws XMLStreamException {
+        if (xml == null) {
+            throw new XMLStreamException("xml is null");
+        }
+        XMLInputFactory xmlInputFactory = threadXmlInputFactory.get();
+        if (xmlInputFactory == null) {
+            xmlInputFactory = XMLInputFactory.newInstance();
+            xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            threadXmlInputFactory.set(xmlInputFactory);
+        }
+        return xmlInputFactory.createXMLStreamReader(new StringReader(xml));
+    }
+
+    /**
+     * Returns the next canonical event or null at the end of the document, text is used to join adjacent text events
+     */
+    private static String nextEvent(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        text.setLength(0);
+        while (reader.hasNext()) {
+            int eventType = reader.next();
+            if (eventType == XMLStreamConstants.CHARACTERS || eventType == XMLStreamConstants.CDATA || eventType == XMLStreamConstants.SPACE) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            } else if (eventType == XMLStreamConstants.START_ELEMENT || eventType == XMLStreamConstants.END_ELEMENT
+                    || eventType == XMLStreamConstants.COMMENT || eventType == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                if (!isWhitespace(text)) {
+                    // the text is returned first, so the stream is positioned on an event that hasn't been returned
+                    String textEvent = "#" + text;
+                    text.setLength(0);
+                    return textEvent + "\u0000" + markupEvent(reader, eventType);
+                }
+                text.setLength(0);
+                return markupEvent(reader, eventType);
+            }
+        }
+        return isWhitespace(text) ? null : "#" + text;
+    }
+
+    private static String markupEvent(XMLStreamReader reader, int eventType) {
+        switch (eventType) {
+            case XMLStreamConstants.START_ELEMENT:
+                StringBuilder startElement = new StringBuilder("<").append(name(reader.getPrefix(), reader.getLocalName()));
+                List<String> attributes = new ArrayList<String>(reader.getNamespaceCount() + reader.getAttributeCount());
+                for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                    String namespacePrefix = reader.getNamespacePrefix(i);
+                    attributes.add((namespacePrefix == null || namespacePrefix.isEmpty() ? "xmlns" : "xmlns:" + namespacePrefix) + "=\"" + reader.getNamespaceURI(i) + "\"");
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    attributes.add(name(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)) + "=\"" + reader.getAttributeValue(i) + "\"");
+                }
+                Collections.sort(attributes);
+                for (String attribute : attributes) {
+                    startElement.append(' ').append(attribute);
+                }
+                return startElement.append('>').toString();
+            case XMLStreamConstants.END_ELEMENT:
+                return "</" + name(reader.getPrefix(), reader.getLocalName()) + ">";
+            case XMLStreamConstants.COMMENT:
+                return "<!--" + reader.getText() + "-->";
+            default:
+                return "<?" + reader.getPITarget() + " " + reader.getPIData() + "?>";
+        }
+    }
+
+    private static String name(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static boolean isWhitespace(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
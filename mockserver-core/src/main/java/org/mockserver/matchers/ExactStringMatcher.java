@@ -1,5 +1,6 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 import org.mockserver.model.NottableString;
 import org.slf4j.Logger;
@@ -46,6 +47,10 @@ public class ExactStringMatcher extends BodyMatcher<NottableString> {
         return matches(string(matched));
     }
 
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(string(matchContext.getBodyAsString()));
+    }
+
     public boolean matches(NottableString matched) {
         boolean result = false;
 
@@ -64,4 +69,21 @@ public class ExactStringMatcher extends BodyMatcher<NottableString> {
     public String[] fieldsExcludedFromEqualsAndHashCode() {
         return new String[]{"logger"};
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        ExactStringMatcher that = (ExactStringMatcher) other;
+        return not == that.not && Objects.equal(matcher, that.matcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (matcher != null ? matcher.hashCode() : 0) + (not ? 1 : 0);
+    }
 }
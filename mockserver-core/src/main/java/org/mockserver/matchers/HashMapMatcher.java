@@ -1,31 +1,68 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Objects;
+import org.mockserver.collections.CaseInsensitiveKeyValueIndex;
 import org.mockserver.collections.CaseInsensitiveRegexHashMap;
 import org.mockserver.model.KeyAndValue;
+import org.mockserver.model.NottableString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author jamesdbloom
  */
 public class HashMapMatcher extends NotMatcher<List<KeyAndValue>> {
+    private static final Logger logger = LoggerFactory.getLogger(HashMapMatcher.class);
     private final CaseInsensitiveRegexHashMap hashMap;
 
     public HashMapMatcher(CaseInsensitiveRegexHashMap hashMap) {
         this.hashMap = hashMap;
+        if (hashMap != null) {
+            for (Map.Entry<NottableString, NottableString> entry : hashMap.entrySet()) {
+                RegexStringMatcher.precompile(entry.getKey());
+                RegexStringMatcher.precompile(entry.getValue());
+            }
+        }
     }
 
     public boolean matches(List<KeyAndValue> values) {
+        return matchesIndex(CaseInsensitiveKeyValueIndex.index(KeyAndValue.toHashMap(values)));
+    }
+
+    /**
+     * Matches against an index of the request's values, so the index can be built once and shared by all expectations
+     */
+    public boolean matchesIndex(CaseInsensitiveKeyValueIndex values) {
         boolean result = false;
 
         if (hashMap == null) {
             result = true;
-        } else if (KeyAndValue.toHashMap(values).containsAll(hashMap)) {
+        } else if (values.containsAll(hashMap)) {
             result = true;
         } else {
-            logger.trace("Map [{}] is not a subset of [{}]", this.hashMap, KeyAndValue.toHashMap(values));
+            logger.trace("Map [{}] is not a subset of [{}]", this.hashMap, values);
         }
 
         return reverseResultIfNot(result);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        HashMapMatcher that = (HashMapMatcher) other;
+        return not == that.not && Objects.equal(hashMap, that.hashMap);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (hashMap != null ? hashMap.hashCode() : 0) + (not ? 1 : 0);
+    }
 }
@@ -1,16 +1,18 @@
 package org.mockserver.matchers;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import org.mockserver.client.serialization.ObjectMapperFactory;
 import org.mockserver.client.serialization.model.*;
 import org.mockserver.logging.LogFormatter;
 import org.mockserver.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockserver.model.NottableString.string;
 
@@ -19,22 +21,27 @@ import static org.mockserver.model.NottableString.string;
  */
 public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
 
-    private LogFormatter logFormatter = new LogFormatter(logger);
+    private static final Logger logger = LoggerFactory.getLogger(HttpRequestMatcher.class);
+    private static final LogFormatter logFormatter = new LogFormatter(logger);
+    private static final String[] FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"fieldsExcludedFromEqualsAndHashCode", "matchPlan", "sharedConditions"};
+    private static final RequestField[] EMPTY_MATCH_PLAN = new RequestField[0];
     private HttpRequest httpRequest;
     private RegexStringMatcher methodMatcher = null;
     private RegexStringMatcher pathMatcher = null;
+    private PathTemplateMatcher pathTemplateMatcher = null;
     private MultiValueMapMatcher queryStringParameterMatcher = null;
     private BodyMatcher bodyMatcher = null;
     private MultiValueMapMatcher headerMatcher = null;
     private HashMapMatcher cookieMatcher = null;
     private BooleanMatcher keepAliveMatcher = null;
-    private BodyDTO bodyDTOMatcher = null;
     private BooleanMatcher sslMatcher = null;
-    private ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapper();
+    private RequestField[] matchPlan = EMPTY_MATCH_PLAN;
+    private Map<RequestField, SharedConditions.Condition> sharedConditions = Collections.emptyMap();
 
     public HttpRequestMatcher(HttpRequest httpRequest) {
         this.httpRequest = httpRequest;
         if (httpRequest != null) {
+            // fields that match any request (i.e. no headers or a null keep-alive) don't have a matcher as they're never matched
             withMethod(httpRequest.getMethod());
             withPath(httpRequest.getPath());
             withQueryStringParameters(httpRequest.getQueryStringParameters());
@@ -43,8 +50,94 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
             withCookies(httpRequest.getCookies());
             withKeepAlive(httpRequest.isKeepAlive());
             withSsl(httpRequest.isSecure());
+            compileMatchPlan();
         }
-        addFieldsExcludedFromEqualsAndHashCode("logFormatter", "objectMapper");
+    }
+
+    @Override
+    protected String[] fieldsExcludedFromEqualsAndHashCode() {
+        return FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE;
+    }
+
+    /**
+     * Orders the fields to match from cheapest to most expensive, skipping fields that match any request,
+     * so that matching can stop at the first field that doesn't match
+     */
+    private void compileMatchPlan() {
+        List<RequestField> plan = new ArrayList<RequestField>();
+        for (RequestField requestField : RequestField.values()) {
+            switch (requestField) {
+                case KEEP_ALIVE:
+                    if (httpRequest.isKeepAlive() != null) {
+                        plan.add(requestField);
+                    }
+                    break;
+                case SSL:
+                    if (httpRequest.isSecure() != null) {
+                        plan.add(requestField);
+                    }
+                    break;
+                case QUERY_STRING_PARAMETERS:
+                    if (httpRequest.getQueryStringParameters() != null && !httpRequest.getQueryStringParameters().isEmpty()) {
+                        plan.add(requestField);
+                    }
+                    break;
+                case COOKIES:
+                    if (httpRequest.getCookies() != null && !httpRequest.getCookies().isEmpty()) {
+                        plan.add(requestField);
+                    }
+                    break;
+                case HEADERS:
+                    if (httpRequest.getHeaders() != null && !httpRequest.getHeaders().isEmpty()) {
+                        plan.add(requestField);
+                    }
+                    break;
+                case BODY:
+                    if (bodyMatcher != null) {
+                        plan.add(requestField);
+                    }
+                    break;
+                default:
+                    plan.add(requestField);
+            }
+        }
+        matchPlan = plan.toArray(new RequestField[plan.size()]);
+    }
+
+    /**
+     * Shares the path, query string parameter, cookie, header and body conditions with any other expectation that
+     * has identical conditions, so each distinct condition is evaluated at most once per MatchContext
+     */
+    public HttpRequestMatcher shareConditions(SharedConditions sharedConditions) {
+        if (httpRequest != null) {
+            Map<RequestField, SharedConditions.Condition> conditions = new EnumMap<RequestField, SharedConditions.Condition>(RequestField.class);
+            for (RequestField requestField : matchPlan) {
+                switch (requestField) {
+                    case PATH:
+                        // a path template captures the path parameters of each request so isn't shared
+                        if (pathTemplateMatcher == null) {
+                            conditions.put(requestField, sharedConditions.path(httpRequest.getPath()));
+                        }
+                        break;
+                    case QUERY_STRING_PARAMETERS:
+                        conditions.put(requestField, sharedConditions.queryStringParameters(httpRequest.getQueryStringParameters()));
+                        break;
+                    case COOKIES:
+                        conditions.put(requestField, sharedConditions.cookies(httpRequest.getCookies()));
+                        break;
+                    case HEADERS:
+                        conditions.put(requestField, sharedConditions.headers(httpRequest.getHeaders()));
+                        break;
+                    case BODY:
+                        conditions.put(requestField, sharedConditions.body(httpRequest.getBody()));
+                        break;
+                    default:
+                        // the remaining fields are cheaper to match than to look up
+                }
+            }
+            this.sharedConditions = conditions;
+        }
+        return this;
     }
 
     private HttpRequestMatcher withMethod(NottableString method) {
@@ -54,11 +147,16 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
 
     private HttpRequestMatcher withPath(NottableString path) {
         this.pathMatcher = new RegexStringMatcher(path);
+        if (PathTemplateMatcher.isPathTemplate(path)) {
+            this.pathTemplateMatcher = new PathTemplateMatcher(path);
+        }
         return this;
     }
 
     private HttpRequestMatcher withQueryStringParameters(List<Parameter> parameters) {
-        this.queryStringParameterMatcher = new MultiValueMapMatcher(KeyToMultiValue.toMultiMap(parameters));
+        if (!parameters.isEmpty()) {
+            this.queryStringParameterMatcher = new MultiValueMapMatcher(KeyToMultiValue.toMultiMap(parameters));
+        }
         return this;
     }
 
@@ -67,42 +165,34 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
             switch (body.getType()) {
                 case STRING:
                     StringBody stringBody = (StringBody) body;
-                    bodyDTOMatcher = new StringBodyDTO(stringBody);
                     this.bodyMatcher = new ExactStringMatcher(string(stringBody.getValue(), stringBody.getNot()));
                     break;
                 case REGEX:
                     RegexBody regexBody = (RegexBody) body;
-                    bodyDTOMatcher = new RegexBodyDTO(regexBody);
                     this.bodyMatcher = new RegexStringMatcher(string(regexBody.getValue(), regexBody.getNot()));
                     break;
                 case PARAMETERS:
                     ParameterBody parameterBody = (ParameterBody) body;
-                    bodyDTOMatcher = new ParameterBodyDTO(parameterBody);
                     this.bodyMatcher = new ParameterStringMatcher(parameterBody.getValue());
                     break;
                 case XPATH:
                     XPathBody xPathBody = (XPathBody) body;
-                    bodyDTOMatcher = new XPathBodyDTO(xPathBody);
                     this.bodyMatcher = new XPathStringMatcher(xPathBody.getValue());
                     break;
                 case XML:
                     XmlBody xmlBody = (XmlBody) body;
-                    bodyDTOMatcher = new XmlBodyDTO(xmlBody);
                     this.bodyMatcher = new XmlStringMatcher(xmlBody.getValue());
                     break;
                 case JSON:
                     JsonBody jsonBody = (JsonBody) body;
-                    bodyDTOMatcher = new JsonBodyDTO(jsonBody);
                     this.bodyMatcher = new JsonStringMatcher(jsonBody.getValue(), jsonBody.getMatchType());
                     break;
                 case JSON_SCHEMA:
                     JsonSchemaBody jsonSchemaBody = (JsonSchemaBody) body;
-                    bodyDTOMatcher = new JsonSchemaBodyDTO(jsonSchemaBody);
                     this.bodyMatcher = new JsonSchemaMatcher(jsonSchemaBody.getValue());
                     break;
                 case BINARY:
                     BinaryBody binaryBody = (BinaryBody) body;
-                    bodyDTOMatcher = new BinaryBodyDTO(binaryBody);
                     this.bodyMatcher = new BinaryMatcher(binaryBody.getValue());
                     break;
             }
@@ -119,7 +209,9 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
     }
 
     private HttpRequestMatcher withHeaders(List<Header> headers) {
-        this.headerMatcher = new MultiValueMapMatcher(KeyToMultiValue.toMultiMap(headers));
+        if (!headers.isEmpty()) {
+            this.headerMatcher = new MultiValueMapMatcher(KeyToMultiValue.toMultiMap(headers));
+        }
         return this;
     }
 
@@ -129,17 +221,23 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
     }
 
     private HttpRequestMatcher withCookies(List<Cookie> cookies) {
-        this.cookieMatcher = new HashMapMatcher(KeyAndValue.toHashMap(cookies));
+        if (!cookies.isEmpty()) {
+            this.cookieMatcher = new HashMapMatcher(KeyAndValue.toHashMap(cookies));
+        }
         return this;
     }
 
     private HttpRequestMatcher withKeepAlive(Boolean keepAlive) {
-        this.keepAliveMatcher = new BooleanMatcher(keepAlive);
+        if (keepAlive != null) {
+            this.keepAliveMatcher = new BooleanMatcher(keepAlive);
+        }
         return this;
     }
 
     private HttpRequestMatcher withSsl(Boolean isSsl) {
-        this.sslMatcher = new BooleanMatcher(isSsl);
+        if (isSsl != null) {
+            this.sslMatcher = new BooleanMatcher(isSsl);
+        }
         return this;
     }
 
@@ -148,45 +246,36 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
     }
 
     public boolean matches(HttpRequest httpRequest, boolean logMatchResults) {
+        return matches(new MatchContext(httpRequest), logMatchResults);
+    }
+
+    /**
+     * Matches the request in the context, any decoded or parsed form of the request body is held by the
+     * context so the same context should be used when matching a request against multiple expectations
+     */
+    public boolean matches(MatchContext matchContext, boolean logMatchResults) {
+        HttpRequest httpRequest = matchContext.getHttpRequest();
         if (httpRequest == this.httpRequest) {
             return true;
         } else if (this.httpRequest == null) {
             return true;
         } else {
             if (httpRequest != null) {
-                boolean methodMatches = Strings.isNullOrEmpty(httpRequest.getMethod().getValue()) || matches(methodMatcher, httpRequest.getMethod());
-                boolean pathMatches = Strings.isNullOrEmpty(httpRequest.getPath().getValue()) || matches(pathMatcher, httpRequest.getPath());
-                boolean queryStringParametersMatches = matches(queryStringParameterMatcher, (httpRequest.getQueryStringParameters() != null ? new ArrayList<KeyToMultiValue>(httpRequest.getQueryStringParameters()) : null));
-                boolean bodyMatches;
-                String bodyAsString = httpRequest.getBody() != null ? new String(httpRequest.getBody().getRawBytes(), httpRequest.getBody().getCharset(Charsets.UTF_8)) : "";
-                BodyDTO bodyDTO = null;
-                try {
-                    bodyDTO = objectMapper.readValue(bodyAsString, BodyDTO.class);
-                } catch (IOException e) {
-                    // ignore this exception as this exception will always get thrown for "normal" HTTP requests (i.e. not clear or retrieve)
-                }
-                if (bodyDTO == null || bodyDTOMatcher == null || bodyDTO.getType() == Body.Type.STRING) {
-                    if (bodyMatcher instanceof BinaryMatcher) {
-                        bodyMatches = matches(bodyMatcher, httpRequest.getBodyAsRawBytes());
-                    } else {
-                        if (bodyMatcher instanceof ExactStringMatcher || bodyMatcher instanceof RegexStringMatcher || bodyMatcher instanceof XmlStringMatcher) {
-                            bodyMatches = matches(bodyMatcher, string(bodyAsString));
-                        } else {
-                            bodyMatches = matches(bodyMatcher, bodyAsString);
-                        }
-                    }
-                } else {
-                    bodyMatches = bodyDTOMatcher.equals(bodyDTO);
-                }
-                boolean headersMatch = matches(headerMatcher, (httpRequest.getHeaders() != null ? new ArrayList<KeyToMultiValue>(httpRequest.getHeaders()) : null));
-                boolean cookiesMatch = matches(cookieMatcher, (httpRequest.getCookies() != null ? new ArrayList<KeyAndValue>(httpRequest.getCookies()) : null));
-                boolean keepAliveMatches = matches(keepAliveMatcher, httpRequest.isKeepAlive());
-                boolean sslMatches = matches(sslMatcher, httpRequest.isSecure());
+                boolean totalResultAfterNotOperatorApplied;
+                if (logMatchResults && logger.isInfoEnabled()) {
+                    // evaluate every field so the log explains all the reasons the request didn't match
+                    boolean methodMatches = matches(RequestField.METHOD, matchContext);
+                    boolean pathMatches = matches(RequestField.PATH, matchContext);
+                    boolean queryStringParametersMatches = matches(RequestField.QUERY_STRING_PARAMETERS, matchContext);
+                    boolean bodyMatches = matches(RequestField.BODY, matchContext);
+                    boolean headersMatch = matches(RequestField.HEADERS, matchContext);
+                    boolean cookiesMatch = matches(RequestField.COOKIES, matchContext);
+                    boolean keepAliveMatches = matches(RequestField.KEEP_ALIVE, matchContext);
+                    boolean sslMatches = matches(RequestField.SSL, matchContext);
 
-                boolean totalResult = methodMatches && pathMatches && queryStringParametersMatches && bodyMatches && headersMatch && cookiesMatch && keepAliveMatches && sslMatches;
-                boolean totalResultAfterNotOperatorApplied = httpRequest.isNot() == (this.httpRequest.isNot() == (not != totalResult));
+                    boolean totalResult = methodMatches && pathMatches && queryStringParametersMatches && bodyMatches && headersMatch && cookiesMatch && keepAliveMatches && sslMatches;
+                    totalResultAfterNotOperatorApplied = httpRequest.isNot() == (this.httpRequest.isNot() == (not != totalResult));
 
-                if (logMatchResults && logger.isInfoEnabled()) {
                     if (!totalResultAfterNotOperatorApplied) {
                         StringBuilder becauseBuilder = new StringBuilder();
                         becauseBuilder.append("method matches = ").append(methodMatches).append(System.getProperty("line.separator"));
@@ -210,6 +299,15 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
                     } else {
                         logFormatter.infoLog("request:{}" + System.getProperty("line.separator") + " matched expectation:{}", httpRequest, this);
                     }
+                } else {
+                    boolean totalResult = true;
+                    for (RequestField requestField : matchPlan) {
+                        if (!matches(requestField, matchContext)) {
+                            totalResult = false;
+                            break;
+                        }
+                    }
+                    totalResultAfterNotOperatorApplied = httpRequest.isNot() == (this.httpRequest.isNot() == (not != totalResult));
                 }
                 return totalResultAfterNotOperatorApplied;
             } else {
@@ -218,6 +316,66 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
         }
     }
 
+    private boolean matches(RequestField requestField, MatchContext matchContext) {
+        SharedConditions.Condition condition = sharedConditions.get(requestField);
+        if (condition == null) {
+            return evaluate(requestField, matchContext);
+        }
+        Boolean result = matchContext.getConditionResult(condition);
+        if (result == null) {
+            result = evaluate(requestField, matchContext);
+            matchContext.setConditionResult(condition, result);
+        } else if (requestField == RequestField.PATH) {
+            // a shared path is never a path template so doesn't have any path parameters
+            matchContext.setPathParameters(Collections.<String, String>emptyMap());
+        }
+        return result;
+    }
+
+    private boolean evaluate(RequestField requestField, MatchContext matchContext) {
+        HttpRequest httpRequest = matchContext.getHttpRequest();
+        switch (requestField) {
+            case KEEP_ALIVE:
+                return matches(keepAliveMatcher, httpRequest.isKeepAlive());
+            case SSL:
+                return matches(sslMatcher, httpRequest.isSecure());
+            case METHOD:
+                return Strings.isNullOrEmpty(httpRequest.getMethod().getValue()) || matches(methodMatcher, httpRequest.getMethod());
+            case PATH:
+                return Strings.isNullOrEmpty(httpRequest.getPath().getValue()) || matchesPath(matchContext);
+            case QUERY_STRING_PARAMETERS:
+                return queryStringParameterMatcher == null || queryStringParameterMatcher.matchesIndex(matchContext.getQueryStringParametersIndex());
+            case COOKIES:
+                return cookieMatcher == null || cookieMatcher.matchesIndex(matchContext.getCookiesIndex());
+            case HEADERS:
+                return headerMatcher == null || headerMatcher.matchesIndex(matchContext.getHeadersIndex());
+            case BODY:
+                BodyDTO bodyDTO = matchContext.getBodyAsBodyDTO();
+                if (bodyDTO == null || bodyMatcher == null || bodyDTO.getType() == Body.Type.STRING) {
+                    return bodyMatcher == null || bodyMatcher.matchesBody(matchContext);
+                } else {
+                    // only the serialised body matchers of clear and retrieve requests are compared as bodies so the body isn't held as a DTO
+                    return BodyDTO.createDTO(this.httpRequest.getBody()).equals(bodyDTO);
+                }
+            default:
+                return false;
+        }
+    }
+
+    private boolean matchesPath(MatchContext matchContext) {
+        NottableString path = matchContext.getHttpRequest().getPath();
+        if (pathTemplateMatcher != null) {
+            Map<String, String> pathParameters = pathTemplateMatcher.capture(path.getValue());
+            if (pathParameters != null) {
+                matchContext.setPathParameters(pathParameters);
+                return !(httpRequest.getPath().isNot() || path.isNot());
+            }
+        }
+        matchContext.setPathParameters(Collections.<String, String>emptyMap());
+        // a path template may also match as a string or as a regex, i.e. when the matched path is itself a regex
+        return matches(pathMatcher, path);
+    }
+
     private <T> boolean matches(Matcher<T> matcher, T t) {
         boolean result = false;
 
@@ -230,6 +388,20 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
         return result;
     }
 
+    /**
+     * The fields of a request in the order they are matched, i.e. from cheapest to most expensive
+     */
+    private enum RequestField {
+        KEEP_ALIVE,
+        SSL,
+        METHOD,
+        PATH,
+        QUERY_STRING_PARAMETERS,
+        COOKIES,
+        HEADERS,
+        BODY
+    }
+
     @Override
     public String toString() {
         try {
@@ -241,4 +413,27 @@ public class HttpRequestMatcher extends NotMatcher<HttpRequest> {
             return super.toString();
         }
     }
+
+    /**
+     * Matchers are equal if they match the same request, as every other field is derived from the request
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        HttpRequestMatcher that = (HttpRequestMatcher) other;
+        return not == that.not && (httpRequest != null ? httpRequest.equals(that.httpRequest) : that.httpRequest == null);
+    }
+
+    /**
+     * Not cached as the request is mutable and the matcher can be changed to a 'not' matcher after it is created
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (httpRequest != null ? httpRequest.hashCode() : 0) + (not ? 1 : 0);
+    }
 }
@@ -1,25 +1,50 @@
 package org.mockserver.matchers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
 import org.mockserver.client.serialization.ObjectMapperFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * See http://json-schema.org/
  *
+ * the schema is parsed, checked and compiled once when the matcher is created, the compiled
+ * schema is thread safe so it's shared by all requests the matcher is checked against
+ *
  * @author jamesdbloom
  */
 public class JsonSchemaMatcher extends BodyMatcher<String> {
+    private static final JsonSchemaFactory jsonSchemaFactory = JsonSchemaFactory.byDefault();
+    private static final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapper();
+    private static final Logger logger = LoggerFactory.getLogger(JsonSchemaMatcher.class);
+    private static final String[] FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"jsonSchema", "invalidSchemaReason"};
     private final String schema;
-    private ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapper();
+    private JsonSchema jsonSchema;
+    private String invalidSchemaReason;
 
     protected String[] fieldsExcludedFromEqualsAndHashCode() {
-        return new String[]{"logger", "objectMapper"};
+        return FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE;
     }
 
     public JsonSchemaMatcher(String schema) {
         this.schema = schema;
+        if (schema != null) {
+            try {
+                JsonNode schemaJson = objectMapper.readTree(schema);
+                ProcessingReport syntaxReport = jsonSchemaFactory.getSyntaxValidator().validateSchema(schemaJson);
+                if (!syntaxReport.isSuccess()) {
+                    logger.error("Invalid json schema [" + schema + "] " + syntaxReport);
+                }
+                jsonSchema = jsonSchemaFactory.getJsonSchema(schemaJson);
+            } catch (Exception e) {
+                invalidSchemaReason = e.getMessage();
+                logger.error("Error while creating json schema matcher for [" + schema + "]" + e.getMessage(), e);
+            }
+        }
     }
 
     public boolean matches(String matched) {
@@ -43,10 +68,48 @@ public class JsonSchemaMatcher extends BodyMatcher<String> {
         return reverseResultIfNot(result);
     }
 
+    public boolean matchesBody(MatchContext matchContext) {
+        boolean result = false;
+
+        String matched = matchContext.getBodyAsString();
+        ProcessingReport processingReport;
+        try {
+            processingReport = validateJson(matchContext.getBodyAsJsonNode());
+
+            if (processingReport.isSuccess()) {
+                result = true;
+            }
+
+            if (!result) {
+                logger.trace("Failed to perform JSON match \"{}\" with schema \"{}\" because {}", matched, this.schema, processingReport.toString());
+            }
+        } catch (Exception e) {
+            logger.trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", matched, this.schema, e.getMessage());
+        }
+
+        return reverseResultIfNot(result);
+    }
+
     public ProcessingReport validateJson(String json) throws Exception {
-        return JsonSchemaFactory
-                .byDefault()
-                .getValidator()
-                .validate(objectMapper.readTree(schema), objectMapper.readTree(json), true);
+        JsonSchema compiledSchema = compiledSchema();
+        return compiledSchema.validate(objectMapper.readTree(json), true);
+    }
+
+    /**
+     * Validates json that has already been parsed, i.e. a request body shared via the match context
+     */
+    public ProcessingReport validateJson(JsonNode json) throws Exception {
+        JsonSchema compiledSchema = compiledSchema();
+        if (json == null) {
+            throw new IllegalArgumentException("body is not valid json");
+        }
+        return compiledSchema.validate(json, true);
+    }
+
+    private JsonSchema compiledSchema() {
+        if (jsonSchema == null) {
+            throw new IllegalArgumentException(invalidSchemaReason != null ? invalidSchemaReason : "schema is null");
+        }
+        return jsonSchema;
     }
 }
@@ -1,45 +1,177 @@
 package org.mockserver.matchers;
 
-import org.mockserver.model.JsonBody;
-import org.skyscreamer.jsonassert.JSONCompareMode;
-import org.skyscreamer.jsonassert.JSONCompareResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockserver.client.serialization.ObjectMapperFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import static org.skyscreamer.jsonassert.JSONCompare.compareJSON;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
+ * Matches a json body against the expected json, the expected json is parsed once when the matcher is created
+ * and compared with the json tree of the request, which is parsed once per request by the MatchContext
+ *
+ * ONLY_MATCHING_FIELDS ignores extra fields and the order of array elements, STRICT doesn't allow extra fields
+ * and requires array elements to be in the same order, in both modes arrays must be the same length and numbers
+ * are compared by value, comparison stops at the first difference
+ *
  * @author jamesdbloom
  */
 public class JsonStringMatcher extends BodyMatcher<String> {
+    private static final Logger logger = LoggerFactory.getLogger(JsonStringMatcher.class);
+    private static final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapper();
+    private static final String[] FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"fieldsExcludedFromEqualsAndHashCode", "matcherJson"};
     private final String matcher;
     private final MatchType matchType;
+    private final JsonNode matcherJson;
 
     public JsonStringMatcher(String matcher, MatchType matchType) {
         this.matcher = matcher;
         this.matchType = matchType;
+        this.matcherJson = parse(matcher);
+    }
+
+    @Override
+    protected String[] fieldsExcludedFromEqualsAndHashCode() {
+        return FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE;
+    }
+
+    private JsonNode parse(String json) {
+        if (json != null && !json.isEmpty()) {
+            try {
+                JsonNode jsonNode = objectMapper.readTree(json);
+                if (jsonNode != null && (jsonNode.isObject() || jsonNode.isArray())) {
+                    return jsonNode;
+                }
+            } catch (Exception e) {
+                logger.trace("Failed to parse json \"{}\" because {}", json, e.getMessage());
+            }
+        }
+        return null;
     }
 
     public boolean matches(String matched) {
+        return matches(matched, parse(matched));
+    }
+
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(matchContext.getBodyAsString(), matchContext.getBodyAsJsonNode());
+    }
+
+    private boolean matches(String matched, JsonNode matchedJson) {
         boolean result = false;
 
-        JSONCompareResult jsonCompareResult;
-        try {
-            JSONCompareMode jsonCompareMode = JSONCompareMode.LENIENT;
-            if (matchType == MatchType.STRICT) {
-                jsonCompareMode = JSONCompareMode.STRICT;
+        if (matcherJson != null && matchedJson != null) {
+            StringBuilder failure = logger.isTraceEnabled() ? new StringBuilder() : null;
+            result = equal("", matcherJson, matchedJson, failure);
+
+            if (!result && failure != null) {
+                logger.trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", matched, this.matcher, failure);
+            }
+        } else {
+            logger.trace("Failed to perform JSON match \"{}\" with \"{}\" because {} is not a json object or array", matched, this.matcher, matcherJson == null ? "expectation" : "body");
+        }
+
+        return reverseResultIfNot(result);
+    }
+
+    /**
+     * Returns true if the actual json contains the expected json, if false and failure isn't null the first difference is appended to failure
+     */
+    private boolean equal(String path, JsonNode expected, JsonNode actual, StringBuilder failure) {
+        if (expected.isNumber() && actual.isNumber()) {
+            return expected.doubleValue() == actual.doubleValue() || fail(failure, path, expected, actual);
+        } else if (expected.getNodeType() != actual.getNodeType()) {
+            return fail(failure, path, expected, actual);
+        } else if (expected.isObject()) {
+            return equalObject(path, expected, actual, failure);
+        } else if (expected.isArray()) {
+            return equalArray(path, expected, actual, failure);
+        } else {
+            return expected.equals(actual) || fail(failure, path, expected, actual);
+        }
+    }
+
+    private boolean equalObject(String path, JsonNode expected, JsonNode actual, StringBuilder failure) {
+        Iterator<Map.Entry<String, JsonNode>> expectedFields = expected.fields();
+        while (expectedFields.hasNext()) {
+            Map.Entry<String, JsonNode> expectedField = expectedFields.next();
+            String fieldPath = path.isEmpty() ? expectedField.getKey() : path + "." + expectedField.getKey();
+            JsonNode actualField = actual.get(expectedField.getKey());
+            if (actualField == null) {
+                return fail(failure, fieldPath, expectedField.getValue(), null);
+            } else if (!equal(fieldPath, expectedField.getValue(), actualField, failure)) {
+                return false;
             }
-            jsonCompareResult = compareJSON(matcher, matched, jsonCompareMode);
+        }
+        if (matchType == MatchType.STRICT && actual.size() != expected.size()) {
+            Iterator<String> actualFieldNames = actual.fieldNames();
+            while (actualFieldNames.hasNext()) {
+                String actualFieldName = actualFieldNames.next();
+                if (!expected.has(actualFieldName)) {
+                    return fail(failure, path.isEmpty() ? actualFieldName : path + "." + actualFieldName, null, actual.get(actualFieldName));
+                }
+            }
+        }
+        return true;
+    }
 
-            if (jsonCompareResult.passed()) {
-                result = true;
+    private boolean equalArray(String path, JsonNode expected, JsonNode actual, StringBuilder failure) {
+        if (expected.size() != actual.size()) {
+            if (failure != null) {
+                failure.append(path).append("[]: expected ").append(expected.size()).append(" values but got ").append(actual.size());
             }
+            return false;
+        }
+        if (matchType == MatchType.STRICT) {
+            for (int i = 0; i < expected.size(); i++) {
+                if (!equal(path + "[" + i + "]", expected.get(i), actual.get(i), failure)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            // find an actual element for each expected element, moving earlier assignments when an element has no free match
+            int[] expectedForActual = new int[actual.size()];
+            Boolean[][] matches = new Boolean[expected.size()][actual.size()];
+            Arrays.fill(expectedForActual, -1);
+            for (int i = 0; i < expected.size(); i++) {
+                if (!assign(i, expected, actual, matches, expectedForActual, new boolean[actual.size()])) {
+                    if (failure != null) {
+                        failure.append(path).append("[]: expected ").append(expected.get(i)).append(" but none found");
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 
-            if (!result) {
-                logger.trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", matched, this.matcher, jsonCompareResult.getMessage());
+    private boolean assign(int expectedIndex, JsonNode expected, JsonNode actual, Boolean[][] matches, int[] expectedForActual, boolean[] visited) {
+        for (int j = 0; j < actual.size(); j++) {
+            if (!visited[j]) {
+                if (matches[expectedIndex][j] == null) {
+                    matches[expectedIndex][j] = equal("", expected.get(expectedIndex), actual.get(j), null);
+                }
+                if (matches[expectedIndex][j]) {
+                    visited[j] = true;
+                    if (expectedForActual[j] == -1 || assign(expectedForActual[j], expected, actual, matches, expectedForActual, visited)) {
+                        expectedForActual[j] = expectedIndex;
+                        return true;
+                    }
+                }
             }
-        } catch (Exception e) {
-            logger.trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", matched, this.matcher, e.getMessage());
         }
+        return false;
+    }
 
-        return reverseResultIfNot(result);
+    private static boolean fail(StringBuilder failure, String path, JsonNode expected, JsonNode actual) {
+        if (failure != null) {
+            failure.append(path).append(": expected ").append(expected != null ? expected : "no field").append(" but got ").append(actual != null ? actual : "no field");
+        }
+        return false;
     }
 }
@@ -0,0 +1,277 @@
+package org.mockserver.matchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import org.mockserver.client.serialization.ObjectMapperFactory;
+import org.mockserver.client.serialization.model.BodyDTO;
+import org.mockserver.collections.CaseInsensitiveKeyValueIndex;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.KeyAndValue;
+import org.mockserver.model.KeyToMultiValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the request being matched, the decoded and parsed forms of its body and indexes of its query
+ * string parameters, headers and cookies, each is created lazily at most once so it is shared by all
+ * the expectations the request is matched against, as are the results of any conditions shared by
+ * those expectations
+ *
+ * a context is used by a single thread, when a request is matched by multiple threads each thread uses a
+ * copy from concurrentCopy, the copies share the forms of the body, the indexes and the condition results,
+ * which are created once by whichever thread first needs them and are only read after that, the xml
+ * document and path parameters aren't shared as a DOM isn't safe to read from multiple threads and the
+ * path parameters belong to the expectation each thread is matching
+ *
+ * @author jamesdbloom
+ */
+public class MatchContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchContext.class);
+    private static final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapper();
+
+    private final SharedForms sharedForms;
+    private boolean xmlParsed;
+    private Document xml;
+    private Map<String, String> pathParameters = Collections.emptyMap();
+
+    public MatchContext(HttpRequest httpRequest) {
+        this(new SharedForms(httpRequest));
+    }
+
+    private MatchContext(SharedForms sharedForms) {
+        this.sharedForms = sharedForms;
+    }
+
+    /**
+     * Returns a context for matching the same request on another thread, that shares the body forms, indexes
+     * and condition results already created, or created later, by this context
+     */
+    public MatchContext concurrentCopy() {
+        return new MatchContext(sharedForms);
+    }
+
+    public HttpRequest getHttpRequest() {
+        return sharedForms.httpRequest;
+    }
+
+    public byte[] getBodyAsRawBytes() {
+        return sharedForms.httpRequest != null ? sharedForms.httpRequest.getBodyAsRawBytes() : new byte[0];
+    }
+
+    public String getBodyAsString() {
+        return sharedForms.getBodyAsString();
+    }
+
+    /**
+     * The body parsed as a serialised body matcher (i.e. for clear or retrieve requests), only a json
+     * object can be a body matcher so any other body is not parsed and null is returned
+     */
+    public BodyDTO getBodyAsBodyDTO() {
+        return sharedForms.getBodyAsBodyDTO();
+    }
+
+    /**
+     * The body parsed as json or null if the body isn't valid json
+     */
+    public JsonNode getBodyAsJsonNode() {
+        return sharedForms.getBodyAsJsonNode();
+    }
+
+    /**
+     * The body parsed as an xml document or null if the body isn't valid xml
+     */
+    public Document getBodyAsXmlDocument() {
+        if (!xmlParsed) {
+            xmlParsed = true;
+            try {
+                xml = new StringToXmlDocumentParser().buildDocument(getBodyAsString(), new StringToXmlDocumentParser.ErrorLogger() {
+                    @Override
+                    public void logError(final String matched, final Exception exception) {
+                        logger.debug("SAXParseException while parsing [" + matched + "]", exception);
+                    }
+                });
+            } catch (Exception e) {
+                logger.trace("Error while parsing body as xml [" + getBodyAsString() + "] " + e.getMessage());
+            }
+        }
+        return xml;
+    }
+
+    /**
+     * The body parsed as form parameters
+     */
+    public List<KeyToMultiValue> getBodyAsParameters() {
+        return sharedForms.getBodyAsParameters();
+    }
+
+    public CaseInsensitiveKeyValueIndex getQueryStringParametersIndex() {
+        return sharedForms.getQueryStringParametersIndex();
+    }
+
+    public CaseInsensitiveKeyValueIndex getHeadersIndex() {
+        return sharedForms.getHeadersIndex();
+    }
+
+    public CaseInsensitiveKeyValueIndex getCookiesIndex() {
+        return sharedForms.getCookiesIndex();
+    }
+
+    /**
+     * The path parameters captured by the path template, i.e. /users/{id}, of the expectation the request was last
+     * matched against, so matchers run after the path of an expectation can use the values captured for that expectation
+     */
+    public Map<String, String> getPathParameters() {
+        return pathParameters;
+    }
+
+    public MatchContext setPathParameters(Map<String, String> pathParameters) {
+        this.pathParameters = pathParameters;
+        return this;
+    }
+
+    /**
+     * Returns the result of a condition shared by multiple expectations or null if it hasn't been evaluated for this request
+     */
+    public Boolean getConditionResult(SharedConditions.Condition condition) {
+        return sharedForms.conditionResults.get(condition);
+    }
+
+    public MatchContext setConditionResult(SharedConditions.Condition condition, boolean result) {
+        sharedForms.conditionResults.put(condition, result);
+        return this;
+    }
+
+    /**
+     * The forms of the request shared by the copies of a context, each is created at most once under the lock of
+     * this object and published by a volatile write so it can be read by any thread without locking once created
+     */
+    private static final class SharedForms {
+
+        private final HttpRequest httpRequest;
+        // conditions are only ever compared by identity once they have been shared
+        private final Map<SharedConditions.Condition, Boolean> conditionResults = new ConcurrentHashMap<SharedConditions.Condition, Boolean>(4);
+        private volatile String bodyAsString;
+        private volatile boolean bodyDTOParsed;
+        private BodyDTO bodyDTO;
+        private volatile boolean jsonParsed;
+        private JsonNode json;
+        private volatile List<KeyToMultiValue> parameters;
+        private volatile CaseInsensitiveKeyValueIndex queryStringParameters;
+        private volatile CaseInsensitiveKeyValueIndex headers;
+        private volatile CaseInsensitiveKeyValueIndex cookies;
+
+        SharedForms(HttpRequest httpRequest) {
+            this.httpRequest = httpRequest;
+        }
+
+        String getBodyAsString() {
+            if (bodyAsString == null) {
+                synchronized (this) {
+                    if (bodyAsString == null) {
+                        if (httpRequest != null && httpRequest.getBody() != null) {
+                            bodyAsString = new String(httpRequest.getBody().getRawBytes(), httpRequest.getBody().getCharset(Charsets.UTF_8));
+                        } else {
+                            bodyAsString = "";
+                        }
+                    }
+                }
+            }
+            return bodyAsString;
+        }
+
+        BodyDTO getBodyAsBodyDTO() {
+            if (!bodyDTOParsed) {
+                synchronized (this) {
+                    if (!bodyDTOParsed) {
+                        if (isJsonObject(getBodyAsString())) {
+                            try {
+                                bodyDTO = objectMapper.readValue(getBodyAsString(), BodyDTO.class);
+                            } catch (Exception e) {
+                                logger.trace("Body is not a body matcher [" + getBodyAsString() + "] " + e.getMessage());
+                            }
+                        }
+                        bodyDTOParsed = true;
+                    }
+                }
+            }
+            return bodyDTO;
+        }
+
+        JsonNode getBodyAsJsonNode() {
+            if (!jsonParsed) {
+                synchronized (this) {
+                    if (!jsonParsed) {
+                        try {
+                            json = objectMapper.readTree(getBodyAsString());
+                        } catch (Exception e) {
+                            logger.trace("Error while parsing body as json [" + getBodyAsString() + "] " + e.getMessage());
+                        }
+                        jsonParsed = true;
+                    }
+                }
+            }
+            return json;
+        }
+
+        List<KeyToMultiValue> getBodyAsParameters() {
+            if (parameters == null) {
+                synchronized (this) {
+                    if (parameters == null) {
+                        parameters = ParameterStringMatcher.parseString(getBodyAsString());
+                    }
+                }
+            }
+            return parameters;
+        }
+
+        CaseInsensitiveKeyValueIndex getQueryStringParametersIndex() {
+            if (queryStringParameters == null) {
+                synchronized (this) {
+                    if (queryStringParameters == null) {
+                        queryStringParameters = CaseInsensitiveKeyValueIndex.index(KeyToMultiValue.toMultiMap(httpRequest != null ? httpRequest.getQueryStringParameters() : null));
+                    }
+                }
+            }
+            return queryStringParameters;
+        }
+
+        CaseInsensitiveKeyValueIndex getHeadersIndex() {
+            if (headers == null) {
+                synchronized (this) {
+                    if (headers == null) {
+                        headers = CaseInsensitiveKeyValueIndex.index(KeyToMultiValue.toMultiMap(httpRequest != null ? httpRequest.getHeaders() : null));
+                    }
+                }
+            }
+            return headers;
+        }
+
+        CaseInsensitiveKeyValueIndex getCookiesIndex() {
+            if (cookies == null) {
+                synchronized (this) {
+                    if (cookies == null) {
+                        cookies = CaseInsensitiveKeyValueIndex.index(KeyAndValue.toHashMap(httpRequest != null ? httpRequest.getCookies() : null));
+                    }
+                }
+            }
+            return cookies;
+        }
+    }
+
+    private static boolean isJsonObject(String body) {
+        for (int i = 0; i < body.length(); i++) {
+            if (!Character.isWhitespace(body.charAt(i))) {
+                return body.charAt(i) == '{';
+            }
+        }
+        return false;
+    }
+}
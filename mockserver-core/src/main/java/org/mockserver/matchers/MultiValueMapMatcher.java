@@ -1,32 +1,68 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Objects;
+import org.mockserver.collections.CaseInsensitiveKeyValueIndex;
 import org.mockserver.collections.CaseInsensitiveRegexMultiMap;
-import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
 import org.mockserver.model.KeyToMultiValue;
+import org.mockserver.model.NottableString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author jamesdbloom
  */
 public class MultiValueMapMatcher extends NotMatcher<List<KeyToMultiValue>> {
+    private static final Logger logger = LoggerFactory.getLogger(MultiValueMapMatcher.class);
     private final CaseInsensitiveRegexMultiMap multiMap;
 
     public MultiValueMapMatcher(CaseInsensitiveRegexMultiMap multiMap) {
         this.multiMap = multiMap;
+        if (multiMap != null) {
+            for (Map.Entry<NottableString, NottableString> entry : multiMap.entryList()) {
+                RegexStringMatcher.precompile(entry.getKey());
+                RegexStringMatcher.precompile(entry.getValue());
+            }
+        }
     }
 
     public boolean matches(List<KeyToMultiValue> values) {
+        return matchesIndex(CaseInsensitiveKeyValueIndex.index(KeyToMultiValue.toMultiMap(values)));
+    }
+
+    /**
+     * Matches against an index of the request's values, so the index can be built once and shared by all expectations
+     */
+    public boolean matchesIndex(CaseInsensitiveKeyValueIndex values) {
         boolean result = false;
 
         if (multiMap == null) {
             result = true;
-        } else if (KeyToMultiValue.toMultiMap(values).containsAll(multiMap)) {
+        } else if (values.containsAll(multiMap)) {
             result = true;
         } else {
-            logger.trace("Map [{}] is not a subset of [{}]", multiMap, KeyToMultiValue.toMultiMap(values));
+            logger.trace("Map [{}] is not a subset of [{}]", multiMap, values);
         }
 
         return reverseResultIfNot(result);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        MultiValueMapMatcher that = (MultiValueMapMatcher) other;
+        return not == that.not && Objects.equal(multiMap, that.multiMap);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (multiMap != null ? multiMap.hashCode() : 0) + (not ? 1 : 0);
+    }
 }
@@ -4,6 +4,8 @@ import io.netty.handler.codec.http.QueryStringDecoder;
 import org.mockserver.model.KeyToMultiValue;
 import org.mockserver.model.NottableString;
 import org.mockserver.model.Parameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,6 +16,7 @@ import java.util.Map;
  * @author jamesdbloom
  */
 public class ParameterStringMatcher extends BodyMatcher<String> {
+    private static final Logger logger = LoggerFactory.getLogger(ParameterStringMatcher.class);
     private final MultiValueMapMatcher matcher;
 
     public ParameterStringMatcher(List<Parameter> parameters) {
@@ -21,9 +24,17 @@ public class ParameterStringMatcher extends BodyMatcher<String> {
     }
 
     public boolean matches(String matched) {
+        return matches(matched, parseString(matched));
+    }
+
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(matchContext.getBodyAsString(), matchContext.getBodyAsParameters());
+    }
+
+    private boolean matches(String matched, List<KeyToMultiValue> parameters) {
         boolean result = false;
 
-        if (matcher.matches(parseString(matched))) {
+        if (matcher.matches(parameters)) {
             result = true;
         }
 
@@ -34,7 +45,7 @@ public class ParameterStringMatcher extends BodyMatcher<String> {
         return reverseResultIfNot(result);
     }
 
-    private List<KeyToMultiValue> parseString(String matched) {
+    static List<KeyToMultiValue> parseString(String matched) {
         Map<String, Parameter> mappedParameters = new HashMap<String, Parameter>();
         Map<String, List<String>> parameters = new QueryStringDecoder("?" + matched).parameters();
         for (String name : parameters.keySet()) {
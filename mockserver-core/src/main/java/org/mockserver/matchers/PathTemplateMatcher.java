@@ -0,0 +1,137 @@
+package org.mockserver.matchers;
+
+import com.google.common.base.Objects;
+import org.mockserver.model.NottableString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a path against a path template such as /users/{id}/orders/{orderId}, each {name} segment
+ * matches any single non-empty path segment and the value of the segment is captured as a path parameter
+ *
+ * a {name} segment is never a valid regex, so templates don't change how any existing path matches
+ *
+ * @author jamesdbloom
+ */
+public class PathTemplateMatcher extends NotMatcher<NottableString> {
+    private static final Logger logger = LoggerFactory.getLogger(PathTemplateMatcher.class);
+    private static final Pattern PARAMETER_SEGMENT = Pattern.compile("\\{([A-Za-z_][A-Za-z0-9_\\-]*)\\}");
+    private final NottableString matcher;
+    private final String[] segments;
+    private final String[] parameterNames;
+
+    public PathTemplateMatcher(NottableString matcher) {
+        this.matcher = matcher;
+        this.segments = segments(matcher.getValue());
+        this.parameterNames = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            parameterNames[i] = parameterName(segments[i]);
+        }
+    }
+
+    /**
+     * Returns true if the path has at least one segment that is a {name} path parameter
+     */
+    public static boolean isPathTemplate(NottableString path) {
+        if (path != null && path.getValue() != null && path.getValue().indexOf('{') != -1) {
+            for (String segment : segments(path.getValue())) {
+                if (parameterName(segment) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits the path on '/' keeping empty segments, so "/users/" and "/users" are different paths
+     */
+    public static String[] segments(String path) {
+        List<String> segments = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                segments.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(path.substring(start));
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * Returns the name of the path parameter if the segment is {name}, otherwise null
+     */
+    public static String parameterName(String segment) {
+        if (segment.length() > 2 && segment.charAt(0) == '{') {
+            Matcher parameterMatcher = PARAMETER_SEGMENT.matcher(segment);
+            if (parameterMatcher.matches()) {
+                return parameterMatcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the path parameters captured from the path or null if the path doesn't match the template
+     */
+    public Map<String, String> capture(String path) {
+        if (path == null) {
+            return null;
+        }
+        String[] pathSegments = segments(path);
+        if (pathSegments.length != segments.length) {
+            return null;
+        }
+        Map<String, String> pathParameters = null;
+        for (int i = 0; i < segments.length; i++) {
+            if (parameterNames[i] != null) {
+                if (pathSegments[i].isEmpty()) {
+                    return null;
+                }
+                if (pathParameters == null) {
+                    pathParameters = new LinkedHashMap<String, String>();
+                }
+                pathParameters.put(parameterNames[i], pathSegments[i]);
+            } else if (!segments[i].equals(pathSegments[i])) {
+                return null;
+            }
+        }
+        return pathParameters != null ? pathParameters : Collections.<String, String>emptyMap();
+    }
+
+    public boolean matches(NottableString matched) {
+        boolean result = capture(matched.getValue()) != null;
+
+        if (!result) {
+            logger.trace("Failed to match [{}] with [{}]", matched, this.matcher);
+        }
+
+        return (matcher.isNot() || matched.isNot()) != reverseResultIfNot(result);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        PathTemplateMatcher that = (PathTemplateMatcher) other;
+        return not == that.not && Objects.equal(matcher, that.matcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (matcher != null ? matcher.hashCode() : 0) + (not ? 1 : 0);
+    }
+}
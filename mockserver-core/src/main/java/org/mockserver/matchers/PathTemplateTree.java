@@ -0,0 +1,130 @@
+package org.mockserver.matchers;
+
+import org.mockserver.collections.AppendOnlyList;
+import org.mockserver.collections.PersistentHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tree of path segments holding values registered against a path template, a path is looked up by
+ * following the literal child and the {name} child of each node for each segment of the path so the
+ * cost of a lookup grows with the number of segments in the path not the number of templates
+ *
+ * the nodes are immutable, adding a value copies only the nodes on the path to the value's template, so
+ * with returns a new tree sharing every other node with this tree, add replaces the root of this tree
+ * so isn't thread safe, once built a tree can be read by multiple threads
+ *
+ * @author jamesdbloom
+ */
+public class PathTemplateTree<T> {
+
+    private Node<T> root;
+
+    public PathTemplateTree() {
+        this(Node.<T>empty());
+    }
+
+    private PathTemplateTree(Node<T> root) {
+        this.root = root;
+    }
+
+    public void add(String pathTemplate, T value) {
+        root = root.with(PathTemplateMatcher.segments(pathTemplate), 0, value);
+    }
+
+    /**
+     * Returns a new tree with the value added, this tree is unchanged
+     */
+    public PathTemplateTree<T> with(String pathTemplate, T value) {
+        return new PathTemplateTree<T>(root.with(PathTemplateMatcher.segments(pathTemplate), 0, value));
+    }
+
+    /**
+     * Returns the values registered against exactly this path template, in the order they were added
+     */
+    public List<T> get(String pathTemplate) {
+        Node<T> node = root;
+        for (String segment : PathTemplateMatcher.segments(pathTemplate)) {
+            node = PathTemplateMatcher.parameterName(segment) != null ? node.parameterChild : node.literalChildren.get(segment);
+            if (node == null) {
+                return new ArrayList<T>();
+            }
+        }
+        return new ArrayList<T>(node.values);
+    }
+
+    /**
+     * Adds a list, in the order the values were added, for each template that matches the path
+     */
+    public void collect(String path, List<List<T>> matchingValues) {
+        collect(root, PathTemplateMatcher.segments(path), 0, matchingValues);
+    }
+
+    /**
+     * Returns true if any template matches the path, without collecting the values
+     */
+    public boolean matches(String path) {
+        return matches(root, PathTemplateMatcher.segments(path), 0);
+    }
+
+    private boolean matches(Node<T> node, String[] segments, int index) {
+        if (index == segments.length) {
+            return !node.values.isEmpty();
+        }
+        Node<T> literalChild = node.literalChildren.get(segments[index]);
+        if (literalChild != null && matches(literalChild, segments, index + 1)) {
+            return true;
+        }
+        return node.parameterChild != null && !segments[index].isEmpty() && matches(node.parameterChild, segments, index + 1);
+    }
+
+    private void collect(Node<T> node, String[] segments, int index, List<List<T>> matchingValues) {
+        if (index == segments.length) {
+            if (!node.values.isEmpty()) {
+                matchingValues.add(node.values);
+            }
+            return;
+        }
+        Node<T> literalChild = node.literalChildren.get(segments[index]);
+        if (literalChild != null) {
+            collect(literalChild, segments, index + 1, matchingValues);
+        }
+        if (node.parameterChild != null && !segments[index].isEmpty()) {
+            collect(node.parameterChild, segments, index + 1, matchingValues);
+        }
+    }
+
+    private static class Node<T> {
+        private final AppendOnlyList<T> values;
+        private final PersistentHashMap<String, Node<T>> literalChildren;
+        private final Node<T> parameterChild;
+
+        Node(AppendOnlyList<T> values, PersistentHashMap<String, Node<T>> literalChildren, Node<T> parameterChild) {
+            this.values = values;
+            this.literalChildren = literalChildren;
+            this.parameterChild = parameterChild;
+        }
+
+        private static <T> Node<T> empty() {
+            return new Node<T>(AppendOnlyList.<T>empty(), PersistentHashMap.<String, Node<T>>empty(), null);
+        }
+
+        /**
+         * Returns a copy of this node with the value added below it, nodes not on the path of the segments are shared
+         */
+        Node<T> with(String[] segments, int index, T value) {
+            if (index == segments.length) {
+                return new Node<T>(values.append(value), literalChildren, parameterChild);
+            }
+            String segment = segments[index];
+            if (PathTemplateMatcher.parameterName(segment) != null) {
+                Node<T> child = parameterChild != null ? parameterChild : Node.<T>empty();
+                return new Node<T>(values, literalChildren, child.with(segments, index + 1, value));
+            }
+            Node<T> child = literalChildren.get(segment);
+            child = child != null ? child : Node.<T>empty();
+            return new Node<T>(values, literalChildren.put(segment, child.with(segments, index + 1, value)), parameterChild);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.model.NottableString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import static org.mockserver.model.NottableString.string;
@@ -14,14 +19,77 @@ import static org.mockserver.model.NottableString.string;
  */
 public class RegexStringMatcher extends BodyMatcher<NottableString> {
     private static final Logger logger = LoggerFactory.getLogger(RegexStringMatcher.class);
+    private static final Pattern NEVER_MATCHES = Pattern.compile("(?!)");
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+    // longer values, i.e. request bodies, are compiled without being cached so they are never retained
+    static final int MAXIMUM_CACHED_PATTERN_LENGTH = 256;
+    // a bounded cache of the patterns of matchers and of matched values, so the same values aren't recompiled for every request
+    private static final Cache<String, Pattern> PATTERN_CACHE = CacheBuilder.newBuilder().maximumSize(ConfigurationProperties.regexPatternCacheSize()).build();
+    private static final Cache<String, Pattern> CASE_INSENSITIVE_PATTERN_CACHE = CacheBuilder.newBuilder().maximumSize(ConfigurationProperties.regexPatternCacheSize()).build();
     private final NottableString matcher;
 
     public RegexStringMatcher(String matcher) {
-        this.matcher = string(matcher);
+        this(string(matcher));
     }
 
     public RegexStringMatcher(NottableString matcher) {
         this.matcher = matcher;
+        precompile(matcher);
+    }
+
+    /**
+     * Compiles and caches the case sensitive and case insensitive patterns for the matcher so they are not compiled on the first request,
+     * a literal matcher is never matched as a regex so isn't compiled, which avoids holding two patterns for every literal
+     * method, path, header and cookie of every expectation
+     */
+    public static void precompile(NottableString matcher) {
+        if (matcher != null && !Strings.isNullOrEmpty(matcher.getValue()) && !isLiteral(matcher.getValue())) {
+            cachedPattern(matcher.getValue(), false);
+            cachedPattern(matcher.getValue(), true);
+        }
+    }
+
+    /**
+     * Returns true if the value contains no regex metacharacters, so as a regex it only matches itself
+     */
+    public static boolean isLiteral(String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                if (REGEX_METACHARACTERS.indexOf(value.charAt(i)) != -1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static Pattern compile(String regex, boolean ignoreCase) {
+        if (regex == null) {
+            return NEVER_MATCHES;
+        }
+        try {
+            return ignoreCase ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE) : Pattern.compile(regex);
+        } catch (PatternSyntaxException pse) {
+            logger.trace("Error while compiling regex [" + regex + "] " + pse.getMessage());
+            return NEVER_MATCHES;
+        }
+    }
+
+    private static Pattern cachedPattern(String regex, boolean ignoreCase) {
+        if (regex.length() > MAXIMUM_CACHED_PATTERN_LENGTH) {
+            return compile(regex, ignoreCase);
+        }
+        Cache<String, Pattern> cache = ignoreCase ? CASE_INSENSITIVE_PATTERN_CACHE : PATTERN_CACHE;
+        Pattern pattern = cache.getIfPresent(regex);
+        if (pattern == null) {
+            pattern = compile(regex, ignoreCase);
+            cache.put(regex, pattern);
+        }
+        return pattern;
+    }
+
+    static long cachedPatternCount() {
+        return PATTERN_CACHE.size() + CASE_INSENSITIVE_PATTERN_CACHE.size();
     }
 
     public static boolean matches(NottableString matcher, NottableString matched, boolean ignoreCase) {
@@ -39,43 +107,30 @@ public class RegexStringMatcher extends BodyMatcher<NottableString> {
                 result = true;
             }
             if (!result) {
+                // a literal only matches itself as a regex, which the exact comparisons already check
+                boolean matcherIsRegex = !isLiteral(matcher);
+                boolean matchedIsRegex = !isLiteral(matched);
                 // match as regex - matcher -> matched
-                try {
-                    if (matched.matches(matcher)) {
-                        result = true;
-                    }
-                } catch (PatternSyntaxException pse) {
-                    logger.trace("Error while matching regex [" + matcher + "] for string [" + matched + "] " + pse.getMessage());
+                if (matcherIsRegex && cachedPattern(matcher, false).matcher(matched).matches()) {
+                    result = true;
                 }
                 // match as regex - matched -> matcher
-                try {
-                    if (matcher.matches(matched)) {
-                        result = true;
-                    }
-                } catch (PatternSyntaxException pse) {
-                    logger.trace("Error while matching regex [" + matched + "] for string [" + matcher + "] " + pse.getMessage());
+                if (!result && matchedIsRegex && cachedPattern(matched, false).matcher(matcher).matches()) {
+                    result = true;
                 }
                 // case insensitive comparison is mainly to improve matching in web containers like Tomcat that convert header names to lower case
                 if (!result && ignoreCase) {
-                    // match as exact string lower-case
+                    // match as exact string ignoring case
                     if (matched.equalsIgnoreCase(matcher)) {
                         result = true;
                     }
-                    // match as regex - matcher -> matched
-                    try {
-                        if (matched.toLowerCase().matches(matcher.toLowerCase())) {
-                            result = true;
-                        }
-                    } catch (PatternSyntaxException pse) {
-                        logger.trace("Error while matching regex [" + matcher.toLowerCase() + "] for string [" + matched.toLowerCase() + "] " + pse.getMessage());
+                    // match as regex ignoring case - matcher -> matched
+                    if (!result && matcherIsRegex && cachedPattern(matcher, true).matcher(matched).matches()) {
+                        result = true;
                     }
-                    // match as regex - matched -> matcher
-                    try {
-                        if (matcher.toLowerCase().matches(matched.toLowerCase())) {
-                            result = true;
-                        }
-                    } catch (PatternSyntaxException pse) {
-                        logger.trace("Error while matching regex [" + matched.toLowerCase() + "] for string [" + matcher.toLowerCase() + "] " + pse.getMessage());
+                    // match as regex ignoring case - matched -> matcher
+                    if (!result && matchedIsRegex && cachedPattern(matched, true).matcher(matcher).matches()) {
+                        result = true;
                     }
                 }
             }
@@ -88,6 +143,10 @@ public class RegexStringMatcher extends BodyMatcher<NottableString> {
         return matches(string(matched));
     }
 
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(string(matchContext.getBodyAsString()));
+    }
+
     public boolean matches(NottableString matched) {
         boolean result = false;
 
@@ -101,4 +160,21 @@ public class RegexStringMatcher extends BodyMatcher<NottableString> {
 
         return (matcher.isNot() || matched.isNot()) != reverseResultIfNot(result);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        RegexStringMatcher that = (RegexStringMatcher) other;
+        return not == that.not && Objects.equal(matcher, that.matcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (matcher != null ? matcher.hashCode() : 0) + (not ? 1 : 0);
+    }
 }
@@ -0,0 +1,102 @@
+package org.mockserver.matchers;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.mockserver.model.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Deduplicates identical conditions (i.e. the same path regex, headers or json schema) across the request
+ * matchers of all expectations, each distinct condition is represented by a single Condition instance which
+ * the MatchContext uses to evaluate the condition at most once per request
+ *
+ * conditions are keyed by the exact values they are created from, including any 'not' operators, rather than
+ * by the equality of their matchers which is regex and case insensitive, conditions are held weakly so they
+ * are released when no expectation uses them
+ *
+ * @author jamesdbloom
+ */
+public class SharedConditions {
+
+    private final Interner<Condition> conditions = Interners.newWeakInterner();
+
+    Condition path(NottableString path) {
+        return conditions.intern(new Condition(Arrays.asList("path", key(path))));
+    }
+
+    Condition queryStringParameters(List<Parameter> parameters) {
+        return conditions.intern(new Condition(Arrays.asList("queryStringParameters", keyToMultiValueKey(parameters))));
+    }
+
+    Condition headers(List<Header> headers) {
+        return conditions.intern(new Condition(Arrays.asList("headers", keyToMultiValueKey(headers))));
+    }
+
+    Condition cookies(List<Cookie> cookies) {
+        List<Object> key = new ArrayList<Object>();
+        for (Cookie cookie : cookies) {
+            key.add(Arrays.asList(key(cookie.getName()), key(cookie.getValue())));
+        }
+        return conditions.intern(new Condition(Arrays.asList("cookies", key)));
+    }
+
+    Condition body(Body body) {
+        Object value = body.getValue();
+        if (body instanceof ParameterBody) {
+            value = keyToMultiValueKey(((ParameterBody) body).getValue());
+        } else if (value instanceof byte[]) {
+            value = ByteBuffer.wrap((byte[]) value);
+        }
+        MatchType matchType = body instanceof JsonBody ? ((JsonBody) body).getMatchType() : null;
+        return conditions.intern(new Condition(Arrays.asList("body", body.getType(), body.isNot(), value, body.getCharset(null), matchType)));
+    }
+
+    private static List<Object> keyToMultiValueKey(List<? extends KeyToMultiValue> keyToMultiValues) {
+        List<Object> key = new ArrayList<Object>();
+        for (KeyToMultiValue keyToMultiValue : keyToMultiValues) {
+            List<Object> values = new ArrayList<Object>();
+            for (NottableString value : keyToMultiValue.getValues()) {
+                values.add(key(value));
+            }
+            key.add(Arrays.asList(key(keyToMultiValue.getName()), values));
+        }
+        return key;
+    }
+
+    private static List<Object> key(NottableString nottableString) {
+        return Arrays.<Object>asList(nottableString.isNot(), nottableString.getValue());
+    }
+
+    /**
+     * A distinct condition, instances are only ever compared by identity once they have been shared
+     */
+    public static final class Condition {
+
+        private final List<Object> key;
+        private final int hashCode;
+
+        private Condition(List<Object> key) {
+            this.key = key;
+            this.hashCode = key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof Condition && key.equals(((Condition) other).key));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return key.toString();
+        }
+    }
+}
@@ -23,19 +23,21 @@ import java.io.StringReader;
  */
 public class StringToXmlDocumentParser extends ObjectWithReflectiveEqualsHashCodeToString {
 
+    // creating a DocumentBuilderFactory searches the classpath and a factory isn't thread safe, so each thread reuses its own factory
+    private static final ThreadLocal<DocumentBuilderFactory> threadDocumentBuilderFactory = new ThreadLocal<DocumentBuilderFactory>();
+
     public String normaliseXmlString(String matched, ErrorLogger errorLogger) throws IOException, SAXException, ParserConfigurationException {
         return prettyPrintXmlDocument(buildDocument(matched, errorLogger));
     }
 
-    private String prettyPrintXmlDocument(Document doc) throws IOException {
+    public String prettyPrintXmlDocument(Document doc) throws IOException {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         new XMLSerializer(byteArrayOutputStream, new OutputFormat(Method.XML, Charsets.UTF_8.name(), true)).serialize(doc);
         return byteArrayOutputStream.toString(Charsets.UTF_8.name());
     }
 
     public Document buildDocument(final String matched, final ErrorLogger errorLogger) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+        DocumentBuilder documentBuilder = documentBuilderFactory().newDocumentBuilder();
         documentBuilder.setErrorHandler(new ErrorHandler() {
             @Override
             public void warning(SAXParseException exception) throws SAXException {
@@ -55,6 +57,15 @@ public class StringToXmlDocumentParser extends ObjectWithReflectiveEqualsHashCod
         return documentBuilder.parse(new InputSource(new StringReader(matched)));
     }
 
+    private static DocumentBuilderFactory documentBuilderFactory() {
+        DocumentBuilderFactory documentBuilderFactory = threadDocumentBuilderFactory.get();
+        if (documentBuilderFactory == null) {
+            documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            threadDocumentBuilderFactory.set(documentBuilderFactory);
+        }
+        return documentBuilderFactory;
+    }
+
     public static interface ErrorLogger {
         public void logError(final String matched, final Exception exception);
     }
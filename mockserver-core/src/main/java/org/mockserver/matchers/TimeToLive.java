@@ -1,8 +1,9 @@
 package org.mockserver.matchers;
 
 import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -10,37 +11,42 @@ import java.util.concurrent.TimeUnit;
  */
 public class TimeToLive extends ObjectWithReflectiveEqualsHashCodeToString {
 
+    private static final Logger logger = LoggerFactory.getLogger(TimeToLive.class);
+    private static final String[] FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"fieldsExcludedFromEqualsAndHashCode", "endTimeNanos"};
+    // immutable so a single instance is shared by every expectation without a time to live
+    private static final TimeToLive UNLIMITED = new TimeToLive(null, 0, true);
     private final TimeUnit timeUnit;
-    private final Long timeToLive;
+    private final long timeToLive;
     private final boolean unlimited;
-    private final Date createdDate;
-    private Date endDate;
+    // deadline as System.nanoTime() so checking it doesn't allocate and isn't affected by changes to the wall clock
+    private final long endTimeNanos;
 
-    private TimeToLive(TimeUnit timeUnit, Long timeToLive, boolean unlimited) {
-        addFieldsExcludedFromEqualsAndHashCode("createdDate", "endDate");
+    private TimeToLive(TimeUnit timeUnit, long timeToLive, boolean unlimited) {
         this.timeUnit = timeUnit;
         this.timeToLive = timeToLive;
         this.unlimited = unlimited;
-        createdDate = new Date();
-        if (!unlimited) {
-            endDate = new Date(System.currentTimeMillis() + timeUnit.toMillis(timeToLive));
-        }
+        this.endTimeNanos = unlimited ? 0 : System.nanoTime() + timeUnit.toNanos(timeToLive);
     }
 
     public static TimeToLive unlimited() {
-        return new TimeToLive(null, null, true);
+        return UNLIMITED;
     }
 
     public static TimeToLive exactly(TimeUnit timeUnit, Long timeToLive) {
         return new TimeToLive(timeUnit, timeToLive, false);
     }
 
+    @Override
+    protected String[] fieldsExcludedFromEqualsAndHashCode() {
+        return FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE;
+    }
+
     public TimeUnit getTimeUnit() {
         return timeUnit;
     }
 
     public Long getTimeToLive() {
-        return timeToLive;
+        return unlimited ? null : timeToLive;
     }
 
     public boolean isUnlimited() {
@@ -48,17 +54,20 @@ public class TimeToLive extends ObjectWithReflectiveEqualsHashCodeToString {
     }
 
     public boolean stillAlive() {
-        if (unlimited || isAfterNow(endDate)) {
+        if (unlimited || remainingNanos() > 0) {
             return true;
         } else {
             if (logger.isTraceEnabled()) {
-                logger.trace("Remaining time is " + (endDate.getTime() - createdDate.getTime()) + "ms");
+                logger.trace("Time to live of " + timeToLive + " " + timeUnit + " has expired");
             }
             return false;
         }
     }
 
-    private boolean isAfterNow(Date date) {
-        return date.getTime() > System.currentTimeMillis();
+    /**
+     * The nanoseconds until this time to live expires, zero or negative once expired
+     */
+    public long remainingNanos() {
+        return unlimited ? Long.MAX_VALUE : endTimeNanos - System.nanoTime();
     }
 }
@@ -1,14 +1,23 @@
 package org.mockserver.matchers;
 
 import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
+ * The remaining times are updated with compare-and-set so an expectation is never matched more
+ * than the specified number of times when requests are matched concurrently on multiple threads
+ *
  * @author jamesdbloom
  */
 public class Times extends ObjectWithReflectiveEqualsHashCodeToString {
 
-    private int remainingTimes;
-    private boolean unlimited;
+    private static final Logger logger = LoggerFactory.getLogger(Times.class);
+    private static final AtomicIntegerFieldUpdater<Times> REMAINING_TIMES_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Times.class, "remainingTimes");
+    private volatile int remainingTimes;
+    private volatile boolean unlimited;
 
     private Times(int remainingTimes, boolean unlimited) {
         this.remainingTimes = remainingTimes;
@@ -46,13 +55,34 @@ public class Times extends ObjectWithReflectiveEqualsHashCodeToString {
 
     public Times decrement() {
         if (!unlimited) {
-            remainingTimes--;
+            REMAINING_TIMES_UPDATER.decrementAndGet(this);
         }
         return this;
     }
 
+    /**
+     * Atomically decrements the remaining times if greater than zero, returns false if there were no remaining times
+     * (i.e. they were all used by other requests) in which case the remaining times are not changed
+     */
+    public boolean tryDecrement() {
+        if (unlimited) {
+            return true;
+        }
+        while (true) {
+            int current = remainingTimes;
+            if (current <= 0) {
+                logger.trace("Remaining count is 0");
+                return false;
+            }
+            if (REMAINING_TIMES_UPDATER.compareAndSet(this, current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
     public Times setNotUnlimitedResponses() {
         if (unlimited) {
+            // remainingTimes is set first so any thread that sees unlimited as false also sees the remaining time
             remainingTimes = 1;
             unlimited = false;
         }
@@ -3,6 +3,7 @@ package org.mockserver.matchers;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
@@ -17,6 +18,8 @@ public class XPathStringMatcher extends BodyMatcher<String> {
     private final String matcher;
     private final StringToXmlDocumentParser stringToXmlDocumentParser = new StringToXmlDocumentParser();
     private XPathExpression xpathExpression = null;
+    // an XPathExpression isn't thread safe so each thread evaluates with its own compiled copy
+    private final ThreadLocal<XPathExpression> threadXpathExpression = new ThreadLocal<XPathExpression>();
 
     public XPathStringMatcher(String matcher) {
         this.matcher = matcher;
@@ -30,6 +33,14 @@ public class XPathStringMatcher extends BodyMatcher<String> {
     }
 
     public boolean matches(final String matched) {
+        return matches(matched, null);
+    }
+
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(matchContext.getBodyAsString(), matchContext);
+    }
+
+    private boolean matches(final String matched, MatchContext matchContext) {
         boolean result = false;
 
         if (xpathExpression == null) {
@@ -39,12 +50,20 @@ public class XPathStringMatcher extends BodyMatcher<String> {
         } else if (matched != null) {
             // match as xpath - matcher -> matched
             try {
-                result = (Boolean) xpathExpression.evaluate(stringToXmlDocumentParser.buildDocument(matched, new StringToXmlDocumentParser.ErrorLogger() {
-                    @Override
-                    public void logError(final String matched, final Exception exception) {
-                        logger.debug("SAXParseException while performing match between [" + matcher + "] and [" + matched + "]", exception);
-                    }
-                }), XPathConstants.BOOLEAN);
+                Document document;
+                if (matchContext != null) {
+                    document = matchContext.getBodyAsXmlDocument();
+                } else {
+                    document = stringToXmlDocumentParser.buildDocument(matched, new StringToXmlDocumentParser.ErrorLogger() {
+                        @Override
+                        public void logError(final String matched, final Exception exception) {
+                            logger.debug("SAXParseException while performing match between [" + matcher + "] and [" + matched + "]", exception);
+                        }
+                    });
+                }
+                if (document != null) {
+                    result = (Boolean) threadXpathExpression().evaluate(document, XPathConstants.BOOLEAN);
+                }
             } catch (Exception e) {
                 logger.trace("Error while matching xpath [" + matcher + "] against string [" + matched + "] assuming no match - " + e.getMessage());
             }
@@ -57,8 +76,17 @@ public class XPathStringMatcher extends BodyMatcher<String> {
         return reverseResultIfNot(result);
     }
 
+    private XPathExpression threadXpathExpression() throws XPathExpressionException {
+        XPathExpression expression = threadXpathExpression.get();
+        if (expression == null) {
+            expression = XPathFactory.newInstance().newXPath().compile(matcher);
+            threadXpathExpression.set(expression);
+        }
+        return expression;
+    }
+
     @Override
     public String[] fieldsExcludedFromEqualsAndHashCode() {
-        return new String[]{"logger", "xpathExpression"};
+        return new String[]{"logger", "xpathExpression", "threadXpathExpression"};
     }
 }
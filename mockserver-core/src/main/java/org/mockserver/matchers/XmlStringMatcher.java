@@ -17,10 +17,12 @@ public class XmlStringMatcher extends BodyMatcher<NottableString> {
     private static Logger logger = LoggerFactory.getLogger(XmlStringMatcher.class);
     private NottableString matcher = string("THIS SHOULD NEVER MATCH");
     private StringToXmlDocumentParser stringToXmlDocumentParser = new StringToXmlDocumentParser();
+    private CanonicalXmlComparator canonicalXmlComparator;
 
     public XmlStringMatcher(final String matcher) {
         try {
             this.matcher = string(normaliseXmlString(matcher));
+            this.canonicalXmlComparator = new CanonicalXmlComparator(matcher);
         } catch (Exception e) {
             logger.error("Error while creating xml string matcher for [" + matcher + "]" + e.getMessage(), e);
         }
@@ -29,6 +31,7 @@ public class XmlStringMatcher extends BodyMatcher<NottableString> {
     public XmlStringMatcher(final NottableString matcher) {
         try {
             this.matcher = normaliseXmlNottableString(matcher);
+            this.canonicalXmlComparator = new CanonicalXmlComparator(matcher.getValue());
         } catch (Exception e) {
             logger.error("Error while creating xml string matcher for [" + matcher + "]" + e.getMessage(), e);
         }
@@ -47,19 +50,28 @@ public class XmlStringMatcher extends BodyMatcher<NottableString> {
         return string(normaliseXmlString(input.getValue()), input.getNot());
     }
 
-    public boolean matches(String matched) {
-        return matches(string(matched));
+    public boolean matches(NottableString matched) {
+        return matches(matched.getValue());
     }
 
-    public boolean matches(NottableString matched) {
+    public boolean matchesBody(MatchContext matchContext) {
+        return matches(matchContext.getBodyAsString());
+    }
+
+    public boolean matches(String matched) {
         boolean result = false;
 
-        try {
-            if (ExactStringMatcher.matches(matcher.getValue(), normaliseXmlString(matched.getValue()), false)) {
-                result = true;
+        if (canonicalXmlComparator != null && matched != null) {
+            try {
+                String difference = canonicalXmlComparator.compare(matched);
+                if (difference == null) {
+                    result = true;
+                } else {
+                    logger.trace("Failed to match [{}] with [{}] because {}", matched, this.matcher, difference);
+                }
+            } catch (Exception e) {
+                logger.trace("Error while matching xml string [" + matcher + "] against xml string [" + matched + "] assuming no match - " + e.getMessage());
             }
-        } catch (Exception e) {
-            logger.trace("Error while matching xml string [" + matcher + "] against xml string [" + matched + "] assuming no match - " + e.getMessage());
         }
 
         if (!result) {
@@ -68,4 +80,9 @@ public class XmlStringMatcher extends BodyMatcher<NottableString> {
 
         return matcher.isNot() != reverseResultIfNot(result);
     }
+
+    @Override
+    public String[] fieldsExcludedFromEqualsAndHashCode() {
+        return new String[]{"logger", "canonicalXmlComparator"};
+    }
 }
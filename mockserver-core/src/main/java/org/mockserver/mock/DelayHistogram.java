@@ -0,0 +1,114 @@
+package org.mockserver.mock;
+
+import org.mockserver.model.DelayHistogramStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.mockserver.model.DelayHistogramStatus.delayHistogramStatus;
+
+/**
+ * A histogram of the delays applied to responses and errors, recorded in microseconds into a fixed number of
+ * buckets so recording a delay doesn't allocate or lock however many delays are recorded
+ *
+ * delays below 64 microseconds each have their own bucket, above that each power of two is split into 32 buckets
+ * so a percentile is always within about 3% of the delay actually applied
+ *
+ * @author jamesdbloom
+ */
+class DelayHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_BUCKETS = SUB_BUCKETS * 2;
+    private final AtomicLongArray counts = new AtomicLongArray(bucket(Long.MAX_VALUE) + 1);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long delayNanos) {
+        long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(delayNanos), 0);
+        counts.incrementAndGet(bucket(micros));
+        total.addAndGet(micros);
+        long currentMin = min.get();
+        while (micros < currentMin && !min.compareAndSet(currentMin, micros)) {
+            currentMin = min.get();
+        }
+        long currentMax = max.get();
+        while (micros > currentMax && !max.compareAndSet(currentMax, micros)) {
+            currentMax = max.get();
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    /**
+     * Returns the distribution of the delays recorded or null if no delays have been recorded
+     */
+    DelayHistogramStatus status() {
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return null;
+        }
+        long maxMicros = max.get();
+        return delayHistogramStatus()
+                .setCount(count)
+                .setMin(millis(min.get()))
+                .setMax(millis(maxMicros))
+                .setMean(millis(total.get()) / count)
+                .setP50(millis(percentile(snapshot, count, maxMicros, 50)))
+                .setP90(millis(percentile(snapshot, count, maxMicros, 90)))
+                .setP95(millis(percentile(snapshot, count, maxMicros, 95)))
+                .setP99(millis(percentile(snapshot, count, maxMicros, 99)));
+    }
+
+    private static long percentile(long[] snapshot, long count, long maxMicros, double percentile) {
+        long rank = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    static int bucket(long micros) {
+        if (micros < EXACT_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return EXACT_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the highest delay, in microseconds, recorded in the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < EXACT_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT_BUCKETS) / SUB_BUCKETS + 1;
+        long lowest = (long) (SUB_BUCKETS + (bucket - EXACT_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
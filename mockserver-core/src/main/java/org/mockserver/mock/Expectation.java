@@ -2,7 +2,9 @@ package org.mockserver.mock;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.mockserver.matchers.HttpRequestMatcher;
+import org.mockserver.matchers.MatchContext;
 import org.mockserver.matchers.MatcherBuilder;
+import org.mockserver.matchers.SharedConditions;
 import org.mockserver.matchers.TimeToLive;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.*;
@@ -12,6 +14,7 @@ import org.mockserver.model.*;
  */
 public class Expectation extends ObjectWithJsonToString {
 
+    private static final MatcherBuilder matcherBuilder = new MatcherBuilder();
     private final HttpRequest httpRequest;
     private final Times times;
     private final TimeToLive timeToLive;
@@ -25,7 +28,15 @@ public class Expectation extends ObjectWithJsonToString {
         this.httpRequest = httpRequest;
         this.times = times;
         this.timeToLive = timeToLive;
-        this.httpRequestMatcher = new MatcherBuilder().transformsToMatcher(this.httpRequest);
+        this.httpRequestMatcher = matcherBuilder.transformsToMatcher(this.httpRequest);
+    }
+
+    /**
+     * Shares the conditions of this expectation's request matcher with any other expectations that have identical conditions
+     */
+    public Expectation shareConditions(SharedConditions sharedConditions) {
+        httpRequestMatcher.shareConditions(sharedConditions);
+        return this;
     }
 
     public HttpRequest getHttpRequest() {
@@ -145,7 +156,11 @@ public class Expectation extends ObjectWithJsonToString {
     }
 
     public boolean matches(HttpRequest httpRequest) {
-        return hasRemainingMatches() && isStillAlive() && httpRequestMatcher.matches(httpRequest, true);
+        return matches(new MatchContext(httpRequest), true);
+    }
+
+    public boolean matches(MatchContext matchContext, boolean logMatchResults) {
+        return hasRemainingMatches() && isStillAlive() && httpRequestMatcher.matches(matchContext, logMatchResults);
     }
 
     public boolean hasRemainingMatches() {
@@ -163,6 +178,13 @@ public class Expectation extends ObjectWithJsonToString {
         }
     }
 
+    /**
+     * Atomically uses one of the remaining matches, returns false if the remaining matches were all used by other requests
+     */
+    public boolean consumeRemainingMatch() {
+        return times == null || times.tryDecrement();
+    }
+
     public void setNotUnlimitedResponses() {
         if (times != null) {
             times.setNotUnlimitedResponses();
@@ -0,0 +1,552 @@
+package org.mockserver.mock;
+
+import com.google.common.base.Strings;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.mockserver.client.serialization.model.BodyDTO;
+import org.mockserver.collections.AppendOnlyList;
+import org.mockserver.collections.PersistentHashMap;
+import org.mockserver.matchers.MatchContext;
+import org.mockserver.matchers.PathTemplateMatcher;
+import org.mockserver.matchers.PathTemplateTree;
+import org.mockserver.matchers.RegexStringMatcher;
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.model.BinaryBody;
+import org.mockserver.model.Body;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.NottableString;
+import org.mockserver.model.StringBody;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores expectations in registration order while indexing those with a literal method and path
+ * (i.e. no regex and no "not" operator) in hash buckets and those with a path template, such as
+ * /users/{id}, in a tree of path segments, expectations that can't be indexed are held in a fallback
+ * list that is always checked, a global sequence number keeps the first registered expectation
+ * winning across buckets
+ *
+ * within each literal bucket expectations with an exact string or binary body are also indexed by
+ * a hash of their body, so a request is only compared with the exact bodies that have the same hash
+ *
+ * the expectations are held in an immutable snapshot so requests are matched without locking,
+ * adding or removing expectations creates a new snapshot and replaces it using compare-and-set,
+ * retrying if another thread replaced the snapshot first, the snapshot is built from persistent
+ * lists, maps and trees, so an add shares nearly all of the previous snapshot and only copies the
+ * few small nodes on the path to the expectation, registering N expectations is O(N) not O(N^2)
+ *
+ * expectations with a time to live are removed when they expire by a hashed timer wheel, so
+ * expired expectations don't need to be found by requests and are removed from idle servers
+ *
+ * the generation is incremented after every change to the expectations, so anything derived from
+ * the expectations (i.e. a cached match) can be discarded if the generation has changed since
+ *
+ * @author jamesdbloom
+ */
+public class ExpectationStore extends AbstractCollection<Expectation> {
+
+    private static final String WILDCARD = "";
+    // a single daemon thread shared by all stores, the wheel is only started when the first time to live is scheduled
+    private static final HashedWheelTimer TIME_TO_LIVE_TIMER = new HashedWheelTimer(new DefaultThreadFactory("MockServer-TimeToLive", true), 100, TimeUnit.MILLISECONDS);
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(new Snapshot());
+    private final AtomicLong generation = new AtomicLong();
+
+    static boolean isLiteral(NottableString nottableString) {
+        if (nottableString == null) {
+            return true;
+        } else if (nottableString.isNot()) {
+            return false;
+        } else {
+            return RegexStringMatcher.isLiteral(nottableString.getValue());
+        }
+    }
+
+    static boolean isIndexable(HttpRequest httpRequest) {
+        return httpRequest != null && !httpRequest.isNot() && isLiteral(httpRequest.getMethod()) && isLiteral(httpRequest.getPath());
+    }
+
+    static boolean isPathTemplate(HttpRequest httpRequest) {
+        return httpRequest != null && !httpRequest.isNot() && httpRequest.getPath() != null && !httpRequest.getPath().isNot() && PathTemplateMatcher.isPathTemplate(httpRequest.getPath());
+    }
+
+    private static String key(NottableString nottableString) {
+        return nottableString != null ? Strings.nullToEmpty(nottableString.getValue()) : WILDCARD;
+    }
+
+    /**
+     * Adds the expectation unless its time to live has already expired, in which case it could never match
+     */
+    public boolean add(Expectation expectation) {
+        TimeToLive timeToLive = expectation.getTimeToLive();
+        long remainingNanos = timeToLive != null ? timeToLive.remainingNanos() : Long.MAX_VALUE;
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        IndexedExpectation indexedExpectation = new IndexedExpectation(expectation);
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (snapshot.compareAndSet(current, current.add(indexedExpectation))) {
+                generation.incrementAndGet();
+                break;
+            }
+        }
+        if (timeToLive != null && !timeToLive.isUnlimited()) {
+            TIME_TO_LIVE_TIMER.newTimeout(new RemoveExpiredExpectation(this, expectation), remainingNanos, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        return removeAll(Collections.singleton(object));
+    }
+
+    /**
+     * Removes all the expectations in a single update of the snapshot
+     */
+    @Override
+    public boolean removeAll(Collection<?> objects) {
+        if (objects.isEmpty()) {
+            return false;
+        }
+        while (true) {
+            Snapshot current = snapshot.get();
+            Snapshot updated = current.remove(objects);
+            if (updated == current) {
+                return false;
+            } else if (snapshot.compareAndSet(current, updated)) {
+                generation.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        for (IndexedExpectation indexedExpectation : snapshot.get().registrationOrder) {
+            if (indexedExpectation.expectation == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        snapshot.set(new Snapshot());
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of changes made to the expectations, it is incremented after each change is visible
+     * so the expectations read after reading the generation are at least as recent as that generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public int size() {
+        return snapshot.get().registrationOrder.size();
+    }
+
+    /**
+     * Returns all expectations in registration order
+     */
+    @Override
+    public Iterator<Expectation> iterator() {
+        return toList(snapshot.get().registrationOrder).iterator();
+    }
+
+    public List<Expectation> candidatesFor(HttpRequest httpRequest) {
+        return candidatesFor(new MatchContext(httpRequest));
+    }
+
+    /**
+     * Returns the expectations that could possibly match the request in registration order, if the method or
+     * path of the request isn't literal (or is empty and so matches any expectation) all expectations are returned
+     */
+    public List<Expectation> candidatesFor(MatchContext matchContext) {
+        return candidatesFor(matchContext.getHttpRequest(), matchContext);
+    }
+
+    /**
+     * Returns the expectations that could match a request with the method and path of the request whatever its body,
+     * in registration order, so this can be called before the body of the request has been received
+     */
+    public List<Expectation> candidatesForAnyBody(HttpRequest httpRequest) {
+        return candidatesFor(httpRequest, null);
+    }
+
+    /**
+     * The expectations with an exact body are only filtered by the body of the request if there is a match context
+     */
+    private List<Expectation> candidatesFor(HttpRequest httpRequest, MatchContext matchContext) {
+        Snapshot current = snapshot.get();
+        if (httpRequest == null || !isIndexable(httpRequest) || Strings.isNullOrEmpty(httpRequest.getMethod().getValue()) || Strings.isNullOrEmpty(httpRequest.getPath().getValue())) {
+            return toList(current.registrationOrder);
+        }
+        String method = httpRequest.getMethod().getValue();
+        String path = httpRequest.getPath().getValue();
+        List<List<IndexedExpectation>> sortedLists = new ArrayList<List<IndexedExpectation>>();
+        addIfNotNull(current.bucket(method, path), matchContext, sortedLists);
+        addIfNotNull(current.bucket(method, WILDCARD), matchContext, sortedLists);
+        addIfNotNull(current.bucket(WILDCARD, path), matchContext, sortedLists);
+        addIfNotNull(current.bucket(WILDCARD, WILDCARD), matchContext, sortedLists);
+        current.pathTemplates.collect(path, sortedLists);
+        addIfNotEmpty(sortedLists, current.fallbackExpectations);
+        return merge(sortedLists);
+    }
+
+    /**
+     * Returns false if the request can't match any expectation, i.e. its literal method and path don't have a bucket,
+     * its path doesn't match a path template and every expectation could be indexed, this uses the same indexes as
+     * candidatesFor without creating any lists so requests that aren't mocked are rejected as cheaply as possible
+     */
+    public boolean couldMatch(HttpRequest httpRequest) {
+        Snapshot current = snapshot.get();
+        if (!current.fallbackExpectations.isEmpty() || httpRequest == null || !isIndexable(httpRequest) || Strings.isNullOrEmpty(httpRequest.getMethod().getValue()) || Strings.isNullOrEmpty(httpRequest.getPath().getValue())) {
+            return !current.registrationOrder.isEmpty();
+        }
+        String method = httpRequest.getMethod().getValue();
+        String path = httpRequest.getPath().getValue();
+        return current.bucket(method, path) != null
+                || current.bucket(method, WILDCARD) != null
+                || current.bucket(WILDCARD, path) != null
+                || current.bucket(WILDCARD, WILDCARD) != null
+                || (!current.templatedExpectations.isEmpty() && current.pathTemplates.matches(path));
+    }
+
+    /**
+     * Returns the expectations that could be equal to the request, i.e. that were registered with the same method and path
+     */
+    public List<Expectation> registeredWithSameMethodAndPath(HttpRequest httpRequest) {
+        Snapshot current = snapshot.get();
+        if (isIndexable(httpRequest)) {
+            LiteralBucket bucket = current.bucket(key(httpRequest.getMethod()), key(httpRequest.getPath()));
+            return bucket != null ? toList(bucket.expectations) : new ArrayList<Expectation>();
+        } else if (isPathTemplate(httpRequest)) {
+            return toList(current.pathTemplates.get(httpRequest.getPath().getValue()));
+        } else {
+            return toList(current.fallbackExpectations);
+        }
+    }
+
+    private static void addIfNotNull(LiteralBucket bucket, MatchContext matchContext, List<List<IndexedExpectation>> sortedLists) {
+        if (bucket != null && matchContext != null) {
+            bucket.collect(matchContext, sortedLists);
+        } else if (bucket != null) {
+            addIfNotEmpty(sortedLists, bucket.expectations);
+        }
+    }
+
+    private static void addIfNotEmpty(List<List<IndexedExpectation>> sortedLists, List<IndexedExpectation> sortedList) {
+        if (sortedList != null && !sortedList.isEmpty()) {
+            sortedLists.add(sortedList);
+        }
+    }
+
+    private static List<Expectation> merge(List<List<IndexedExpectation>> sortedLists) {
+        if (sortedLists.size() == 1) {
+            return toList(sortedLists.get(0));
+        }
+        List<Expectation> merged = new ArrayList<Expectation>();
+        int[] positions = new int[sortedLists.size()];
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < sortedLists.size(); i++) {
+                if (positions[i] < sortedLists.get(i).size()
+                        && (next == -1 || sortedLists.get(i).get(positions[i]).sequence < sortedLists.get(next).get(positions[next]).sequence)) {
+                    next = i;
+                }
+            }
+            if (next == -1) {
+                return merged;
+            }
+            merged.add(sortedLists.get(next).get(positions[next]++).expectation);
+        }
+    }
+
+    private static List<Expectation> toList(Collection<IndexedExpectation> indexedExpectations) {
+        List<Expectation> expectations = new ArrayList<Expectation>(indexedExpectations.size());
+        for (IndexedExpectation indexedExpectation : indexedExpectations) {
+            expectations.add(indexedExpectation.expectation);
+        }
+        return expectations;
+    }
+
+    private static AppendOnlyList<IndexedExpectation> copyWithout(List<IndexedExpectation> sortedList, Set<IndexedExpectation> toRemove) {
+        List<IndexedExpectation> copy = new ArrayList<IndexedExpectation>(sortedList.size());
+        for (IndexedExpectation indexedExpectation : sortedList) {
+            if (!toRemove.contains(indexedExpectation)) {
+                copy.add(indexedExpectation);
+            }
+        }
+        return AppendOnlyList.copyOf(copy);
+    }
+
+    /**
+     * An immutable view of the expectations, every update creates a new snapshot, expectations are only found
+     * by identity when they are removed so they aren't also held in an identity map
+     *
+     * the sequence of an expectation is assigned by the snapshot it is added to, so expectations are always
+     * appended to the end of each list and every list stays in registration order without being sorted
+     */
+    private static class Snapshot {
+        private final long nextSequence;
+        private final AppendOnlyList<IndexedExpectation> registrationOrder;
+        // there are only a few methods so the outer map is copied, the paths of each method are a persistent map
+        private final Map<String, PersistentHashMap<String, LiteralBucket>> literalBuckets;
+        private final AppendOnlyList<IndexedExpectation> templatedExpectations;
+        private final PathTemplateTree<IndexedExpectation> pathTemplates;
+        private final AppendOnlyList<IndexedExpectation> fallbackExpectations;
+
+        Snapshot() {
+            this(0, AppendOnlyList.<IndexedExpectation>empty(), new HashMap<String, PersistentHashMap<String, LiteralBucket>>(), AppendOnlyList.<IndexedExpectation>empty(), new PathTemplateTree<IndexedExpectation>(), AppendOnlyList.<IndexedExpectation>empty());
+        }
+
+        private Snapshot(long nextSequence, AppendOnlyList<IndexedExpectation> registrationOrder, Map<String, PersistentHashMap<String, LiteralBucket>> literalBuckets, AppendOnlyList<IndexedExpectation> templatedExpectations, PathTemplateTree<IndexedExpectation> pathTemplates, AppendOnlyList<IndexedExpectation> fallbackExpectations) {
+            this.nextSequence = nextSequence;
+            this.registrationOrder = registrationOrder;
+            this.literalBuckets = literalBuckets;
+            this.templatedExpectations = templatedExpectations;
+            this.pathTemplates = pathTemplates;
+            this.fallbackExpectations = fallbackExpectations;
+        }
+
+        /**
+         * The tree is rebuilt when templated expectations are removed, adding an expectation only copies the nodes on its path
+         */
+        private static PathTemplateTree<IndexedExpectation> buildPathTemplates(List<IndexedExpectation> templatedExpectations) {
+            PathTemplateTree<IndexedExpectation> pathTemplates = new PathTemplateTree<IndexedExpectation>();
+            for (IndexedExpectation indexedExpectation : templatedExpectations) {
+                pathTemplates.add(indexedExpectation.expectation.getHttpRequest().getPath().getValue(), indexedExpectation);
+            }
+            return pathTemplates;
+        }
+
+        LiteralBucket bucket(String method, String path) {
+            PersistentHashMap<String, LiteralBucket> pathBuckets = literalBuckets.get(method);
+            return pathBuckets != null ? pathBuckets.get(path) : null;
+        }
+
+        Snapshot add(IndexedExpectation unsequenced) {
+            IndexedExpectation indexedExpectation = new IndexedExpectation(unsequenced, nextSequence);
+            AppendOnlyList<IndexedExpectation> updatedRegistrationOrder = registrationOrder.append(indexedExpectation);
+            HttpRequest httpRequest = indexedExpectation.expectation.getHttpRequest();
+            if (isIndexable(httpRequest)) {
+                String methodKey = key(httpRequest.getMethod());
+                String pathKey = key(httpRequest.getPath());
+                PersistentHashMap<String, LiteralBucket> pathBuckets = literalBuckets.containsKey(methodKey) ? literalBuckets.get(methodKey) : PersistentHashMap.<String, LiteralBucket>empty();
+                LiteralBucket bucket = pathBuckets.get(pathKey);
+                Map<String, PersistentHashMap<String, LiteralBucket>> updatedLiteralBuckets = new HashMap<String, PersistentHashMap<String, LiteralBucket>>(literalBuckets);
+                updatedLiteralBuckets.put(methodKey, pathBuckets.put(pathKey, (bucket != null ? bucket : LiteralBucket.EMPTY).add(indexedExpectation)));
+                return new Snapshot(nextSequence + 1, updatedRegistrationOrder, updatedLiteralBuckets, templatedExpectations, pathTemplates, fallbackExpectations);
+            } else if (isPathTemplate(httpRequest)) {
+                return new Snapshot(nextSequence + 1, updatedRegistrationOrder, literalBuckets, templatedExpectations.append(indexedExpectation), pathTemplates.with(httpRequest.getPath().getValue(), indexedExpectation), fallbackExpectations);
+            } else {
+                return new Snapshot(nextSequence + 1, updatedRegistrationOrder, literalBuckets, templatedExpectations, pathTemplates, fallbackExpectations.append(indexedExpectation));
+            }
+        }
+
+        /**
+         * Returns this snapshot if none of the objects are in it
+         */
+        Snapshot remove(Collection<?> objects) {
+            Set<Object> toFind = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+            toFind.addAll(objects);
+            Set<IndexedExpectation> toRemove = Collections.newSetFromMap(new IdentityHashMap<IndexedExpectation, Boolean>());
+            for (IndexedExpectation indexedExpectation : registrationOrder) {
+                if (toFind.contains(indexedExpectation.expectation)) {
+                    toRemove.add(indexedExpectation);
+                }
+            }
+            if (toRemove.isEmpty()) {
+                return this;
+            }
+            Map<String, PersistentHashMap<String, LiteralBucket>> updatedLiteralBuckets = new HashMap<String, PersistentHashMap<String, LiteralBucket>>(literalBuckets);
+            boolean templatesChanged = false;
+            boolean fallbackChanged = false;
+            Map<String, Set<String>> changedBuckets = new HashMap<String, Set<String>>();
+            for (IndexedExpectation indexedExpectation : toRemove) {
+                HttpRequest httpRequest = indexedExpectation.expectation.getHttpRequest();
+                if (isIndexable(httpRequest)) {
+                    String methodKey = key(httpRequest.getMethod());
+                    if (!changedBuckets.containsKey(methodKey)) {
+                        changedBuckets.put(methodKey, new HashSet<String>());
+                    }
+                    changedBuckets.get(methodKey).add(key(httpRequest.getPath()));
+                } else if (isPathTemplate(httpRequest)) {
+                    templatesChanged = true;
+                } else {
+                    fallbackChanged = true;
+                }
+            }
+            // each changed bucket is copied once however many of its expectations are removed
+            for (Map.Entry<String, Set<String>> changedPaths : changedBuckets.entrySet()) {
+                String methodKey = changedPaths.getKey();
+                PersistentHashMap<String, LiteralBucket> updatedPathBuckets = literalBuckets.get(methodKey);
+                for (String pathKey : changedPaths.getValue()) {
+                    LiteralBucket bucket = updatedPathBuckets.get(pathKey).remove(toRemove);
+                    if (bucket.expectations.isEmpty()) {
+                        updatedPathBuckets = updatedPathBuckets.remove(pathKey);
+                    } else {
+                        updatedPathBuckets = updatedPathBuckets.put(pathKey, bucket);
+                    }
+                }
+                if (updatedPathBuckets.isEmpty()) {
+                    updatedLiteralBuckets.remove(methodKey);
+                } else {
+                    updatedLiteralBuckets.put(methodKey, updatedPathBuckets);
+                }
+            }
+            AppendOnlyList<IndexedExpectation> updatedTemplatedExpectations = templatesChanged ? copyWithout(templatedExpectations, toRemove) : templatedExpectations;
+            return new Snapshot(
+                    nextSequence,
+                    copyWithout(registrationOrder, toRemove),
+                    updatedLiteralBuckets,
+                    updatedTemplatedExpectations,
+                    templatesChanged ? buildPathTemplates(updatedTemplatedExpectations) : pathTemplates,
+                    fallbackChanged ? copyWithout(fallbackExpectations, toRemove) : fallbackExpectations
+            );
+        }
+    }
+
+    /**
+     * Only holds weak references so a pending timeout doesn't keep a removed expectation, or a stopped server's store, in memory
+     */
+    private static class RemoveExpiredExpectation implements TimerTask {
+        private final WeakReference<ExpectationStore> expectationStore;
+        private final WeakReference<Expectation> expectation;
+
+        RemoveExpiredExpectation(ExpectationStore expectationStore, Expectation expectation) {
+            this.expectationStore = new WeakReference<ExpectationStore>(expectationStore);
+            this.expectation = new WeakReference<Expectation>(expectation);
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            ExpectationStore expectationStore = this.expectationStore.get();
+            Expectation expectation = this.expectation.get();
+            if (expectationStore != null && expectation != null) {
+                expectationStore.remove(expectation);
+            }
+        }
+    }
+
+    /**
+     * The immutable expectations registered with one literal method and path, those with an exact body are also held by the hash of their body
+     */
+    private static class LiteralBucket {
+        private static final LiteralBucket EMPTY = new LiteralBucket(AppendOnlyList.<IndexedExpectation>empty(), AppendOnlyList.<IndexedExpectation>empty(), PersistentHashMap.<Integer, AppendOnlyList<IndexedExpectation>>empty(), PersistentHashMap.<Integer, AppendOnlyList<IndexedExpectation>>empty());
+        private final AppendOnlyList<IndexedExpectation> expectations;
+        private final AppendOnlyList<IndexedExpectation> notExactBodies;
+        private final PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> exactStringBodies;
+        private final PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> exactBinaryBodies;
+
+        private LiteralBucket(AppendOnlyList<IndexedExpectation> expectations, AppendOnlyList<IndexedExpectation> notExactBodies, PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> exactStringBodies, PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> exactBinaryBodies) {
+            this.expectations = expectations;
+            this.notExactBodies = notExactBodies;
+            this.exactStringBodies = exactStringBodies;
+            this.exactBinaryBodies = exactBinaryBodies;
+        }
+
+        /**
+         * Adds the expectations that could match the request, if the body of the request is a serialised body matcher
+         * (i.e. for clear or retrieve requests) it's compared as a body matcher not as a body so all expectations are added
+         */
+        void collect(MatchContext matchContext, List<List<IndexedExpectation>> sortedLists) {
+            if (exactStringBodies.isEmpty() && exactBinaryBodies.isEmpty()) {
+                addIfNotEmpty(sortedLists, expectations);
+                return;
+            }
+            BodyDTO bodyDTO = matchContext.getBodyAsBodyDTO();
+            if (bodyDTO != null && bodyDTO.getType() != Body.Type.STRING) {
+                addIfNotEmpty(sortedLists, expectations);
+                return;
+            }
+            addIfNotEmpty(sortedLists, notExactBodies);
+            if (!exactStringBodies.isEmpty()) {
+                addIfNotEmpty(sortedLists, exactStringBodies.get(matchContext.getBodyAsString().hashCode()));
+            }
+            if (!exactBinaryBodies.isEmpty()) {
+                addIfNotEmpty(sortedLists, exactBinaryBodies.get(Arrays.hashCode(matchContext.getBodyAsRawBytes())));
+            }
+        }
+
+        LiteralBucket add(IndexedExpectation indexedExpectation) {
+            if (indexedExpectation.bodyType == Body.Type.STRING) {
+                return new LiteralBucket(expectations.append(indexedExpectation), notExactBodies, withBody(exactStringBodies, indexedExpectation), exactBinaryBodies);
+            } else if (indexedExpectation.bodyType == Body.Type.BINARY) {
+                return new LiteralBucket(expectations.append(indexedExpectation), notExactBodies, exactStringBodies, withBody(exactBinaryBodies, indexedExpectation));
+            } else {
+                return new LiteralBucket(expectations.append(indexedExpectation), notExactBodies.append(indexedExpectation), exactStringBodies, exactBinaryBodies);
+            }
+        }
+
+        LiteralBucket remove(Set<IndexedExpectation> toRemove) {
+            return new LiteralBucket(copyWithout(expectations, toRemove), copyWithout(notExactBodies, toRemove), withoutBodies(exactStringBodies, Body.Type.STRING, toRemove), withoutBodies(exactBinaryBodies, Body.Type.BINARY, toRemove));
+        }
+
+        private static PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> withBody(PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> bodies, IndexedExpectation indexedExpectation) {
+            AppendOnlyList<IndexedExpectation> sameHash = bodies.get(indexedExpectation.bodyHash);
+            return bodies.put(indexedExpectation.bodyHash, (sameHash != null ? sameHash : AppendOnlyList.<IndexedExpectation>empty()).append(indexedExpectation));
+        }
+
+        /**
+         * Only the lists for the hashes of the removed expectations are copied
+         */
+        private static PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> withoutBodies(PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> bodies, Body.Type bodyType, Set<IndexedExpectation> toRemove) {
+            PersistentHashMap<Integer, AppendOnlyList<IndexedExpectation>> updated = bodies;
+            for (IndexedExpectation removed : toRemove) {
+                AppendOnlyList<IndexedExpectation> sameHash = removed.bodyType == bodyType ? updated.get(removed.bodyHash) : null;
+                if (sameHash != null && sameHash.contains(removed)) {
+                    AppendOnlyList<IndexedExpectation> remaining = copyWithout(sameHash, toRemove);
+                    updated = remaining.isEmpty() ? updated.remove(removed.bodyHash) : updated.put(removed.bodyHash, remaining);
+                }
+            }
+            return updated;
+        }
+    }
+
+    private static class IndexedExpectation {
+        private final long sequence;
+        private final Expectation expectation;
+        // STRING or BINARY if the expectation has an exact body that can be indexed by its hash, otherwise null
+        private final Body.Type bodyType;
+        private final int bodyHash;
+
+        IndexedExpectation(IndexedExpectation unsequenced, long sequence) {
+            this.sequence = sequence;
+            this.expectation = unsequenced.expectation;
+            this.bodyType = unsequenced.bodyType;
+            this.bodyHash = unsequenced.bodyHash;
+        }
+
+        /**
+         * An expectation with its body indexed but without a sequence, which is assigned when it's added to a snapshot
+         */
+        IndexedExpectation(Expectation expectation) {
+            this.sequence = -1;
+            this.expectation = expectation;
+            Body body = expectation.getHttpRequest() != null ? expectation.getHttpRequest().getBody() : null;
+            if (body instanceof StringBody && !body.isNot() && !Strings.isNullOrEmpty(((StringBody) body).getValue())) {
+                this.bodyType = Body.Type.STRING;
+                this.bodyHash = ((StringBody) body).getValue().hashCode();
+            } else if (body instanceof BinaryBody && !body.isNot() && ((BinaryBody) body).getValue() != null && ((BinaryBody) body).getValue().length > 0) {
+                this.bodyType = Body.Type.BINARY;
+                this.bodyHash = Arrays.hashCode(((BinaryBody) body).getValue());
+            } else {
+                this.bodyType = null;
+                this.bodyHash = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.mockserver.mock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.mockserver.model.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded least recently used cache of the expectation matched by a request (or that no expectation matched),
+ * keyed by a fingerprint of every field of the request that is matched, so requests that are repeated don't
+ * need to be matched against the expectations again
+ *
+ * each entry records the generation of the expectations it was matched against and is ignored once the
+ * expectations have been added to, removed, cleared or have expired, matches with an expectation that is
+ * only matched a limited number of times are never cached as the expectation changes with each match
+ *
+ * requests with a body larger than a kilobyte are never cached, as the fingerprint holds the body, so the cache
+ * can't hold large bodies in memory and a large body isn't hashed to look it up
+ *
+ * @author jamesdbloom
+ */
+class MatchCache {
+
+    static final int MAXIMUM_CACHED_BODY_SIZE = 1024;
+    private final Cache<RequestFingerprint, CachedMatch> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    MatchCache(int maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Returns the cached match for the generation or null if there isn't one
+     */
+    CachedMatch get(RequestFingerprint fingerprint, long generation) {
+        CachedMatch cachedMatch = cache.getIfPresent(fingerprint);
+        if (cachedMatch != null && cachedMatch.generation == generation && cachedMatch.isStillValid()) {
+            hits.incrementAndGet();
+            return cachedMatch;
+        } else {
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Caches the expectation matched, or null if no expectation matched, unless the expectation can't be cached
+     */
+    void put(RequestFingerprint fingerprint, long generation, Expectation expectation) {
+        if (expectation == null || isUnlimited(expectation)) {
+            cache.put(fingerprint, new CachedMatch(generation, expectation));
+        }
+    }
+
+    MatchCacheStatus status() {
+        return MatchCacheStatus.matchCacheStatus(hits.get(), misses.get(), cache.size());
+    }
+
+    private static boolean isUnlimited(Expectation expectation) {
+        return expectation.getTimes() == null || expectation.getTimes().isUnlimited();
+    }
+
+    static class CachedMatch {
+        private final long generation;
+        private final Expectation expectation;
+
+        CachedMatch(long generation, Expectation expectation) {
+            this.generation = generation;
+            this.expectation = expectation;
+        }
+
+        Expectation getExpectation() {
+            return expectation;
+        }
+
+        /**
+         * Checks the expectation is still unlimited and alive as it may have changed or expired before the generation was incremented
+         */
+        private boolean isStillValid() {
+            return expectation == null || (isUnlimited(expectation) && expectation.isStillAlive());
+        }
+    }
+
+    /**
+     * The values of every field of a request that is matched, including any 'not' operators, compared exactly
+     */
+    static class RequestFingerprint {
+        private final List<Object> fields;
+        private final int hashCode;
+
+        private RequestFingerprint(List<Object> fields) {
+            this.fields = fields;
+            this.hashCode = fields.hashCode();
+        }
+
+        /**
+         * Returns the fingerprint of the request or null if its body is too large to be cached
+         */
+        static RequestFingerprint fingerprint(HttpRequest httpRequest) {
+            Body body = httpRequest.getBody();
+            List<Object> bodyFields = null;
+            if (body != null) {
+                byte[] rawBytes = body.getRawBytes();
+                if (rawBytes != null && rawBytes.length > MAXIMUM_CACHED_BODY_SIZE) {
+                    return null;
+                }
+                bodyFields = Arrays.<Object>asList(body.getType(), body.isNot(), body.getCharset(null), rawBytes != null ? ByteBuffer.wrap(rawBytes) : null);
+            }
+            return new RequestFingerprint(Arrays.asList(
+                    httpRequest.isNot(),
+                    key(httpRequest.getMethod()),
+                    key(httpRequest.getPath()),
+                    keyToMultiValueKey(httpRequest.getQueryStringParameters()),
+                    keyToMultiValueKey(httpRequest.getHeaders()),
+                    keyAndValueKey(httpRequest.getCookies()),
+                    bodyFields,
+                    httpRequest.isKeepAlive(),
+                    httpRequest.isSecure()
+            ));
+        }
+
+        private static List<Object> keyToMultiValueKey(List<? extends KeyToMultiValue> keyToMultiValues) {
+            List<Object> key = new ArrayList<Object>();
+            if (keyToMultiValues != null) {
+                for (KeyToMultiValue keyToMultiValue : keyToMultiValues) {
+                    List<Object> values = new ArrayList<Object>();
+                    for (NottableString value : keyToMultiValue.getValues()) {
+                        values.add(key(value));
+                    }
+                    key.add(Arrays.asList(key(keyToMultiValue.getName()), values));
+                }
+            }
+            return key;
+        }
+
+        private static List<Object> keyAndValueKey(List<? extends KeyAndValue> keyAndValues) {
+            List<Object> key = new ArrayList<Object>();
+            if (keyAndValues != null) {
+                for (KeyAndValue keyAndValue : keyAndValues) {
+                    key.add(Arrays.asList(key(keyAndValue.getName()), key(keyAndValue.getValue())));
+                }
+            }
+            return key;
+        }
+
+        private static List<Object> key(NottableString nottableString) {
+            return nottableString != null ? Arrays.<Object>asList(nottableString.isNot(), nottableString.getValue()) : null;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof RequestFingerprint && hashCode == ((RequestFingerprint) other).hashCode && fields.equals(((RequestFingerprint) other).fields));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
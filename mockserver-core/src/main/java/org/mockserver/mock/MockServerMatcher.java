@@ -3,19 +3,26 @@ package org.mockserver.mock;
 import com.google.common.annotations.VisibleForTesting;
 import org.mockserver.client.serialization.Base64Converter;
 import org.mockserver.client.serialization.ExpectationSerializer;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.matchers.HttpRequestMatcher;
+import org.mockserver.matchers.MatchContext;
 import org.mockserver.matchers.MatcherBuilder;
+import org.mockserver.matchers.SharedConditions;
 import org.mockserver.matchers.TimeToLive;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.Action;
+import org.mockserver.model.Delay;
+import org.mockserver.model.DelayHistogramStatus;
+import org.mockserver.model.HttpError;
 import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.model.MatchCacheStatus;
 import org.mockserver.model.ObjectWithReflectiveEqualsHashCodeToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -25,9 +32,18 @@ import java.util.regex.Pattern;
  */
 public class MockServerMatcher extends ObjectWithReflectiveEqualsHashCodeToString {
 
-    protected final List<Expectation> expectations = Collections.synchronizedList(new ArrayList<Expectation>());
+    protected final ExpectationStore expectations = new ExpectationStore();
+    private final SharedConditions sharedConditions = new SharedConditions();
+    private final MatchCache matchCache = ConfigurationProperties.matchCacheSize() > 0 ? new MatchCache(ConfigurationProperties.matchCacheSize()) : null;
+    private final int parallelMatchingThreshold = ConfigurationProperties.parallelMatchingThreshold();
+    private final ParallelMatcher parallelMatcher = new ParallelMatcher();
+    private final DelayHistogram delayHistogram = new DelayHistogram();
     private Logger requestLogger = LoggerFactory.getLogger("REQUEST");
 
+    public MockServerMatcher() {
+        addFieldsExcludedFromEqualsAndHashCode("sharedConditions", "matchCache", "parallelMatcher", "delayHistogram");
+    }
+
     public Expectation when(HttpRequest httpRequest) {
         return when(httpRequest, Times.unlimited(), TimeToLive.unlimited());
     }
@@ -36,7 +52,7 @@ public class MockServerMatcher extends ObjectWithReflectiveEqualsHashCodeToStrin
         Expectation expectation;
         if (times.isUnlimited()) {
             Collection<Expectation> existingExpectationsWithMatchingRequest = new ArrayList<Expectation>();
-            for (Expectation potentialExpectation : new ArrayList<Expectation>(this.expectations)) {
+            for (Expectation potentialExpectation : this.expectations.registeredWithSameMethodAndPath(httpRequest)) {
                 if (potentialExpectation.contains(httpRequest)) {
                     existingExpectationsWithMatchingRequest.add(potentialExpectation);
                 }
@@ -52,39 +68,146 @@ public class MockServerMatcher extends ObjectWithReflectiveEqualsHashCodeToStrin
         } else {
             expectation = new Expectation(httpRequest, times, timeToLive);
         }
-        this.expectations.add(expectation);
+        // identical conditions in different expectations are evaluated once per request
+        this.expectations.add(expectation.shareConditions(sharedConditions));
         return expectation;
     }
 
+    /**
+     * Returns the action of the first matching expectation without applying any delay, so matching never holds the
+     * calling thread, the caller applies the delay of a response or error, i.e. by scheduling the write of the response
+     */
     public Action handle(HttpRequest httpRequest) {
-        for (Expectation expectation : new ArrayList<Expectation>(this.expectations)) {
-            if (expectation.matches(httpRequest)) {
-                expectation.decrementRemainingMatches();
-                if (!expectation.hasRemainingMatches()) {
-                    if (this.expectations.contains(expectation)) {
-                        this.expectations.remove(expectation);
+        // requests that aren't mocked are rejected by the expectation indexes without being matched
+        if (!this.expectations.couldMatch(httpRequest)) {
+            return null;
+        }
+        MatchCache.RequestFingerprint fingerprint = null;
+        // the generation is read before the expectations so a match is never cached against a later generation
+        long generation = this.expectations.generation();
+        if (matchCache != null && httpRequest != null) {
+            fingerprint = MatchCache.RequestFingerprint.fingerprint(httpRequest);
+            MatchCache.CachedMatch cachedMatch = fingerprint != null ? matchCache.get(fingerprint, generation) : null;
+            if (cachedMatch != null) {
+                return cachedMatch.getExpectation() != null ? cachedMatch.getExpectation().getAction(false) : null;
+            }
+        }
+        MatchContext matchContext = new MatchContext(httpRequest);
+        List<Expectation> usedUp = new ArrayList<Expectation>();
+        List<Expectation> candidates = this.expectations.candidatesFor(matchContext);
+        Expectation matched = null;
+        if (parallelMatchingThreshold > 0 && candidates.size() > parallelMatchingThreshold) {
+            matched = handleInParallel(candidates, matchContext, usedUp);
+        } else {
+            for (Expectation expectation : candidates) {
+                // if another request used the last remaining match since this one matched keep looking for the next matching expectation
+                if (expectation.matches(matchContext, true) && expectation.consumeRemainingMatch()) {
+                    if (!expectation.hasRemainingMatches()) {
+                        usedUp.add(expectation);
                     }
+                    matched = expectation;
+                    break;
+                } else if (!expectation.hasRemainingMatches()) {
+                    // expectations whose time to live has expired are removed by the expectation store
+                    usedUp.add(expectation);
                 }
-                return expectation.getAction(true);
-            } else if (!expectation.isStillAlive()) {
-                if (this.expectations.contains(expectation)) {
-                    this.expectations.remove(expectation);
+            }
+        }
+        this.expectations.removeAll(usedUp);
+        if (fingerprint != null) {
+            matchCache.put(fingerprint, generation, matched);
+        }
+        return matched != null ? matched.getAction(false) : null;
+    }
+
+    /**
+     * Returns false if the body of the request can't be needed to handle it, i.e. the request can't match any
+     * expectation or none of the expectations it could match has a body matcher, forwards the request or calls
+     * back with it, the request only needs a method and path so this can be called before the body has been received
+     */
+    public boolean bodyRequired(HttpRequest httpRequest) {
+        if (!this.expectations.couldMatch(httpRequest)) {
+            return false;
+        }
+        // only the expectations indexed for the method and path are checked, not every expectation
+        for (Expectation expectation : this.expectations.candidatesForAnyBody(httpRequest)) {
+            if (expectation.getHttpRequest() != null && expectation.getHttpRequest().getBody() != null) {
+                return true;
+            }
+            if (expectation.getHttpForward() != null || expectation.getHttpCallback() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches the candidates in parallel, if another request used the last remaining match of the first matching
+     * expectation the candidates after it are matched again, so the first registered expectation always wins
+     */
+    private Expectation handleInParallel(List<Expectation> candidates, MatchContext matchContext, List<Expectation> usedUp) {
+        int from = 0;
+        while (from < candidates.size()) {
+            int firstMatch = parallelMatcher.firstMatch(candidates, from, matchContext);
+            if (firstMatch < 0) {
+                return null;
+            }
+            Expectation expectation = candidates.get(firstMatch);
+            if (expectation.consumeRemainingMatch()) {
+                if (!expectation.hasRemainingMatches()) {
+                    usedUp.add(expectation);
                 }
+                return expectation;
             }
+            usedUp.add(expectation);
+            from = firstMatch + 1;
         }
         return null;
     }
 
+    /**
+     * Returns the hits and misses of the match cache or null if the match cache isn't enabled
+     */
+    public MatchCacheStatus matchCacheStatus() {
+        return matchCache != null ? matchCache.status() : null;
+    }
+
+    /**
+     * Returns the nanoseconds to delay the response or error by, drawn from the delay's distribution if it has
+     * one, and records the delay so the distribution of the delays applied can be queried
+     */
+    public long delayNanos(Action action) {
+        Delay delay = null;
+        if (action instanceof HttpResponse) {
+            delay = ((HttpResponse) action).getDelay();
+        } else if (action instanceof HttpError) {
+            delay = ((HttpError) action).getDelay();
+        }
+        if (delay == null || delay.getTimeUnit() == null) {
+            return 0;
+        }
+        long delayNanos = delay.sampleNanos();
+        delayHistogram.record(delayNanos);
+        return delayNanos;
+    }
+
+    /**
+     * Returns the distribution of the delays applied since the last reset or null if no delays have been applied
+     */
+    public DelayHistogramStatus delayHistogramStatus() {
+        return delayHistogram.status();
+    }
+
     public void clear(HttpRequest httpRequest) {
         if (httpRequest != null) {
             HttpRequestMatcher httpRequestMatcher = new MatcherBuilder().transformsToMatcher(httpRequest);
-            for (Expectation expectation : new ArrayList<Expectation>(this.expectations)) {
+            List<Expectation> matching = new ArrayList<Expectation>();
+            for (Expectation expectation : this.expectations) {
                 if (httpRequestMatcher.matches(expectation.getHttpRequest(), true)) {
-                    if (this.expectations.contains(expectation)) {
-                        this.expectations.remove(expectation);
-                    }
+                    matching.add(expectation);
                 }
             }
+            this.expectations.removeAll(matching);
         } else {
             reset();
         }
@@ -92,18 +215,20 @@ public class MockServerMatcher extends ObjectWithReflectiveEqualsHashCodeToStrin
 
     public void reset() {
         this.expectations.clear();
+        this.delayHistogram.reset();
     }
 
     public void dumpToLog(HttpRequest httpRequest) {
         ExpectationSerializer expectationSerializer = new ExpectationSerializer();
         if (httpRequest != null) {
-            for (Expectation expectation : new ArrayList<Expectation>(this.expectations)) {
-                if (expectation.matches(httpRequest)) {
+            MatchContext matchContext = new MatchContext(httpRequest);
+            for (Expectation expectation : this.expectations.candidatesFor(matchContext)) {
+                if (expectation.matches(matchContext, true)) {
                     requestLogger.warn(cleanBase64Response(expectationSerializer.serialize(expectation)));
                 }
             }
         } else {
-            for (Expectation expectation : new ArrayList<Expectation>(this.expectations)) {
+            for (Expectation expectation : this.expectations) {
                 requestLogger.warn(cleanBase64Response(expectationSerializer.serialize(expectation)));
             }
         }
@@ -120,11 +245,12 @@ public class MockServerMatcher extends ObjectWithReflectiveEqualsHashCodeToStrin
         }
     }
 
-    public synchronized Expectation[] retrieve(HttpRequest httpRequest) {
+    public Expectation[] retrieve(HttpRequest httpRequest) {
         List<Expectation> expectations = new ArrayList<Expectation>();
         if (httpRequest != null) {
-            for (Expectation expectation : new ArrayList<Expectation>(this.expectations)) {
-                if (expectation.matches(httpRequest)) {
+            MatchContext matchContext = new MatchContext(httpRequest);
+            for (Expectation expectation : this.expectations.candidatesFor(matchContext)) {
+                if (expectation.matches(matchContext, true)) {
                     expectations.add(expectation);
                 }
             }
@@ -0,0 +1,82 @@
+package org.mockserver.mock;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.mockserver.matchers.MatchContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the first expectation in a list of candidates that matches a request by splitting the candidates into
+ * ranges that are matched concurrently, the lowest matching index is returned so the first registered
+ * expectation still wins, a range stops as soon as an expectation before it in the list has matched
+ *
+ * each range is matched with its own copy of the request's MatchContext, the copies share the decoded and parsed
+ * forms of the body, the indexes and the results of shared conditions, so each is still created once per request
+ *
+ * the calling thread (i.e. a netty event loop thread) is blocked until every range has been matched
+ *
+ * @author jamesdbloom
+ */
+class ParallelMatcher {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    // daemon threads shared by all matchers, the threads are only started when a request is first matched in parallel
+    private static final ExecutorService MATCHING_EXECUTOR = Executors.newFixedThreadPool(PARALLELISM, new DefaultThreadFactory("MockServer-Matching", true));
+    // more ranges than threads so a thread that finishes a cheap range early takes another
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * Returns the index of the first candidate after from that matches the request or -1 if none match
+     */
+    int firstMatch(final List<Expectation> candidates, int from, final MatchContext matchContext) {
+        // decoded before the ranges start so the ranges don't wait for each other to decode it
+        matchContext.getBodyAsString();
+        final AtomicInteger firstMatch = new AtomicInteger(Integer.MAX_VALUE);
+        int rangeSize = Math.max(1, (candidates.size() - from + PARALLELISM * RANGES_PER_THREAD - 1) / (PARALLELISM * RANGES_PER_THREAD));
+        List<Future<?>> ranges = new ArrayList<Future<?>>();
+        for (int start = from; start < candidates.size(); start += rangeSize) {
+            final int rangeStart = start;
+            final int rangeEnd = Math.min(start + rangeSize, candidates.size());
+            ranges.add(MATCHING_EXECUTOR.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    MatchContext rangeMatchContext = matchContext.concurrentCopy();
+                    for (int i = rangeStart; i < rangeEnd && i < firstMatch.get(); i++) {
+                        if (candidates.get(i).matches(rangeMatchContext, true)) {
+                            updateIfLower(firstMatch, i);
+                            return null;
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> range : ranges) {
+            try {
+                range.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while matching request " + matchContext.getHttpRequest(), e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Exception while matching request " + matchContext.getHttpRequest(), e.getCause());
+            }
+        }
+        return firstMatch.get() != Integer.MAX_VALUE ? firstMatch.get() : -1;
+    }
+
+    private static void updateIfLower(AtomicInteger firstMatch, int index) {
+        while (true) {
+            int current = firstMatch.get();
+            if (index >= current || firstMatch.compareAndSet(current, index)) {
+                return;
+            }
+        }
+    }
+}
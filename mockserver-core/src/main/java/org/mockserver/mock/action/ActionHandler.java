@@ -40,4 +40,12 @@ public class ActionHandler {
         }
         return filters.applyOnResponseFilters(httpRequest, httpResponse);
     }
+
+    /**
+     * Applies the filters for a response that is returned exactly as the expectation specifies it, so the
+     * response isn't copied and must not be modified
+     */
+    public HttpResponse processUnmodifiedResponse(HttpResponse httpResponse, HttpRequest httpRequest) {
+        return filters.applyOnResponseFilters(filters.applyOnRequestFilters(httpRequest), httpResponse);
+    }
 }
@@ -1,5 +1,10 @@
 package org.mockserver.model;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -7,12 +12,63 @@ import java.util.concurrent.TimeUnit;
  */
 public class Delay extends ObjectWithReflectiveEqualsHashCodeToString {
 
+    private static final Logger logger = LoggerFactory.getLogger(Delay.class);
     private final TimeUnit timeUnit;
     private final long value;
+    private final DelayDistribution distribution;
 
     public Delay(TimeUnit timeUnit, long value) {
         this.timeUnit = timeUnit;
         this.value = value;
+        this.distribution = null;
+    }
+
+    /**
+     * A delay drawn from the distribution each time it is applied, the values of the distribution are in the time unit
+     */
+    public Delay(TimeUnit timeUnit, DelayDistribution distribution) {
+        this.timeUnit = timeUnit;
+        this.value = 0;
+        this.distribution = distribution;
+    }
+
+    /**
+     * A delay drawn uniformly between min and max, for example Delay.uniform(TimeUnit.MILLISECONDS, 50, 150)
+     */
+    public static Delay uniform(TimeUnit timeUnit, long min, long max) {
+        return new Delay(timeUnit, DelayDistribution.uniform(min, max));
+    }
+
+    /**
+     * A delay drawn from a normal distribution, for example Delay.normal(TimeUnit.MILLISECONDS, 100, 20)
+     */
+    public static Delay normal(TimeUnit timeUnit, long mean, long standardDeviation) {
+        return new Delay(timeUnit, DelayDistribution.normal(mean, standardDeviation));
+    }
+
+    /**
+     * A delay drawn from a log-normal distribution, for example Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5)
+     */
+    public static Delay logNormal(TimeUnit timeUnit, long median, double sigma) {
+        return new Delay(timeUnit, DelayDistribution.logNormal(median, sigma));
+    }
+
+    /**
+     * A delay with the 50th, 95th and 99th percentiles specified, for example Delay.percentiles(TimeUnit.MILLISECONDS, 80, 200, 450)
+     */
+    public static Delay percentiles(TimeUnit timeUnit, long p50, long p95, long p99) {
+        Map<Double, Long> percentiles = new LinkedHashMap<Double, Long>();
+        percentiles.put(50.0, p50);
+        percentiles.put(95.0, p95);
+        percentiles.put(99.0, p99);
+        return percentiles(timeUnit, percentiles);
+    }
+
+    /**
+     * A delay with the percentiles specified, the key of each entry is the percentile and the value is the delay
+     */
+    public static Delay percentiles(TimeUnit timeUnit, Map<Double, Long> percentiles) {
+        return new Delay(timeUnit, DelayDistribution.percentiles(percentiles));
     }
 
     public TimeUnit getTimeUnit() {
@@ -23,10 +79,31 @@ public class Delay extends ObjectWithReflectiveEqualsHashCodeToString {
         return value;
     }
 
+    public DelayDistribution getDistribution() {
+        return distribution;
+    }
+
+    /**
+     * Returns the delay to apply in nanoseconds, a new delay is drawn each time if the delay has a distribution
+     */
+    public long sampleNanos() {
+        if (timeUnit == null) {
+            return 0;
+        } else if (distribution != null) {
+            return (long) (distribution.sample() * timeUnit.toNanos(1));
+        } else {
+            return timeUnit.toNanos(value);
+        }
+    }
+
     public void applyDelay() {
         if (timeUnit != null) {
             try {
-                timeUnit.sleep(value);
+                if (distribution != null) {
+                    TimeUnit.NANOSECONDS.sleep(sampleNanos());
+                } else {
+                    timeUnit.sleep(value);
+                }
             } catch (InterruptedException ie) {
                 logger.error("InterruptedException while apply delay to response", ie);
                 throw new RuntimeException("InterruptedException while apply delay to response", ie);
@@ -0,0 +1,162 @@
+package org.mockserver.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The distribution a delay is drawn from, so a mocked dependency can return realistic, varying, latencies,
+ * all values are in the time unit of the delay the distribution belongs to
+ *
+ * @author jamesdbloom
+ */
+public class DelayDistribution extends ObjectWithReflectiveEqualsHashCodeToString {
+
+    private static final Random random = new Random();
+    private final Type type;
+    private final Long min;
+    private final Long max;
+    private final Long mean;
+    private final Long standardDeviation;
+    private final Long median;
+    private final Double sigma;
+    private final SortedMap<Double, Long> percentiles;
+
+    private DelayDistribution(Type type, Long min, Long max, Long mean, Long standardDeviation, Long median, Double sigma, Map<Double, Long> percentiles) {
+        this.type = type;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.median = median;
+        this.sigma = sigma;
+        this.percentiles = percentiles != null ? Collections.unmodifiableSortedMap(new TreeMap<Double, Long>(percentiles)) : null;
+    }
+
+    /**
+     * Every value between min and max is equally likely
+     */
+    public static DelayDistribution uniform(long min, long max) {
+        return new DelayDistribution(Type.UNIFORM, min, max, null, null, null, null, null);
+    }
+
+    /**
+     * Values are normally distributed around the mean, values below zero are treated as zero
+     */
+    public static DelayDistribution normal(long mean, long standardDeviation) {
+        return new DelayDistribution(Type.NORMAL, null, null, mean, standardDeviation, null, null, null);
+    }
+
+    /**
+     * Values are log-normally distributed, i.e. with the long tail typical of the latency of a real service,
+     * sigma is the standard deviation of the logarithm of the values, for example 0.1 gives a narrow and 1.0 a
+     * very wide distribution
+     */
+    public static DelayDistribution logNormal(long median, double sigma) {
+        return new DelayDistribution(Type.LOG_NORMAL, null, null, null, null, median, sigma, null);
+    }
+
+    /**
+     * Values have the percentiles specified, for example 50 to 80, 95 to 200 and 99 to 450, values between two
+     * percentiles are interpolated, below the lowest percentile the lowest value is used and above the highest
+     * percentile the highest value is used, so add the 0th and 100th percentiles to set the minimum and maximum
+     */
+    public static DelayDistribution percentiles(Map<Double, Long> percentiles) {
+        return new DelayDistribution(Type.PERCENTILES, null, null, null, null, null, null, percentiles);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getMin() {
+        return min;
+    }
+
+    public Long getMax() {
+        return max;
+    }
+
+    public Long getMean() {
+        return mean;
+    }
+
+    public Long getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public Long getMedian() {
+        return median;
+    }
+
+    public Double getSigma() {
+        return sigma;
+    }
+
+    public SortedMap<Double, Long> getPercentiles() {
+        return percentiles;
+    }
+
+    /**
+     * Draws a value from the distribution, a new value is drawn each time
+     */
+    public double sample() {
+        return sample(random.nextDouble(), random.nextGaussian());
+    }
+
+    /**
+     * Returns the value for a uniformly distributed number between 0 and 1 or a normally distributed number with
+     * a mean of 0 and a standard deviation of 1, depending on the type of distribution
+     */
+    double sample(double uniform, double gaussian) {
+        double value;
+        switch (type) {
+            case UNIFORM:
+                value = value(min) + uniform * (value(max) - value(min));
+                break;
+            case NORMAL:
+                value = value(mean) + gaussian * value(standardDeviation);
+                break;
+            case LOG_NORMAL:
+                value = value(median) * Math.exp((sigma != null ? sigma : 0) * gaussian);
+                break;
+            case PERCENTILES:
+                value = percentile(uniform * 100);
+                break;
+            default:
+                value = 0;
+        }
+        return Math.max(value, 0);
+    }
+
+    private double percentile(double percentile) {
+        if (percentiles == null || percentiles.isEmpty()) {
+            return 0;
+        }
+        Map.Entry<Double, Long> below = null;
+        for (Map.Entry<Double, Long> above : percentiles.entrySet()) {
+            if (percentile <= above.getKey()) {
+                if (below == null) {
+                    return value(above.getValue());
+                }
+                double fraction = (percentile - below.getKey()) / (above.getKey() - below.getKey());
+                return value(below.getValue()) + fraction * (value(above.getValue()) - value(below.getValue()));
+            }
+            below = above;
+        }
+        return value(below.getValue());
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0;
+    }
+
+    public enum Type {
+        UNIFORM,
+        NORMAL,
+        LOG_NORMAL,
+        PERCENTILES
+    }
+}
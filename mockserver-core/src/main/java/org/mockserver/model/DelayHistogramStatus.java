@@ -0,0 +1,94 @@
+package org.mockserver.model;
+
+/**
+ * The distribution of the delays applied to responses and errors, all values are in milliseconds
+ *
+ * @author jamesdbloom
+ */
+public class DelayHistogramStatus extends ObjectWithJsonToString {
+
+    private long count;
+    private double min;
+    private double max;
+    private double mean;
+    private double p50;
+    private double p90;
+    private double p95;
+    private double p99;
+
+    public static DelayHistogramStatus delayHistogramStatus() {
+        return new DelayHistogramStatus();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public DelayHistogramStatus setCount(long count) {
+        this.count = count;
+        return this;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public DelayHistogramStatus setMin(double min) {
+        this.min = min;
+        return this;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public DelayHistogramStatus setMax(double max) {
+        this.max = max;
+        return this;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public DelayHistogramStatus setMean(double mean) {
+        this.mean = mean;
+        return this;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public DelayHistogramStatus setP50(double p50) {
+        this.p50 = p50;
+        return this;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public DelayHistogramStatus setP90(double p90) {
+        this.p90 = p90;
+        return this;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public DelayHistogramStatus setP95(double p95) {
+        this.p95 = p95;
+        return this;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public DelayHistogramStatus setP99(double p99) {
+        this.p99 = p99;
+        return this;
+    }
+}
@@ -1,12 +1,31 @@
 package org.mockserver.model;
 
-import java.util.Collection;
+import java.util.*;
+
+import static org.mockserver.model.NottableString.string;
+import static org.mockserver.model.NottableString.strings;
 
 /**
  * @author jamesdbloom
  */
 public class Header extends KeyToMultiValue {
 
+    // the names of common request and response headers, as sent by browsers and HTTP clients, shared by all received requests
+    private static final Map<String, String> COMMON_HEADER_NAMES = new HashMap<String, String>();
+
+    static {
+        for (String name : Arrays.asList(
+                "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Authorization", "Cache-Control",
+                "Connection", "Content-Encoding", "Content-Length", "Content-Type", "Cookie", "Date", "DNT", "ETag",
+                "Expect", "Expires", "Host", "If-Match", "If-Modified-Since", "If-None-Match", "Last-Modified",
+                "Location", "Origin", "Pragma", "Referer", "Server", "Set-Cookie", "Transfer-Encoding",
+                "Upgrade-Insecure-Requests", "User-Agent", "Vary", "X-Forwarded-For", "X-Requested-With"
+        )) {
+            COMMON_HEADER_NAMES.put(name, name);
+            COMMON_HEADER_NAMES.put(name.toLowerCase(), name.toLowerCase());
+        }
+    }
+
     public Header(String name, String... value) {
         super(name, value);
     }
@@ -23,6 +42,19 @@ public class Header extends KeyToMultiValue {
         super(name, value);
     }
 
+    Header(NottableString name, List<NottableString> values, boolean copyValues) {
+        super(name, values, copyValues);
+    }
+
+    /**
+     * Creates a header received in a request or response, the name of a common header is a single String
+     * shared by every header received with that name, so the decoded name isn't retained for every request
+     */
+    public static Header receivedHeader(String name, Collection<String> values) {
+        String commonName = COMMON_HEADER_NAMES.get(name);
+        return new Header(string(commonName != null ? commonName : name), strings(values), false);
+    }
+
     public static Header header(String name, int value) {
         return new Header(name, String.valueOf(value));
     }
@@ -1,6 +1,7 @@
 package org.mockserver.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 
 import java.nio.charset.Charset;
@@ -341,7 +342,10 @@ public class HttpRequest extends Not {
      *   - new BinaryBody(IOUtils.readFully(getClass().getClassLoader().getResourceAsStream("example.pdf"), 1024));
      *
      * for more details of the supported regular expression syntax see <a href="http://docs.oracle.com/javase/6/docs/api/java/util/regex/Pattern.html">http://docs.oracle.com/javase/6/docs/api/java/util/regex/Pattern.html</a>
-     * for more details of the supported json syntax see <a href="http://jsonassert.skyscreamer.org">http://jsonassert.skyscreamer.org</a>
+     * json is compared as parsed json not as text, by default (MatchType.ONLY_MATCHING_FIELDS) the comparison is lenient so the body
+     * can have extra fields and array elements can be in any order, with MatchType.STRICT extra fields aren't allowed and array elements
+     * must be in the same order, in both modes arrays must be the same length, numbers are compared by value (i.e. 1 matches 1.0) and the
+     * expected json must be an object or array
      * for more details of the supported json schema syntax see <a href="http://json-schema.org/">http://json-schema.org/</a>
      * for more detail of XPath syntax see <a href="http://saxon.sourceforge.net/saxon6.5.3/expressions.html">http://saxon.sourceforge.net/saxon6.5.3/expressions.html</a>
      *
@@ -404,8 +408,9 @@ public class HttpRequest extends Not {
      * @param header the Header object which can have a values list of strings or regular expressions
      */
     public HttpRequest withHeader(Header header) {
-        if (this.headers.containsKey(header.getName())) {
-            this.headers.get(header.getName()).addNottableValues(header.getValues());
+        Header existingHeader = this.headers.get(header.getName());
+        if (existingHeader != null) {
+            existingHeader.addNottableValues(header.getValues());
         } else {
             this.headers.put(header.getName(), header);
         }
@@ -557,4 +562,38 @@ public class HttpRequest extends Not {
     public List<Cookie> getCookies() {
         return new ArrayList<Cookie>(cookies.values());
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        HttpRequest that = (HttpRequest) other;
+        return Objects.equal(method, that.method)
+                && Objects.equal(path, that.path)
+                && Objects.equal(not, that.not)
+                && Objects.equal(keepAlive, that.keepAlive)
+                && Objects.equal(secure, that.secure)
+                && Objects.equal(headers, that.headers)
+                && Objects.equal(queryStringParameters, that.queryStringParameters)
+                && Objects.equal(cookies, that.cookies)
+                && Objects.equal(body, that.body);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = method != null ? method.hashCode() : 0;
+        result = 31 * result + (path != null ? path.hashCode() : 0);
+        result = 31 * result + (not != null ? not.hashCode() : 0);
+        result = 31 * result + (keepAlive != null ? keepAlive.hashCode() : 0);
+        result = 31 * result + (secure != null ? secure.hashCode() : 0);
+        result = 31 * result + (headers != null ? headers.hashCode() : 0);
+        result = 31 * result + (queryStringParameters != null ? queryStringParameters.hashCode() : 0);
+        result = 31 * result + (cookies != null ? cookies.hashCode() : 0);
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
 }
@@ -1,6 +1,7 @@
 package org.mockserver.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 
 import java.nio.charset.Charset;
@@ -346,5 +347,32 @@ public class HttpResponse extends Action {
                 .withCookies(getCookies())
                 .withConnectionOptions(getConnectionOptions());
     }
-}
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        HttpResponse that = (HttpResponse) other;
+        return Objects.equal(statusCode, that.statusCode)
+                && Objects.equal(headers, that.headers)
+                && Objects.equal(cookies, that.cookies)
+                && Objects.equal(delay, that.delay)
+                && Objects.equal(connectionOptions, that.connectionOptions)
+                && Objects.equal(body, that.body);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = statusCode != null ? statusCode.hashCode() : 0;
+        result = 31 * result + (headers != null ? headers.hashCode() : 0);
+        result = 31 * result + (cookies != null ? cookies.hashCode() : 0);
+        result = 31 * result + (delay != null ? delay.hashCode() : 0);
+        result = 31 * result + (connectionOptions != null ? connectionOptions.hashCode() : 0);
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
+}
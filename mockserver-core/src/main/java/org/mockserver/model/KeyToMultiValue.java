@@ -1,5 +1,6 @@
 package org.mockserver.model;
 
+import com.google.common.base.Objects;
 import org.mockserver.collections.CaseInsensitiveRegexMultiMap;
 
 import java.util.ArrayList;
@@ -18,7 +19,7 @@ public class KeyToMultiValue extends ObjectWithJsonToString {
     private final List<NottableString> values;
 
     public KeyToMultiValue(String name, String... values) {
-        this(string(name), strings(values));
+        this(string(name), strings(values), false);
     }
 
     public KeyToMultiValue(NottableString name, NottableString... values) {
@@ -26,16 +27,19 @@ public class KeyToMultiValue extends ObjectWithJsonToString {
     }
 
     public KeyToMultiValue(String name, Collection<String> values) {
-        this(string(name), strings(values));
+        this(string(name), strings(values), false);
     }
 
     public KeyToMultiValue(NottableString name, Collection<NottableString> values) {
+        this(name, values != null ? new ArrayList<NottableString>(values) : new ArrayList<NottableString>(), false);
+    }
+
+    /**
+     * Uses the list of values without copying it, so the list must not be used by anything else
+     */
+    KeyToMultiValue(NottableString name, List<NottableString> values, boolean copyValues) {
         this.name = name;
-        if (values != null) {
-            this.values = new ArrayList<NottableString>(values);
-        } else {
-            this.values = new ArrayList<NottableString>();
-        }
+        this.values = copyValues ? new ArrayList<NottableString>(values) : values;
     }
 
     public static CaseInsensitiveRegexMultiMap toMultiMap(List<? extends KeyToMultiValue> keyToMultiValues) {
@@ -101,4 +105,21 @@ public class KeyToMultiValue extends ObjectWithJsonToString {
     public void addValues(NottableString... values) {
         addNottableValues(Arrays.asList(values));
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        KeyToMultiValue that = (KeyToMultiValue) other;
+        return Objects.equal(name, that.name) && Objects.equal(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (name != null ? name.hashCode() : 0) + (values != null ? values.hashCode() : 0);
+    }
 }
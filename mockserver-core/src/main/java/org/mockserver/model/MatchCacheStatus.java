@@ -0,0 +1,42 @@
+package org.mockserver.model;
+
+/**
+ * @author jamesdbloom
+ */
+public class MatchCacheStatus extends ObjectWithJsonToString {
+
+    private long hits;
+    private long misses;
+    private long size;
+
+    public static MatchCacheStatus matchCacheStatus(long hits, long misses, long size) {
+        return new MatchCacheStatus().setHits(hits).setMisses(misses).setSize(size);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public MatchCacheStatus setHits(long hits) {
+        this.hits = hits;
+        return this;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public MatchCacheStatus setMisses(long misses) {
+        this.misses = misses;
+        return this;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public MatchCacheStatus setSize(long size) {
+        this.size = size;
+        return this;
+    }
+}
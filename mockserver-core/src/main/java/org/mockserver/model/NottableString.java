@@ -34,7 +34,7 @@ public class NottableString extends Not {
     }
 
     public static List<NottableString> strings(Collection<String> values) {
-        List<NottableString> nottableValues = new ArrayList<NottableString>();
+        List<NottableString> nottableValues = new ArrayList<NottableString>(values != null ? values.size() : 0);
         if (values != null && !values.isEmpty()) {
             for (String value : values) {
                 nottableValues.add(string(value));
@@ -60,4 +60,12 @@ public class NottableString extends Not {
         }
         return false;
     }
+
+    /**
+     * Hashes the exact value and 'not' operator, the hash code of the value is cached by String
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (value != null ? value.hashCode() : 0) + (isNot() ? 1 : 0);
+    }
 }
@@ -1,26 +1,22 @@
 package org.mockserver.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * @author jamesdbloom
  */
 public abstract class ObjectWithReflectiveEqualsHashCodeToString {
 
-    @JsonIgnore
-    private String[] fieldsExcludedFromEqualsAndHashCode = new String[]{"logger", "fieldsExcludedFromEqualsAndHashCode"};
+    // shared by every instance that doesn't exclude any other fields, adding fields replaces the array
+    private static final String[] DEFAULT_FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE = new String[]{"fieldsExcludedFromEqualsAndHashCode"};
 
     @JsonIgnore
-    @VisibleForTesting
-    public Logger logger = LoggerFactory.getLogger(this.getClass());
+    private String[] fieldsExcludedFromEqualsAndHashCode = DEFAULT_FIELDS_EXCLUDED_FROM_EQUALS_AND_HASH_CODE;
 
     static {
         ReflectionToStringBuilder.setDefaultStyle(ToStringStyle.SHORT_PREFIX_STYLE);
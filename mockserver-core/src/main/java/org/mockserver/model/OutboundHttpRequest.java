@@ -1,5 +1,6 @@
 package org.mockserver.model;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 import org.mockserver.socket.SSLFactory;
 
@@ -76,4 +77,24 @@ public class OutboundHttpRequest extends HttpRequest {
         super.withSecure(isSsl);
         return this;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!super.equals(other)) {
+            return false;
+        }
+        OutboundHttpRequest that = (OutboundHttpRequest) other;
+        return port == that.port
+                && Objects.equal(hostname, that.hostname)
+                && Objects.equal(contextPath, that.contextPath);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (hostname != null ? hostname.hashCode() : 0);
+        result = 31 * result + port;
+        result = 31 * result + (contextPath != null ? contextPath.hashCode() : 0);
+        return result;
+    }
 }
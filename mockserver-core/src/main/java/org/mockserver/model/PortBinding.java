@@ -10,6 +10,8 @@ import java.util.List;
 public class PortBinding extends ObjectWithJsonToString {
 
     private List<Integer> ports = new ArrayList<Integer>();
+    private MatchCacheStatus matchCache;
+    private DelayHistogramStatus delays;
 
     public static PortBinding portBinding(Integer... ports) {
         return portBinding(Arrays.asList(ports));
@@ -27,4 +29,28 @@ public class PortBinding extends ObjectWithJsonToString {
         this.ports = ports;
         return this;
     }
+
+    /**
+     * The hits and misses of the match cache, null when the match cache isn't enabled
+     */
+    public MatchCacheStatus getMatchCache() {
+        return matchCache;
+    }
+
+    public PortBinding setMatchCache(MatchCacheStatus matchCache) {
+        this.matchCache = matchCache;
+        return this;
+    }
+
+    /**
+     * The distribution of the delays applied to responses and errors, null when no delays have been applied
+     */
+    public DelayHistogramStatus getDelays() {
+        return delays;
+    }
+
+    public PortBinding setDelays(DelayHistogramStatus delays) {
+        this.delays = delays;
+        return this;
+    }
 }
@@ -13,6 +13,7 @@ import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AttributeKey;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.socket.SSLFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -104,7 +105,7 @@ public abstract class PortUnificationHandler extends SimpleChannelInboundHandler
         addLastIfNotPresent(pipeline, new HttpServerCodec());
         addLastIfNotPresent(pipeline, new HttpContentDecompressor());
         addLastIfNotPresent(pipeline, new HttpContentLengthRemover());
-        addLastIfNotPresent(pipeline, new HttpObjectAggregator(Integer.MAX_VALUE));
+        addLastIfNotPresent(pipeline, new HttpObjectAggregator(ConfigurationProperties.maxAggregatedContentLength()));
         if (logger.isDebugEnabled()) {
             addLastIfNotPresent(pipeline, new LoggingHandler());
         }
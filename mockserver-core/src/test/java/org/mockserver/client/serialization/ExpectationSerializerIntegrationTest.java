@@ -583,6 +583,46 @@ public class ExpectationSerializerIntegrationTest {
                 .buildObject(), expectation);
     }
 
+    @Test
+    public void shouldDeserializeDelayDistribution() throws IOException {
+        // given
+        String requestBytes = ("{" + System.getProperty("line.separator") +
+                "    \"httpRequest\": {" + System.getProperty("line.separator") +
+                "        \"path\": \"somePath\"" + System.getProperty("line.separator") +
+                "    }," + System.getProperty("line.separator") +
+                "    \"httpResponse\": {" + System.getProperty("line.separator") +
+                "        \"body\": \"someBody\"," + System.getProperty("line.separator") +
+                "        \"delay\": {" + System.getProperty("line.separator") +
+                "            \"timeUnit\": \"MILLISECONDS\"," + System.getProperty("line.separator") +
+                "            \"distribution\": {" + System.getProperty("line.separator") +
+                "                \"type\": \"PERCENTILES\"," + System.getProperty("line.separator") +
+                "                \"percentiles\": {" + System.getProperty("line.separator") +
+                "                    \"50\": 80," + System.getProperty("line.separator") +
+                "                    \"95\": 200," + System.getProperty("line.separator") +
+                "                    \"99\": 450" + System.getProperty("line.separator") +
+                "                }" + System.getProperty("line.separator") +
+                "            }" + System.getProperty("line.separator") +
+                "        }" + System.getProperty("line.separator") +
+                "    }" + System.getProperty("line.separator") +
+                "}");
+
+        // when
+        Expectation expectation = new ExpectationSerializer().deserialize(requestBytes);
+
+        // then
+        assertEquals(new ExpectationDTO()
+                .setHttpRequest(
+                        new HttpRequestDTO()
+                                .setPath(string("somePath"))
+                )
+                .setHttpResponse(
+                        new HttpResponseDTO()
+                                .setBody(new StringBodyDTO(new StringBody("someBody")))
+                                .setDelay(new DelayDTO(Delay.percentiles(TimeUnit.MILLISECONDS, 80, 200, 450)))
+                )
+                .buildObject(), expectation);
+    }
+
     @Test
     public void shouldDeserializeStringRegexBody() throws IOException {
         // given
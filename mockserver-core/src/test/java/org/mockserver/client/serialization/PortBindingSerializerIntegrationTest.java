@@ -76,4 +76,56 @@ public class PortBindingSerializerIntegrationTest {
                 "  \"ports\" : [ 0, 1080, 0 ]" + System.getProperty("line.separator") +
                 "}", jsonPortBinding);
     }
+
+    @Test
+    public void shouldSerializeAndDeserializeMatchCacheStatus() throws IOException {
+        // when
+        String jsonPortBinding = new PortBindingSerializer().serialize(
+                portBinding(1080).setMatchCache(MatchCacheStatus.matchCacheStatus(10, 2, 1))
+        );
+
+        // then
+        assertEquals("{" + System.getProperty("line.separator") +
+                "  \"ports\" : [ 1080 ]," + System.getProperty("line.separator") +
+                "  \"matchCache\" : {" + System.getProperty("line.separator") +
+                "    \"hits\" : 10," + System.getProperty("line.separator") +
+                "    \"misses\" : 2," + System.getProperty("line.separator") +
+                "    \"size\" : 1" + System.getProperty("line.separator") +
+                "  }" + System.getProperty("line.separator") +
+                "}", jsonPortBinding);
+        assertEquals(portBinding(1080).setMatchCache(MatchCacheStatus.matchCacheStatus(10, 2, 1)), new PortBindingSerializer().deserialize(jsonPortBinding));
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeDelayHistogramStatus() throws IOException {
+        // given
+        DelayHistogramStatus delays = DelayHistogramStatus.delayHistogramStatus()
+                .setCount(100)
+                .setMin(1.0)
+                .setMax(100.0)
+                .setMean(50.5)
+                .setP50(50.0)
+                .setP90(90.0)
+                .setP95(95.0)
+                .setP99(99.0);
+
+        // when
+        String jsonPortBinding = new PortBindingSerializer().serialize(portBinding(1080).setDelays(delays));
+
+        // then
+        assertEquals("{" + System.getProperty("line.separator") +
+                "  \"ports\" : [ 1080 ]," + System.getProperty("line.separator") +
+                "  \"delays\" : {" + System.getProperty("line.separator") +
+                "    \"count\" : 100," + System.getProperty("line.separator") +
+                "    \"min\" : 1.0," + System.getProperty("line.separator") +
+                "    \"max\" : 100.0," + System.getProperty("line.separator") +
+                "    \"mean\" : 50.5," + System.getProperty("line.separator") +
+                "    \"p50\" : 50.0," + System.getProperty("line.separator") +
+                "    \"p90\" : 90.0," + System.getProperty("line.separator") +
+                "    \"p95\" : 95.0," + System.getProperty("line.separator") +
+                "    \"p99\" : 99.0" + System.getProperty("line.separator") +
+                "  }" + System.getProperty("line.separator") +
+                "}", jsonPortBinding);
+        assertEquals(portBinding(1080).setDelays(delays), new PortBindingSerializer().deserialize(jsonPortBinding));
+    }
 }
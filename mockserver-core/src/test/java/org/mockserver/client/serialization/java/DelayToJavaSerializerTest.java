@@ -0,0 +1,50 @@
+package org.mockserver.client.serialization.java;
+
+import org.junit.Test;
+import org.mockserver.model.Delay;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author jamesdbloom
+ */
+public class DelayToJavaSerializerTest {
+
+    @Test
+    public void shouldSerializeFixedDelayAsJava() {
+        assertEquals("new Delay(TimeUnit.SECONDS, 5)",
+                new DelayToJavaSerializer().serializeAsJava(0, new Delay(TimeUnit.SECONDS, 5))
+        );
+    }
+
+    @Test
+    public void shouldSerializeDelayDistributionsAsJava() {
+        assertEquals("Delay.uniform(TimeUnit.MILLISECONDS, 10, 20)",
+                new DelayToJavaSerializer().serializeAsJava(0, Delay.uniform(TimeUnit.MILLISECONDS, 10, 20))
+        );
+        assertEquals("Delay.normal(TimeUnit.MILLISECONDS, 100, 20)",
+                new DelayToJavaSerializer().serializeAsJava(0, Delay.normal(TimeUnit.MILLISECONDS, 100, 20))
+        );
+        assertEquals("Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5)",
+                new DelayToJavaSerializer().serializeAsJava(0, Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5))
+        );
+    }
+
+    @Test
+    public void shouldSerializePercentilesDelayAsJava() {
+        // given
+        Map<Double, Long> percentiles = new LinkedHashMap<Double, Long>();
+        percentiles.put(0.0, 10L);
+        percentiles.put(50.0, 80L);
+        percentiles.put(99.9, 900L);
+
+        // then
+        assertEquals("Delay.percentiles(TimeUnit.MILLISECONDS, ImmutableMap.<Double, Long>builder().put(0.0, 10L).put(50.0, 80L).put(99.9, 900L).build())",
+                new DelayToJavaSerializer().serializeAsJava(0, Delay.percentiles(TimeUnit.MILLISECONDS, percentiles))
+        );
+    }
+}
@@ -2,6 +2,7 @@ package org.mockserver.client.serialization.model;
 
 import org.junit.Test;
 import org.mockserver.model.Delay;
+import org.mockserver.model.DelayDistribution;
 
 import java.util.concurrent.TimeUnit;
 
@@ -45,4 +46,27 @@ public class DelayDTOTest {
         assertThat(delay.getTimeUnit(), is(nullValue()));
         assertThat(delay.getValue(), is(0l));
     }
+
+    @Test
+    public void shouldReturnDistributionSetInConstructor() {
+        // when
+        DelayDTO delay = new DelayDTO(Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5));
+
+        // then
+        assertThat(delay.getTimeUnit(), is(TimeUnit.MILLISECONDS));
+        assertThat(delay.getDistribution().getType(), is(DelayDistribution.Type.LOG_NORMAL));
+        assertThat(delay.getDistribution().getMedian(), is(80l));
+        assertThat(delay.getDistribution().getSigma(), is(0.5));
+        assertThat(delay.getDistribution().getMin(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldBuildObjectWithDistribution() {
+        // then
+        assertThat(new DelayDTO(Delay.uniform(TimeUnit.MILLISECONDS, 10, 20)).buildObject(), is(Delay.uniform(TimeUnit.MILLISECONDS, 10, 20)));
+        assertThat(new DelayDTO(Delay.normal(TimeUnit.MILLISECONDS, 100, 20)).buildObject(), is(Delay.normal(TimeUnit.MILLISECONDS, 100, 20)));
+        assertThat(new DelayDTO(Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5)).buildObject(), is(Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5)));
+        assertThat(new DelayDTO(Delay.percentiles(TimeUnit.MILLISECONDS, 80, 200, 450)).buildObject(), is(Delay.percentiles(TimeUnit.MILLISECONDS, 80, 200, 450)));
+        assertThat(new DelayDTO(new Delay(TimeUnit.MILLISECONDS, 5)).buildObject(), is(new Delay(TimeUnit.MILLISECONDS, 5)));
+    }
 }
@@ -25,6 +25,25 @@ public class HttpResponseSerializerTest {
                 is("{ }"));
     }
 
+    @Test
+    public void shouldReturnFormattedResponseWithDelayDistribution() throws JsonProcessingException {
+        assertThat(ObjectMapperFactory.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(
+                        response()
+                                .withDelay(Delay.logNormal(TimeUnit.MILLISECONDS, 80, 0.5))
+                ),
+                is("{" + System.getProperty("line.separator") +
+                        "  \"delay\" : {" + System.getProperty("line.separator") +
+                        "    \"timeUnit\" : \"MILLISECONDS\"," + System.getProperty("line.separator") +
+                        "    \"value\" : 0," + System.getProperty("line.separator") +
+                        "    \"distribution\" : {" + System.getProperty("line.separator") +
+                        "      \"type\" : \"LOG_NORMAL\"," + System.getProperty("line.separator") +
+                        "      \"median\" : 80," + System.getProperty("line.separator") +
+                        "      \"sigma\" : 0.5" + System.getProperty("line.separator") +
+                        "    }" + System.getProperty("line.separator") +
+                        "  }" + System.getProperty("line.separator") +
+                        "}"));
+    }
+
     @Test
     public void shouldReturnFormattedResponseWithAllFieldsSet() throws JsonProcessingException {
         assertThat(ObjectMapperFactory.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(
@@ -0,0 +1,72 @@
+package org.mockserver.collections;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author jamesdbloom
+ */
+public class AppendOnlyListTest {
+
+    @Test
+    public void shouldAppendValues() {
+        // given
+        AppendOnlyList<String> appendOnlyList = AppendOnlyList.empty();
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            appendOnlyList = appendOnlyList.append(String.valueOf(i));
+        }
+
+        // then
+        assertEquals(20, appendOnlyList.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(String.valueOf(i), appendOnlyList.get(i));
+        }
+    }
+
+    @Test
+    public void shouldNotChangeListWhenAppendedTo() {
+        // given
+        AppendOnlyList<String> appendOnlyList = AppendOnlyList.copyOf(Arrays.asList("1", "2"));
+
+        // when
+        AppendOnlyList<String> appended = appendOnlyList.append("3");
+
+        // then
+        assertEquals(Arrays.asList("1", "2"), appendOnlyList);
+        assertEquals(Arrays.asList("1", "2", "3"), appended);
+    }
+
+    @Test
+    public void shouldNotShareElementsWhenSameListAppendedToTwice() {
+        // given
+        AppendOnlyList<String> appendOnlyList = AppendOnlyList.<String>empty().append("1");
+
+        // when
+        AppendOnlyList<String> first = appendOnlyList.append("2");
+        AppendOnlyList<String> second = appendOnlyList.append("3");
+
+        // then
+        assertEquals(Collections.singletonList("1"), appendOnlyList);
+        assertEquals(Arrays.asList("1", "2"), first);
+        assertEquals(Arrays.asList("1", "3"), second);
+        assertEquals(Arrays.asList("1", "2", "4"), first.append("4"));
+        assertEquals(Arrays.asList("1", "3", "5"), second.append("5"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotReadElementsAppendedToLaterList() {
+        // given
+        AppendOnlyList<String> appendOnlyList = AppendOnlyList.<String>empty().append("1");
+        assertTrue(appendOnlyList.append("2").contains("2"));
+
+        // then
+        appendOnlyList.get(1);
+    }
+}
@@ -0,0 +1,107 @@
+package org.mockserver.collections;
+
+import org.junit.Test;
+import org.mockserver.model.NottableString;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockserver.collections.CaseInsensitiveRegexHashMap.hashMap;
+import static org.mockserver.collections.CaseInsensitiveRegexMultiMap.multiMap;
+import static org.mockserver.model.NottableString.not;
+import static org.mockserver.model.NottableString.string;
+
+/**
+ * @author jamesdbloom
+ */
+public class CaseInsensitiveKeyValueIndexTest {
+
+    private boolean containsAll(CaseInsensitiveRegexMultiMap matched, CaseInsensitiveRegexMultiMap matcher) {
+        boolean result = CaseInsensitiveKeyValueIndex.index(matched).containsAll(matcher);
+        // index must always agree with the multimap it replaces
+        assertThat(result, is(matched.containsAll(matcher)));
+        return result;
+    }
+
+    @Test
+    public void shouldOnlyIndexLiteralKeys() {
+        assertThat(CaseInsensitiveKeyValueIndex.isIndexable(string("Content-Type")), is(true));
+        assertThat(CaseInsensitiveKeyValueIndex.isIndexable(string("Content.*")), is(false));
+        assertThat(CaseInsensitiveKeyValueIndex.isIndexable(not("Content-Type")), is(false));
+        assertThat(CaseInsensitiveKeyValueIndex.isIndexable(string("")), is(false));
+        assertThat(CaseInsensitiveKeyValueIndex.isIndexable(string("Ünicode")), is(false));
+    }
+
+    @Test
+    public void shouldFindLiteralKeyIgnoringCase() {
+        // given
+        CaseInsensitiveRegexMultiMap matched = multiMap(
+                new String[]{"Content-Type", "application/json"},
+                new String[]{"Accept", "text/html", "application/json"}
+        );
+
+        // then
+        assertThat(containsAll(matched, multiMap(new String[]{"content-type", "application/json"})), is(true));
+        assertThat(containsAll(matched, multiMap(new String[]{"ACCEPT", "application/json"})), is(true));
+        assertThat(containsAll(matched, multiMap(new String[]{"accept", "text/xml"})), is(false));
+        assertThat(containsAll(matched, multiMap(new String[]{"host", "localhost"})), is(false));
+    }
+
+    @Test
+    public void shouldMatchRegexKeysInMatcher() {
+        // given
+        CaseInsensitiveRegexMultiMap matched = multiMap(
+                new String[]{"X-Request-Id", "12345"},
+                new String[]{"Accept", "text/html"}
+        );
+
+        // then
+        assertThat(containsAll(matched, multiMap(new String[]{"x-request-.*", "[0-9]+"})), is(true));
+        assertThat(containsAll(matched, multiMap(new String[]{"x-correlation-.*", "[0-9]+"})), is(false));
+    }
+
+    @Test
+    public void shouldMatchRegexKeysInMatched() {
+        // given
+        CaseInsensitiveRegexMultiMap matched = multiMap(
+                new String[]{"X-Request-.*", "[0-9]+"}
+        );
+
+        // then
+        assertThat(containsAll(matched, multiMap(new String[]{"x-request-id", "12345"})), is(true));
+        assertThat(containsAll(matched, multiMap(new String[]{"x-request-id", "abc"})), is(false));
+    }
+
+    @Test
+    public void shouldApplyNottedKeysAndValues() {
+        // given
+        CaseInsensitiveRegexMultiMap matched = multiMap(
+                new String[]{"Accept", "text/html"}
+        );
+
+        // then
+        assertThat(containsAll(matched, multiMap(new NottableString[]{not("accept"), string("text/html")})), is(false));
+        assertThat(containsAll(matched, multiMap(new NottableString[]{string("accept"), not("text/html")})), is(false));
+        assertThat(containsAll(matched, multiMap(new NottableString[]{not("host"), string("localhost")})), is(false));
+        assertThat(containsAll(matched, multiMap(new NottableString[]{not("host"), string(".*")})), is(true));
+        assertThat(containsAll(new CaseInsensitiveRegexMultiMap(), multiMap(new NottableString[]{not("host"), string("localhost")})), is(true));
+    }
+
+    @Test
+    public void shouldIndexHashMap() {
+        // given
+        CaseInsensitiveRegexHashMap matched = hashMap(
+                new String[]{"session", "abc"},
+                new String[]{"theme", "dark"}
+        );
+        CaseInsensitiveRegexHashMap matcher = hashMap(
+                new String[]{"SESSION", "a.c"}
+        );
+
+        // when
+        boolean result = CaseInsensitiveKeyValueIndex.index(matched).containsAll(matcher);
+
+        // then
+        assertThat(result, is(true));
+        assertThat(result, is(matched.containsAll(matcher)));
+    }
+}
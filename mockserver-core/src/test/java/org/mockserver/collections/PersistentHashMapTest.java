@@ -0,0 +1,87 @@
+package org.mockserver.collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author jamesdbloom
+ */
+public class PersistentHashMapTest {
+
+    @Test
+    public void shouldPutAndGetEntries() {
+        // given
+        PersistentHashMap<String, Integer> persistentHashMap = PersistentHashMap.empty();
+
+        // when
+        for (int i = 0; i < 5000; i++) {
+            persistentHashMap = persistentHashMap.put("key_" + i, i);
+        }
+
+        // then
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), persistentHashMap.get("key_" + i));
+        }
+        assertNull(persistentHashMap.get("key_5000"));
+    }
+
+    @Test
+    public void shouldNotChangeMapWhenPutOrRemoved() {
+        // given
+        PersistentHashMap<String, String> persistentHashMap = PersistentHashMap.<String, String>empty().put("one", "1").put("two", "2");
+
+        // when
+        PersistentHashMap<String, String> replaced = persistentHashMap.put("one", "one");
+        PersistentHashMap<String, String> removed = persistentHashMap.remove("two");
+
+        // then
+        assertEquals("1", persistentHashMap.get("one"));
+        assertEquals("2", persistentHashMap.get("two"));
+        assertEquals("one", replaced.get("one"));
+        assertEquals("1", removed.get("one"));
+        assertNull(removed.get("two"));
+    }
+
+    @Test
+    public void shouldReturnSameMapWhenUnchanged() {
+        // given
+        PersistentHashMap<String, String> persistentHashMap = PersistentHashMap.<String, String>empty().put("one", "1");
+
+        // then
+        assertSame(persistentHashMap, persistentHashMap.put("one", "1"));
+        assertSame(persistentHashMap, persistentHashMap.remove("two"));
+    }
+
+    @Test
+    public void shouldBeEmptyWhenAllEntriesRemoved() {
+        // given
+        PersistentHashMap<Integer, String> persistentHashMap = PersistentHashMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            persistentHashMap = persistentHashMap.put(i, String.valueOf(i));
+        }
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(persistentHashMap.isEmpty());
+            persistentHashMap = persistentHashMap.remove(i);
+            assertNull(persistentHashMap.get(i));
+        }
+
+        // then
+        assertTrue(persistentHashMap.isEmpty());
+    }
+
+    @Test
+    public void shouldHoldKeysWithSameHash() {
+        // given - "Aa" and "BB" have the same hash code
+        PersistentHashMap<String, String> persistentHashMap = PersistentHashMap.<String, String>empty().put("Aa", "1").put("BB", "2");
+
+        // then
+        assertEquals("1", persistentHashMap.get("Aa"));
+        assertEquals("2", persistentHashMap.get("BB"));
+        assertNull(persistentHashMap.remove("Aa").get("Aa"));
+        assertEquals("2", persistentHashMap.remove("Aa").get("BB"));
+        assertTrue(persistentHashMap.remove("Aa").remove("BB").isEmpty());
+    }
+}
@@ -65,6 +65,71 @@ public class ConfigurationPropertiesTest {
         assertEquals(TimeUnit.SECONDS.toMillis(ConfigurationProperties.DEFAULT_MAX_TIMEOUT), ConfigurationProperties.maxSocketTimeout());
     }
 
+    @Test
+    public void shouldSetAndReadMatchCacheSize() {
+        // given
+        System.clearProperty("mockserver.matchCacheSize");
+
+        // when
+        assertEquals(ConfigurationProperties.DEFAULT_MATCH_CACHE_SIZE, ConfigurationProperties.matchCacheSize());
+        ConfigurationProperties.matchCacheSize(500);
+
+        // then
+        assertEquals(500, ConfigurationProperties.matchCacheSize());
+    }
+
+    @Test
+    public void shouldSetAndReadParallelMatchingThreshold() {
+        // given
+        System.clearProperty("mockserver.parallelMatchingThreshold");
+
+        // when
+        assertEquals(ConfigurationProperties.DEFAULT_PARALLEL_MATCHING_THRESHOLD, ConfigurationProperties.parallelMatchingThreshold());
+        ConfigurationProperties.parallelMatchingThreshold(50000);
+
+        // then
+        assertEquals(50000, ConfigurationProperties.parallelMatchingThreshold());
+    }
+
+    @Test
+    public void shouldSetAndReadMaxAggregatedContentLength() {
+        // given
+        System.clearProperty("mockserver.maxAggregatedContentLength");
+
+        // when
+        assertEquals(ConfigurationProperties.DEFAULT_MAX_AGGREGATED_CONTENT_LENGTH, ConfigurationProperties.maxAggregatedContentLength());
+        ConfigurationProperties.maxAggregatedContentLength(1024 * 1024);
+
+        // then
+        assertEquals(1024 * 1024, ConfigurationProperties.maxAggregatedContentLength());
+    }
+
+    @Test
+    public void shouldSetAndReadStreamingBodyThreshold() {
+        // given
+        System.clearProperty("mockserver.streamingBodyThreshold");
+
+        // when
+        assertEquals(ConfigurationProperties.DEFAULT_STREAMING_BODY_THRESHOLD, ConfigurationProperties.streamingBodyThreshold());
+        ConfigurationProperties.streamingBodyThreshold(64 * 1024);
+
+        // then
+        assertEquals(64 * 1024, ConfigurationProperties.streamingBodyThreshold());
+    }
+
+    @Test
+    public void shouldSetAndReadMaxPreEncodedResponseBytes() {
+        // given
+        System.clearProperty("mockserver.maxPreEncodedResponseBytes");
+
+        // when
+        assertEquals(ConfigurationProperties.DEFAULT_MAX_PRE_ENCODED_RESPONSE_BYTES, ConfigurationProperties.maxPreEncodedResponseBytes());
+        ConfigurationProperties.maxPreEncodedResponseBytes(1024 * 1024);
+
+        // then
+        assertEquals(1024 * 1024, ConfigurationProperties.maxPreEncodedResponseBytes());
+    }
+
     @Test
     public void shouldSetAndReadJavaKeyStoreFilePath() {
         // given
@@ -0,0 +1,83 @@
+package org.mockserver.matchers;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author jamesdbloom
+ */
+public class CanonicalXmlComparatorTest {
+
+    @Test
+    public void shouldMatchIgnoringWhitespaceBetweenElements() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("" +
+                "<element>\n" +
+                "    <key>some_key</key>\n" +
+                "    <value>some_value</value>\n" +
+                "</element>");
+
+        // then
+        assertThat(comparator.compare("<element><key>some_key</key><value>some_value</value></element>"), nullValue());
+        assertThat(comparator.compare("<?xml version=\"1.0\" encoding=\"UTF-8\"?><element>  <key>some_key</key>\t<value>some_value</value></element>"), nullValue());
+    }
+
+    @Test
+    public void shouldMatchIgnoringAttributeAndNamespaceOrder() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("<p:element xmlns:p=\"urn:p\" xmlns=\"urn:default\" two=\"2\" one=\"1\"><p:key/></p:element>");
+
+        // then
+        assertThat(comparator.compare("<p:element one=\"1\" xmlns=\"urn:default\" two=\"2\" xmlns:p=\"urn:p\"><p:key></p:key></p:element>"), nullValue());
+        assertThat(comparator.compare("<q:element one=\"1\" xmlns=\"urn:default\" two=\"2\" xmlns:q=\"urn:p\"><q:key></q:key></q:element>"), is("expected [<p:element one=\"1\" two=\"2\" xmlns:p=\"urn:p\" xmlns=\"urn:default\">] but found [<q:element one=\"1\" two=\"2\" xmlns:q=\"urn:p\" xmlns=\"urn:default\">]"));
+    }
+
+    @Test
+    public void shouldMatchCDataAsText() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("<element>a &lt;b&gt; c</element>");
+
+        // then
+        assertThat(comparator.compare("<element><![CDATA[a <b> c]]></element>"), nullValue());
+        assertThat(comparator.compare("<element>a <![CDATA[<b>]]> c</element>"), nullValue());
+    }
+
+    @Test
+    public void shouldNotIgnoreWhitespaceInText() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("<element>some value</element>");
+
+        // then
+        assertThat(comparator.compare("<element>some  value</element>"), is("expected [#some value\u0000</element>] but found [#some  value\u0000</element>]"));
+    }
+
+    @Test
+    public void shouldStopAtFirstDifference() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("<element><key>some_key</key><value>some_value</value></element>");
+
+        // then - the illegal xml after the difference is never parsed
+        assertThat(comparator.compare("<element><key>some_other_key</key><value>some_value</illegal>"), is("expected [#some_key\u0000</key>] but found [#some_other_key\u0000</key>]"));
+    }
+
+    @Test
+    public void shouldNotMatchExtraContent() throws XMLStreamException {
+        // given
+        CanonicalXmlComparator comparator = new CanonicalXmlComparator("<element><key>some_key</key></element>");
+
+        // then
+        assertThat(comparator.compare("<element><key>some_key</key><value>some_value</value></element>"), is("expected [</element>] but found [<value>]"));
+        assertThat(comparator.compare("<element><key>some_key</key></element><!-- comment -->"), is("expected end of document but found [<!-- comment -->]"));
+        assertThat(comparator.compare("<element/>"), is("expected [<key>] but found [</element>]"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void shouldThrowExceptionForIllegalXml() throws XMLStreamException {
+        new CanonicalXmlComparator("<element><key>some_key</key></element>").compare("<element><key>some_key</element>");
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.Test;
 import org.mockserver.client.serialization.model.*;
 import org.mockserver.model.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -716,6 +719,63 @@ public class HttpRequestMatcherTest {
         assertFalse(new HttpRequestMatcher(new HttpRequest().withCookies(new Cookie("name", "[A-Z]{0,10}"))).matches(new HttpRequest().withCookies(new Cookie("name", "value1"))));
     }
 
+    @Test
+    public void matchesMatchingPathTemplate() {
+        // given
+        MatchContext matchContext = new MatchContext(new HttpRequest().withMethod("GET").withPath("/users/123/orders/abc"));
+
+        // then
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withPath("/users/{id}/orders/{orderId}")).matches(matchContext, false));
+        assertEquals("123", matchContext.getPathParameters().get("id"));
+        assertEquals("abc", matchContext.getPathParameters().get("orderId"));
+        assertFalse(new HttpRequestMatcher(new HttpRequest().withPath("/users/{id}/basket")).matches(matchContext, false));
+        assertTrue(matchContext.getPathParameters().isEmpty());
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withPath(NottableString.not("/users/{id}/basket"))).matches(matchContext, false));
+        assertFalse(new HttpRequestMatcher(new HttpRequest().withPath(NottableString.not("/users/{id}/orders/{orderId}"))).matches(matchContext, false));
+    }
+
+    @Test
+    public void matchesPathTemplateAsString() {
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withPath("/users/{id}")).matches(new HttpRequest().withPath("/users/{id}")));
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withPath("/users/.*")).matches(new HttpRequest().withPath("/users/{id}")));
+    }
+
+    @Test
+    public void shouldNotMatchBodyWhenCheaperFieldDoesNotMatch() {
+        // given
+        final List<String> bodyReads = new ArrayList<String>();
+        MatchContext matchContext = new MatchContext(new HttpRequest().withMethod("GET").withPath("/some/path").withBody("<element><key>some_key</key></element>")) {
+            @Override
+            public String getBodyAsString() {
+                bodyReads.add("body");
+                return super.getBodyAsString();
+            }
+        };
+
+        // then - method doesn't match
+        assertFalse(new HttpRequestMatcher(new HttpRequest().withMethod("POST").withBody(xpath("/element[key = 'some_key']"))).matches(matchContext, false));
+        // and - path doesn't match
+        assertFalse(new HttpRequestMatcher(new HttpRequest().withPath("/some/other/path").withBody(xpath("/element[key = 'some_key']"))).matches(matchContext, false));
+        // and - header doesn't match
+        assertFalse(new HttpRequestMatcher(new HttpRequest().withHeaders(new Header("name", "value")).withBody(xpath("/element[key = 'some_key']"))).matches(matchContext, false));
+        assertTrue(bodyReads.isEmpty());
+
+        // and - everything else matches so body is matched
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withMethod("GET").withPath("/some/path").withBody(xpath("/element[key = 'some_key']"))).matches(matchContext, false));
+        assertFalse(bodyReads.isEmpty());
+    }
+
+    @Test
+    public void shouldApplyNotOperatorsWhenCheaperFieldDoesNotMatch() {
+        // given
+        MatchContext matchContext = new MatchContext(new HttpRequest().withMethod("GET").withBody("some_body"));
+
+        // then
+        assertTrue(new HttpRequestMatcher(org.mockserver.model.Not.not(new HttpRequest().withMethod("POST").withBody(exact("some_body")))).matches(matchContext, false));
+        assertTrue(not(new HttpRequestMatcher(new HttpRequest().withMethod("POST").withBody(exact("some_body")))).matches(matchContext, false));
+        assertTrue(new HttpRequestMatcher(new HttpRequest().withMethod("POST").withBody(exact("some_body"))).matches(new MatchContext(org.mockserver.model.Not.not(new HttpRequest().withMethod("GET").withBody("some_body"))), false));
+    }
+
     @Test
     public void shouldReturnFormattedRequestWithStringBodyInToString() {
         assertEquals("{" + System.getProperty("line.separator") +
@@ -746,4 +806,33 @@ public class HttpRequestMatcherTest {
                 ).toString()
         );
     }
+
+    @Test
+    public void shouldBeEqualWhenMatchingEqualRequests() {
+        // given
+        HttpRequestMatcher httpRequestMatcher = new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path").withHeaders(new Header("name", "value")).withBody("some_body"));
+        HttpRequestMatcher sameHttpRequestMatcher = new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path").withHeaders(new Header("name", "value")).withBody("some_body"));
+
+        // then
+        assertEquals(httpRequestMatcher, sameHttpRequestMatcher);
+        assertEquals(httpRequestMatcher.hashCode(), sameHttpRequestMatcher.hashCode());
+        assertFalse(httpRequestMatcher.equals(new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path").withHeaders(new Header("name", "value")).withBody("other_body"))));
+        assertFalse(httpRequestMatcher.equals(not(new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path").withHeaders(new Header("name", "value")).withBody("some_body")))));
+    }
+
+    @Test
+    public void shouldKeepHashCodeConsistentWithEqualsWhenChangedToNotMatcher() {
+        // given
+        HttpRequestMatcher httpRequestMatcher = new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path"));
+        HttpRequestMatcher notHttpRequestMatcher = not(new HttpRequestMatcher(request().withMethod("GET").withPath("/some/path")));
+        int hashCodeBeforeNot = httpRequestMatcher.hashCode();
+
+        // when
+        not(httpRequestMatcher);
+
+        // then
+        assertEquals(notHttpRequestMatcher, httpRequestMatcher);
+        assertEquals(notHttpRequestMatcher.hashCode(), httpRequestMatcher.hashCode());
+        assertFalse(hashCodeBeforeNot == httpRequestMatcher.hashCode());
+    }
 }
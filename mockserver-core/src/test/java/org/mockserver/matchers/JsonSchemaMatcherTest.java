@@ -1,22 +1,27 @@
 package org.mockserver.matchers;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mock;
-import org.slf4j.Logger;
+import org.mockserver.model.HttpRequest;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.MockitoAnnotations.initMocks;
 
 /**
  * @author jamesdbloom
  */
 public class JsonSchemaMatcherTest {
 
-    @Mock
-    protected Logger logger;
+    private final Logger logger = (Logger) LoggerFactory.getLogger(JsonSchemaMatcher.class);
+    private final ListAppender<ILoggingEvent> loggedEvents = new ListAppender<ILoggingEvent>();
+    private Level originalLevel;
 
     public static final String JSON_SCHEMA = "{\n" +
             "    \"type\": \"object\",\n" +
@@ -57,8 +62,33 @@ public class JsonSchemaMatcherTest {
             "}";
 
     @Before
-    public void createMocks() {
-        initMocks(this);
+    public void captureLoggedEvents() {
+        originalLevel = logger.getLevel();
+        logger.setLevel(Level.TRACE);
+        loggedEvents.start();
+        logger.addAppender(loggedEvents);
+    }
+
+    @After
+    public void stopCapturingLoggedEvents() {
+        logger.detachAppender(loggedEvents);
+        logger.setLevel(originalLevel);
+    }
+
+    /**
+     * Only the events logged after this is called are verified, i.e. not those logged while creating the matcher
+     */
+    private void clearLoggedEvents() {
+        loggedEvents.list.clear();
+    }
+
+    private void verifyTrace(String message, Object... arguments) {
+        for (ILoggingEvent loggedEvent : loggedEvents.list) {
+            if (loggedEvent.getLevel() == Level.TRACE && loggedEvent.getMessage().equals(message) && Arrays.equals(loggedEvent.getArgumentArray(), arguments)) {
+                return;
+            }
+        }
+        fail("Expected trace \"" + message + "\" with " + Arrays.toString(arguments) + " but logged " + loggedEvents.list);
     }
 
     @Test
@@ -66,17 +96,43 @@ public class JsonSchemaMatcherTest {
         assertTrue(new JsonSchemaMatcher(JSON_SCHEMA).matches("{arrayField: [ \"one\" ], enumField: \"one\"}"));
     }
 
+    @Test
+    public void shouldMatchBodyInMatchContextWithCompiledSchema() {
+        // given
+        JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
+
+        // then - the compiled schema is reused for every request
+        assertTrue(jsonSchemaMatcher.matchesBody(new MatchContext(new HttpRequest().withBody("{arrayField: [ \"one\" ], enumField: \"one\"}"))));
+        assertFalse(jsonSchemaMatcher.matchesBody(new MatchContext(new HttpRequest().withBody("{arrayField: [ \"one\" ], enumField: \"four\"}"))));
+        assertFalse(jsonSchemaMatcher.matchesBody(new MatchContext(new HttpRequest().withBody("illegal_json"))));
+        assertTrue(jsonSchemaMatcher.matchesBody(new MatchContext(new HttpRequest().withBody("{arrayField: [ \"two\" ], enumField: \"two\"}"))));
+    }
+
+    @Test
+    public void shouldNotMatchBodyInMatchContextWithIllegalSchema() {
+        // given
+        JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher("illegal_json");
+        clearLoggedEvents();
+
+        // then
+        assertFalse(jsonSchemaMatcher.matchesBody(new MatchContext(new HttpRequest().withBody("{arrayField: [ \"one\" ], enumField: \"one\"}"))));
+
+        // and
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "{arrayField: [ \"one\" ], enumField: \"one\"}", "illegal_json", "Unrecognized token 'illegal_json': was expecting ('true', 'false' or 'null')\n" +
+                " at [Source: illegal_json; line: 1, column: 25]");
+    }
+
     @Test
     public void shouldNotMatchJsonMissingRequiredFields() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with schema \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with schema \"{}\" because {}",
                 "{}",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -133,13 +189,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonTooFewItems() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ ],         enumField: \\\"one\\\"}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ ],         enumField: \\\"one\\\"}",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -186,13 +242,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonTooLongString() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", stringField: \\\"1234567\\\"}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", stringField: \\\"1234567\\\"}",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -239,13 +295,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonIncorrectEnum() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ \\\"one\\\" ], enumField: \\\"four\\\"}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "{arrayField: [ \\\"one\\\" ], enumField: \\\"four\\\"}", "{\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "{arrayField: [ \\\"one\\\" ], enumField: \\\"four\\\"}", "{\n" +
                         "    \"type\": \"object\",\n" +
                         "    \"properties\": {\n" +
                         "        \"enumField\": {\n" +
@@ -290,13 +346,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonExtraField() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", extra: \\\"field\\\"}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", extra: \\\"field\\\"}",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -344,13 +400,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonIncorrectSubField() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", objectField: {stringField: \\\"1234\\\"} }"));
 
         // and
-        verify(logger).trace(
+        verifyTrace(
                 "Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", objectField: {stringField: \\\"1234\\\"} }",
                 "{\n" +
@@ -399,13 +455,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonMissingSubField() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", objectField: { } }"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ \\\"one\\\" ], enumField: \\\"one\\\", objectField: { } }",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -453,13 +509,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchJsonMultipleErrors() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(JSON_SCHEMA);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("{arrayField: [ ],  stringField: \\\"1234\\\"}"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}",
                 "{arrayField: [ ],  stringField: \\\"1234\\\"}",
                 "{\n" +
                         "    \"type\": \"object\",\n" +
@@ -506,20 +562,20 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchIllegalJson() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher("illegal_json");
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("illegal_json"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "illegal_json", "illegal_json", "Unrecognized token 'illegal_json': was expecting ('true', 'false' or 'null')\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "illegal_json", "illegal_json", "Unrecognized token 'illegal_json': was expecting ('true', 'false' or 'null')\n" +
                 " at [Source: illegal_json; line: 1, column: 25]");
 
         // and
         assertFalse(jsonSchemaMatcher.matches("some_other_illegal_json"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "some_other_illegal_json", "illegal_json", "Unrecognized token 'illegal_json': was expecting ('true', 'false' or 'null')\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "some_other_illegal_json", "illegal_json", "Unrecognized token 'illegal_json': was expecting ('true', 'false' or 'null')\n" +
                 " at [Source: illegal_json; line: 1, column: 25]");
     }
 
@@ -527,26 +583,26 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchNullExpectation() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher(null);
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
-        assertFalse(new JsonSchemaMatcher(null).matches("some_value"));
+        assertFalse(jsonSchemaMatcher.matches("some_value"));
 
         // and
-        verifyNoMoreInteractions(logger);
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "some_value", null, "schema is null");
     }
 
     @Test
     public void shouldNotMatchEmptyExpectation() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher("");
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches("some_value"));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "some_value", "", "No content to map due to end-of-input\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "some_value", "", "No content to map due to end-of-input\n" +
                 " at [Source: ; line: 1, column: 1]");
     }
 
@@ -554,13 +610,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchNullTest() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher("some_value");
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches(null));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", null, "some_value", "Unrecognized token 'some_value': was expecting ('true', 'false' or 'null')\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", null, "some_value", "Unrecognized token 'some_value': was expecting ('true', 'false' or 'null')\n" +
                 " at [Source: some_value; line: 1, column: 21]");
     }
 
@@ -568,13 +624,13 @@ public class JsonSchemaMatcherTest {
     public void shouldNotMatchEmptyTest() {
         // given
         JsonSchemaMatcher jsonSchemaMatcher = new JsonSchemaMatcher("some_value");
-        jsonSchemaMatcher.logger = logger;
+        clearLoggedEvents();
 
         // then
         assertFalse(jsonSchemaMatcher.matches(""));
 
         // and
-        verify(logger).trace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "", "some_value", "Unrecognized token 'some_value': was expecting ('true', 'false' or 'null')\n" +
+        verifyTrace("Failed to perform JSON match \"{}\" with \"{}\" because {}", "", "some_value", "Unrecognized token 'some_value': was expecting ('true', 'false' or 'null')\n" +
                 " at [Source: some_value; line: 1, column: 21]");
     }
 
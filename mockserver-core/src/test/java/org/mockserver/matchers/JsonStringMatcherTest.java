@@ -1,6 +1,7 @@
 package org.mockserver.matchers;
 
 import org.junit.Test;
+import org.mockserver.model.HttpRequest;
 
 import static org.junit.Assert.*;
 import static org.mockserver.matchers.NotMatcher.not;
@@ -563,6 +564,49 @@ public class JsonStringMatcherTest {
                 "}", MatchType.ONLY_MATCHING_FIELDS).matches(matched));
     }
 
+    @Test
+    public void shouldMatchNumbersByValue() {
+        assertTrue(new JsonStringMatcher("{id:1}", MatchType.STRICT).matches("{\"id\":1.0}"));
+        assertFalse(new JsonStringMatcher("{id:1}", MatchType.STRICT).matches("{\"id\":1.5}"));
+        assertFalse(new JsonStringMatcher("{id:1}", MatchType.ONLY_MATCHING_FIELDS).matches("{\"id\":\"1\"}"));
+    }
+
+    @Test
+    public void shouldNotMatchArraysOfDifferentLength() {
+        assertFalse(new JsonStringMatcher("{pets:[\"dog\",\"cat\"]}", MatchType.ONLY_MATCHING_FIELDS).matches("{pets:[\"dog\",\"cat\",\"fish\"]}"));
+    }
+
+    @Test
+    public void shouldMatchArrayOfObjectsInAnyOrderWhenFirstMatchIsNotUnique() {
+        // given
+        String matched = "{items:[{sku:\"abc\",quantity:2},{sku:\"abc\"}]}";
+
+        // then - the first expected element matches both actual elements, so must not take the only match of the second
+        assertTrue(new JsonStringMatcher("{items:[{sku:\"abc\"},{quantity:2}]}", MatchType.ONLY_MATCHING_FIELDS).matches(matched));
+        assertFalse(new JsonStringMatcher("{items:[{quantity:2},{quantity:2}]}", MatchType.ONLY_MATCHING_FIELDS).matches(matched));
+    }
+
+    @Test
+    public void shouldNotMatchExtraNestedFieldWhenStrict() {
+        // given
+        String matched = "{id:1,customer:{name:\"bob\",age:42}}";
+
+        // then
+        assertTrue(new JsonStringMatcher("{id:1,customer:{name:\"bob\"}}", MatchType.ONLY_MATCHING_FIELDS).matches(matched));
+        assertFalse(new JsonStringMatcher("{id:1,customer:{name:\"bob\"}}", MatchType.STRICT).matches(matched));
+    }
+
+    @Test
+    public void shouldMatchBodyInMatchContext() {
+        // given
+        MatchContext matchContext = new MatchContext(new HttpRequest().withBody("{id:1,pets:[\"dog\",\"cat\"]}"));
+
+        // then
+        assertTrue(new JsonStringMatcher("{pets:[\"cat\",\"dog\"]}", MatchType.ONLY_MATCHING_FIELDS).matchesBody(matchContext));
+        assertFalse(new JsonStringMatcher("{pets:[\"cat\",\"dog\"]}", MatchType.STRICT).matchesBody(matchContext));
+        assertTrue(not(new JsonStringMatcher("{pets:[\"cat\",\"dog\"]}", MatchType.STRICT)).matchesBody(matchContext));
+    }
+
     @Test
     public void shouldNotMatchNullTest() {
         assertFalse(new JsonStringMatcher("some_value", MatchType.ONLY_MATCHING_FIELDS).matches(null));
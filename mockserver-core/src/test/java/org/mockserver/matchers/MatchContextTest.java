@@ -0,0 +1,160 @@
+package org.mockserver.matchers;
+
+import org.junit.Test;
+import org.mockserver.client.serialization.model.JsonBodyDTO;
+import org.mockserver.model.*;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.Parameter.param;
+
+/**
+ * @author jamesdbloom
+ */
+public class MatchContextTest {
+
+    @Test
+    public void shouldDecodeBodyAsString() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("some_body"));
+
+        // then
+        assertThat(matchContext.getBodyAsString(), is("some_body"));
+        assertThat(matchContext.getBodyAsString(), sameInstance(matchContext.getBodyAsString()));
+    }
+
+    @Test
+    public void shouldHandleRequestWithoutBody() {
+        // when
+        MatchContext matchContext = new MatchContext(request());
+
+        // then
+        assertThat(matchContext.getBodyAsString(), is(""));
+        assertThat(matchContext.getBodyAsRawBytes(), is(new byte[0]));
+        assertThat(matchContext.getBodyAsBodyDTO(), nullValue());
+        assertThat(matchContext.getBodyAsJsonNode(), nullValue());
+        assertThat(matchContext.getBodyAsXmlDocument(), nullValue());
+    }
+
+    @Test
+    public void shouldHandleNullRequest() {
+        // when
+        MatchContext matchContext = new MatchContext(null);
+
+        // then
+        assertThat(matchContext.getHttpRequest(), nullValue());
+        assertThat(matchContext.getBodyAsString(), is(""));
+        assertThat(matchContext.getBodyAsRawBytes(), is(new byte[0]));
+    }
+
+    @Test
+    public void shouldParseBodyAsBodyDTOOnlyOnce() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("{ \"type\": \"JSON\", \"json\": \"{ \\\"some_field\\\": \\\"some_value\\\" }\" }"));
+
+        // then
+        assertThat(matchContext.getBodyAsBodyDTO(), instanceOf(JsonBodyDTO.class));
+        assertThat(matchContext.getBodyAsBodyDTO(), sameInstance(matchContext.getBodyAsBodyDTO()));
+    }
+
+    @Test
+    public void shouldNotParseBodyThatIsNotJsonObjectAsBodyDTO() {
+        assertThat(new MatchContext(request().withBody("some_body")).getBodyAsBodyDTO(), nullValue());
+        assertThat(new MatchContext(request().withBody("<element>some_value</element>")).getBodyAsBodyDTO(), nullValue());
+        assertThat(new MatchContext(request().withBody("{ \"some_field\": \"some_value\" }")).getBodyAsBodyDTO(), nullValue());
+    }
+
+    @Test
+    public void shouldParseBodyAsJsonOnlyOnce() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("{ \"some_field\": \"some_value\" }"));
+
+        // then
+        assertThat(matchContext.getBodyAsJsonNode().get("some_field").asText(), is("some_value"));
+        assertThat(matchContext.getBodyAsJsonNode(), sameInstance(matchContext.getBodyAsJsonNode()));
+    }
+
+    @Test
+    public void shouldReturnNullForIllegalJson() {
+        assertThat(new MatchContext(request().withBody("{ illegal_json")).getBodyAsJsonNode(), nullValue());
+    }
+
+    @Test
+    public void shouldParseBodyAsXmlOnlyOnce() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("<element><key>some_key</key></element>"));
+
+        // then
+        assertThat(matchContext.getBodyAsXmlDocument().getDocumentElement().getNodeName(), is("element"));
+        assertThat(matchContext.getBodyAsXmlDocument(), sameInstance(matchContext.getBodyAsXmlDocument()));
+    }
+
+    @Test
+    public void shouldReturnNullForIllegalXml() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("<element>illegal_xml"));
+
+        // then
+        assertThat(matchContext.getBodyAsXmlDocument(), nullValue());
+    }
+
+    @Test
+    public void shouldParseBodyAsParametersOnlyOnce() {
+        // when
+        MatchContext matchContext = new MatchContext(request().withBody("parameterOne=valueOne_One&parameterOne=valueOne_Two&parameterTwo=valueTwo"));
+
+        // then
+        assertThat(matchContext.getBodyAsParameters(), containsInAnyOrder(
+                (KeyToMultiValue) param("parameterOne", "valueOne_One", "valueOne_Two"),
+                param("parameterTwo", "valueTwo")
+        ));
+        assertThat(matchContext.getBodyAsParameters(), sameInstance(matchContext.getBodyAsParameters()));
+    }
+
+    @Test
+    public void shouldMatchSameContextAgainstMultipleBodyMatchers() {
+        // given
+        MatchContext matchContext = new MatchContext(request().withBody("<element><key>some_key</key></element>"));
+
+        // then
+        assertThat(new XPathStringMatcher("/element[key = 'some_key']").matchesBody(matchContext), is(true));
+        assertThat(new XPathStringMatcher("/element[key = 'some_other_key']").matchesBody(matchContext), is(false));
+        assertThat(new XmlStringMatcher("<element><key>some_key</key></element>").matchesBody(matchContext), is(true));
+        assertThat(new XmlStringMatcher("<element><key>some_other_key</key></element>").matchesBody(matchContext), is(false));
+        assertThat(NotMatcher.not(new XPathStringMatcher("/element[key = 'some_other_key']")).matchesBody(matchContext), is(true));
+    }
+
+    @Test
+    public void shouldShareParsedBodyAndConditionResultsWithConcurrentCopy() {
+        // given
+        MatchContext matchContext = new MatchContext(request().withBody("{ \"some_field\": \"some_value\" }"));
+        SharedConditions.Condition condition = new SharedConditions().body(new JsonBody("{ \"some_field\": \"some_value\" }"));
+
+        // when
+        MatchContext concurrentCopy = matchContext.concurrentCopy();
+        concurrentCopy.setConditionResult(condition, true);
+
+        // then
+        assertThat(concurrentCopy.getHttpRequest(), sameInstance(matchContext.getHttpRequest()));
+        assertThat(concurrentCopy.getBodyAsJsonNode(), sameInstance(matchContext.getBodyAsJsonNode()));
+        assertThat(concurrentCopy.getHeadersIndex(), sameInstance(matchContext.getHeadersIndex()));
+        assertThat(matchContext.getConditionResult(condition), is(true));
+    }
+
+    @Test
+    public void shouldNotSharePathParametersOrXmlDocumentWithConcurrentCopy() {
+        // given
+        MatchContext matchContext = new MatchContext(request().withBody("<element>some_value</element>"));
+
+        // when
+        MatchContext concurrentCopy = matchContext.concurrentCopy();
+        concurrentCopy.setPathParameters(Collections.singletonMap("id", "some_id"));
+
+        // then
+        assertThat(matchContext.getPathParameters().isEmpty(), is(true));
+        assertThat(concurrentCopy.getBodyAsXmlDocument(), not(sameInstance(matchContext.getBodyAsXmlDocument())));
+    }
+}
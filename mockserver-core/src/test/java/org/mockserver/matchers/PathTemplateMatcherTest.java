@@ -0,0 +1,61 @@
+package org.mockserver.matchers;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockserver.model.NottableString.not;
+import static org.mockserver.model.NottableString.string;
+
+/**
+ * @author jamesdbloom
+ */
+public class PathTemplateMatcherTest {
+
+    @Test
+    public void shouldDetectPathTemplates() {
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/{id}")), is(true));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/{id}/orders/{orderId}")), is(true));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/{user_id}/orders")), is(true));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/123")), is(false));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/[0-9]{3}")), is(false));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/{3}")), is(false));
+        assertThat(PathTemplateMatcher.isPathTemplate(string("/users/prefix{id}")), is(false));
+        assertThat(PathTemplateMatcher.isPathTemplate(null), is(false));
+    }
+
+    @Test
+    public void shouldCapturePathParameters() {
+        // when
+        Map<String, String> pathParameters = new PathTemplateMatcher(string("/users/{id}/orders/{orderId}")).capture("/users/123/orders/abc");
+
+        // then
+        assertThat(pathParameters.size(), is(2));
+        assertThat(pathParameters, hasEntry("id", "123"));
+        assertThat(pathParameters, hasEntry("orderId", "abc"));
+    }
+
+    @Test
+    public void shouldNotCaptureWhenPathDoesNotMatch() {
+        PathTemplateMatcher pathTemplateMatcher = new PathTemplateMatcher(string("/users/{id}/orders"));
+
+        assertThat(pathTemplateMatcher.capture("/users/123/orders"), notNullValue());
+        assertThat(pathTemplateMatcher.capture("/users/123/basket"), nullValue());
+        assertThat(pathTemplateMatcher.capture("/users//orders"), nullValue());
+        assertThat(pathTemplateMatcher.capture("/users/123/orders/"), nullValue());
+        assertThat(pathTemplateMatcher.capture("/users/123"), nullValue());
+        assertThat(pathTemplateMatcher.capture(null), nullValue());
+    }
+
+    @Test
+    public void shouldMatchWithNotOperators() {
+        assertThat(new PathTemplateMatcher(string("/users/{id}")).matches(string("/users/123")), is(true));
+        assertThat(new PathTemplateMatcher(string("/users/{id}")).matches(string("/orders/123")), is(false));
+        assertThat(new PathTemplateMatcher(not("/users/{id}")).matches(string("/users/123")), is(false));
+        assertThat(new PathTemplateMatcher(not("/users/{id}")).matches(string("/orders/123")), is(true));
+        assertThat(new PathTemplateMatcher(string("/users/{id}")).matches(not("/users/123")), is(false));
+        assertThat(NotMatcher.not(new PathTemplateMatcher(string("/users/{id}"))).matches(string("/users/123")), is(false));
+    }
+}
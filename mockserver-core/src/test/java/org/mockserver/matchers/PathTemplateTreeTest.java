@@ -0,0 +1,74 @@
+package org.mockserver.matchers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author jamesdbloom
+ */
+public class PathTemplateTreeTest {
+
+    private List<String> collect(PathTemplateTree<String> pathTemplateTree, String path) {
+        List<List<String>> matchingValues = new ArrayList<List<String>>();
+        pathTemplateTree.collect(path, matchingValues);
+        List<String> values = new ArrayList<String>();
+        for (List<String> matchingValue : matchingValues) {
+            values.addAll(matchingValue);
+        }
+        return values;
+    }
+
+    @Test
+    public void shouldCollectValuesForMatchingTemplates() {
+        // given
+        PathTemplateTree<String> pathTemplateTree = new PathTemplateTree<String>();
+        pathTemplateTree.add("/users/{id}", "user");
+        pathTemplateTree.add("/users/{userId}", "other user");
+        pathTemplateTree.add("/users/{id}/orders/{orderId}", "order");
+        pathTemplateTree.add("/{collection}/{id}/orders/{orderId}", "any order");
+        pathTemplateTree.add("/users/{id}/basket", "basket");
+
+        // then
+        assertThat(collect(pathTemplateTree, "/users/123"), contains("user", "other user"));
+        assertThat(collect(pathTemplateTree, "/users/123/orders/456"), containsInAnyOrder("order", "any order"));
+        assertThat(collect(pathTemplateTree, "/customers/123/orders/456"), contains("any order"));
+        assertThat(collect(pathTemplateTree, "/users/123/basket"), contains("basket"));
+        assertThat(collect(pathTemplateTree, "/users/123/wishlist"), empty());
+        assertThat(collect(pathTemplateTree, "/users/"), empty());
+        assertThat(collect(pathTemplateTree, "/users"), empty());
+    }
+
+    @Test
+    public void shouldMatchPathWithoutCollectingValues() {
+        // given
+        PathTemplateTree<String> pathTemplateTree = new PathTemplateTree<String>();
+        pathTemplateTree.add("/users/{id}/orders/{orderId}", "order");
+        pathTemplateTree.add("/{collection}/{id}/basket", "basket");
+
+        // then
+        assertThat(pathTemplateTree.matches("/users/123/orders/456"), is(true));
+        assertThat(pathTemplateTree.matches("/users/123/basket"), is(true));
+        assertThat(pathTemplateTree.matches("/users/123/orders"), is(false));
+        assertThat(pathTemplateTree.matches("/users/123/wishlist"), is(false));
+        assertThat(pathTemplateTree.matches("/users//basket"), is(false));
+    }
+
+    @Test
+    public void shouldGetValuesForExactTemplate() {
+        // given
+        PathTemplateTree<String> pathTemplateTree = new PathTemplateTree<String>();
+        pathTemplateTree.add("/users/{id}", "user");
+        pathTemplateTree.add("/users/{id}/orders/{orderId}", "order");
+
+        // then
+        assertThat(pathTemplateTree.get("/users/{id}"), contains("user"));
+        assertThat(pathTemplateTree.get("/users/{userId}"), contains("user"));
+        assertThat(pathTemplateTree.get("/users/{id}/orders"), empty());
+        assertThat(pathTemplateTree.get("/customers/{id}"), empty());
+    }
+}
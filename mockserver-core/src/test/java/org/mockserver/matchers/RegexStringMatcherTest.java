@@ -1,8 +1,10 @@
 package org.mockserver.matchers;
 
+import com.google.common.base.Strings;
 import org.junit.Test;
 import org.mockserver.model.NottableString;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockserver.matchers.NotMatcher.not;
@@ -119,4 +121,66 @@ public class RegexStringMatcherTest {
     public void shouldHandleIllegalRegexPatternForTest() {
         assertFalse(new RegexStringMatcher("some_value").matches("/{}"));
     }
+
+    @Test
+    public void shouldMatchIgnoringCase() {
+        assertTrue(RegexStringMatcher.matches("Some_Value", "some_value", true));
+        assertTrue(RegexStringMatcher.matches("some_[a-z]*", "SOME_VALUE", true));
+        assertTrue(RegexStringMatcher.matches("SOME_VALUE", "some_[a-z]*", true));
+        assertFalse(RegexStringMatcher.matches("some_[a-z]*", "SOME_VALUE", false));
+    }
+
+    @Test
+    public void shouldMatchNottableStringsIgnoringCase() {
+        assertTrue(RegexStringMatcher.matches(string("some_[a-z]*"), string("SOME_VALUE"), true));
+        assertFalse(RegexStringMatcher.matches(org.mockserver.model.NottableString.not("some_[a-z]*"), string("SOME_VALUE"), true));
+        assertTrue(RegexStringMatcher.matches(org.mockserver.model.NottableString.not("other_[a-z]*"), string("SOME_VALUE"), true));
+    }
+
+    @Test
+    public void shouldCompileMatcherPatternOnlyOnce() {
+        // given
+        long cachedPatternCount = RegexStringMatcher.cachedPatternCount();
+        RegexStringMatcher regexStringMatcher = new RegexStringMatcher("some_[a-z]*_" + System.nanoTime());
+
+        // when
+        assertFalse(regexStringMatcher.matches("some_value"));
+        assertFalse(regexStringMatcher.matches("other_value"));
+
+        // then - only the case sensitive and case insensitive patterns compiled when the matcher is created are cached
+        assertEquals(cachedPatternCount + 2, RegexStringMatcher.cachedPatternCount());
+    }
+
+    @Test
+    public void shouldCompileIllegalRegexPatternToPatternThatNeverMatches() {
+        assertFalse(RegexStringMatcher.compile("/{}", false).matcher("/{}").matches());
+        assertFalse(RegexStringMatcher.compile("/{}", true).matcher("").matches());
+    }
+
+    @Test
+    public void shouldNotCacheLiteralMatchedValues() {
+        // given
+        long cachedPatternCount = RegexStringMatcher.cachedPatternCount();
+
+        // when
+        assertFalse(new RegexStringMatcher("some_[a-z]*").matches("literal_value_" + System.nanoTime()));
+        assertFalse(RegexStringMatcher.matches("other_value", "literal_value_" + System.nanoTime(), true));
+
+        // then
+        assertEquals(cachedPatternCount, RegexStringMatcher.cachedPatternCount());
+    }
+
+    @Test
+    public void shouldNotCacheLongMatchedValues() {
+        // given
+        long cachedPatternCount = RegexStringMatcher.cachedPatternCount();
+        String body = Strings.repeat("{ \"some_field\": \"some_value\" }", 20) + System.nanoTime();
+
+        // when
+        assertFalse(new RegexStringMatcher("some_value").matches(body));
+        assertTrue(RegexStringMatcher.matches("some_value", "some_(value|" + System.nanoTime() + ")", false));
+
+        // then - only the short regex is cached
+        assertEquals(cachedPatternCount + 1, RegexStringMatcher.cachedPatternCount());
+    }
 }
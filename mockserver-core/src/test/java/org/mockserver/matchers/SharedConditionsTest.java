@@ -0,0 +1,103 @@
+package org.mockserver.matchers;
+
+import org.junit.Test;
+import org.mockserver.model.Cookie;
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.Parameter;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockserver.model.BinaryBody.binary;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.JsonBody.json;
+import static org.mockserver.model.NottableString.string;
+import static org.mockserver.model.RegexBody.regex;
+import static org.mockserver.model.StringBody.exact;
+
+/**
+ * @author jamesdbloom
+ */
+public class SharedConditionsTest {
+
+    @Test
+    public void shouldShareIdenticalConditions() {
+        // given
+        SharedConditions sharedConditions = new SharedConditions();
+
+        // then
+        assertThat(sharedConditions.path(string("/some.*")), sameInstance(sharedConditions.path(string("/some.*"))));
+        assertThat(sharedConditions.headers(Arrays.asList(new Header("Content-Type", "application/json.*"))), sameInstance(sharedConditions.headers(Arrays.asList(new Header("Content-Type", "application/json.*")))));
+        assertThat(sharedConditions.cookies(Arrays.asList(new Cookie("session", "[0-9]+"))), sameInstance(sharedConditions.cookies(Arrays.asList(new Cookie("session", "[0-9]+")))));
+        assertThat(sharedConditions.body(json("{\"id\": 1}")), sameInstance(sharedConditions.body(json("{\"id\": 1}"))));
+        assertThat(sharedConditions.body(binary(new byte[]{1, 2, 3})), sameInstance(sharedConditions.body(binary(new byte[]{1, 2, 3}))));
+    }
+
+    @Test
+    public void shouldNotShareConditionsThatOnlyMatchEachOther() {
+        // given
+        SharedConditions sharedConditions = new SharedConditions();
+
+        // then - the condition matchers consider these equal as they compare by regex or ignoring the 'not' operator
+        assertThat(sharedConditions.path(string("/some.*")), not(sameInstance(sharedConditions.path(string("/somePath")))));
+        assertThat(sharedConditions.path(string("/somePath")), not(sameInstance(sharedConditions.path(org.mockserver.model.NottableString.not("/otherPath")))));
+        assertThat(sharedConditions.headers(Arrays.asList(new Header("Content-Type", "application/json"))), not(sameInstance(sharedConditions.headers(Arrays.asList(new Header("content-type", "application/json"))))));
+        assertThat(sharedConditions.headers(Arrays.asList(new Header("headerName", "headerValue"))), not(sameInstance(sharedConditions.queryStringParameters(Arrays.asList(new Parameter("headerName", "headerValue"))))));
+        assertThat(sharedConditions.body(exact("some_body")), not(sameInstance(sharedConditions.body(regex("some_body")))));
+        assertThat(sharedConditions.body(exact("some_body")), not(sameInstance(sharedConditions.body(org.mockserver.model.Not.not(exact("some_body"))))));
+        assertThat(sharedConditions.body(json("{\"id\": 1}", MatchType.STRICT)), not(sameInstance(sharedConditions.body(json("{\"id\": 1}", MatchType.ONLY_MATCHING_FIELDS)))));
+    }
+
+    @Test
+    public void shouldEvaluateSharedConditionOncePerRequest() {
+        // given
+        SharedConditions sharedConditions = new SharedConditions();
+        HttpRequest expectation = request().withPath("/some.*").withHeader("Content-Type", "application/json.*");
+        HttpRequestMatcher first = new HttpRequestMatcher(expectation).shareConditions(sharedConditions);
+        HttpRequestMatcher second = new HttpRequestMatcher(request().withPath("/some.*").withHeader("Content-Type", "application/json.*").withMethod("POST")).shareConditions(sharedConditions);
+        MatchContext matchContext = new MatchContext(request().withMethod("POST").withPath("/somePath").withHeader("Content-Type", "application/json; charset=utf-8"));
+
+        // when
+        assertTrue(first.matches(matchContext, false));
+
+        // then
+        assertThat(matchContext.getConditionResult(sharedConditions.path(expectation.getPath())), is(true));
+        assertThat(matchContext.getConditionResult(sharedConditions.headers(expectation.getHeaders())), is(true));
+
+        // when - a different result is recorded for the shared condition
+        matchContext.setConditionResult(sharedConditions.headers(expectation.getHeaders()), false);
+
+        // then - the recorded result is used
+        assertFalse(second.matches(matchContext, false));
+        assertTrue(second.matches(new MatchContext(matchContext.getHttpRequest()), false));
+    }
+
+    @Test
+    public void shouldNotSharePathTemplate() {
+        // given
+        SharedConditions sharedConditions = new SharedConditions();
+        HttpRequestMatcher pathTemplate = new HttpRequestMatcher(request().withPath("/users/{id}")).shareConditions(sharedConditions);
+        HttpRequestMatcher regexPath = new HttpRequestMatcher(request().withPath("/users/.*")).shareConditions(sharedConditions);
+        MatchContext matchContext = new MatchContext(request().withPath("/users/123"));
+
+        // when
+        assertTrue(pathTemplate.matches(matchContext, false));
+
+        // then
+        assertThat(matchContext.getConditionResult(sharedConditions.path(string("/users/{id}"))), is((Boolean) null));
+        assertThat(matchContext.getPathParameters().get("id"), is("123"));
+
+        // when
+        assertTrue(regexPath.matches(matchContext, false));
+        assertTrue(regexPath.matches(matchContext, false));
+
+        // then
+        assertThat(matchContext.getPathParameters().isEmpty(), is(true));
+    }
+}
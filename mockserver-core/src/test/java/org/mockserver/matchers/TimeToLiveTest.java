@@ -6,6 +6,8 @@ import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 
 /**
  * @author jamesdbloom
@@ -21,6 +23,17 @@ public class TimeToLiveTest {
         assertThat(TimeToLive.exactly(TimeUnit.MINUTES, 5l).getTimeToLive(), is(5l));
     }
 
+    @Test
+    public void shouldShareUnlimitedTimeToLive() {
+        // when
+        TimeToLive timeToLive = TimeToLive.unlimited();
+
+        // then
+        assertThat(timeToLive, sameInstance(TimeToLive.unlimited()));
+        assertThat(timeToLive.getTimeUnit(), nullValue());
+        assertThat(timeToLive.getTimeToLive(), nullValue());
+    }
+
     @Test
     public void shouldCalculateStillLive() throws InterruptedException {
         // when
@@ -32,4 +45,12 @@ public class TimeToLiveTest {
         assertThat(timeToLive.stillAlive(), is(false));
         assertThat(TimeToLive.exactly(TimeUnit.MINUTES, 10l).stillAlive(), is(true));
     }
+
+    @Test
+    public void shouldCalculateRemainingTime() {
+        assertThat(TimeToLive.exactly(TimeUnit.MINUTES, 10l).remainingNanos() > TimeUnit.MINUTES.toNanos(9), is(true));
+        assertThat(TimeToLive.exactly(TimeUnit.MINUTES, 10l).remainingNanos() <= TimeUnit.MINUTES.toNanos(10), is(true));
+        assertThat(TimeToLive.exactly(TimeUnit.MILLISECONDS, 0l).remainingNanos() <= 0, is(true));
+        assertThat(TimeToLive.unlimited().remainingNanos(), is(Long.MAX_VALUE));
+    }
 }
@@ -2,6 +2,11 @@ package org.mockserver.matchers;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
@@ -31,4 +36,55 @@ public class TimesTest {
         times.decrement().decrement();
         assertThat(times.greaterThenZero(), is(false));
     }
+
+    @Test
+    public void shouldOnlyDecrementWhenGreaterThanZero() {
+        // given
+        Times times = Times.exactly(2);
+
+        // then
+        assertThat(times.tryDecrement(), is(true));
+        assertThat(times.tryDecrement(), is(true));
+        assertThat(times.tryDecrement(), is(false));
+        assertThat(times.getRemainingTimes(), is(0));
+        assertThat(Times.unlimited().tryDecrement(), is(true));
+    }
+
+    @Test
+    public void shouldDecrementExactlyTheRemainingTimesConcurrently() throws InterruptedException {
+        // given
+        final Times times = Times.exactly(100);
+        final AtomicInteger decrements = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int j = 0; j < 50; j++) {
+                        if (times.tryDecrement()) {
+                            decrements.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertThat(decrements.get(), is(100));
+        assertThat(times.getRemainingTimes(), is(0));
+    }
 }
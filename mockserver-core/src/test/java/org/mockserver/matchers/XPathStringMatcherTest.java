@@ -1,6 +1,14 @@
 package org.mockserver.matchers;
 
 import org.junit.Test;
+import org.mockserver.model.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 import static org.mockserver.matchers.NotMatcher.not;
@@ -77,6 +85,45 @@ public class XPathStringMatcherTest {
         assertTrue(not(new XPathStringMatcher("/element[key and not_value]")).matches(matched));
     }
 
+    @Test
+    public void shouldMatchAfterIllegalXmlOnSameThread() {
+        // given
+        XPathStringMatcher xPathStringMatcher = new XPathStringMatcher("/element[key = 'some_key']");
+
+        // then - the document builder factory reused by the thread isn't affected by an illegal document
+        assertFalse(xPathStringMatcher.matches("<element><key>some_key</key>"));
+        assertTrue(xPathStringMatcher.matches("<element><key>some_key</key></element>"));
+    }
+
+    @Test
+    public void shouldMatchFromMultipleThreads() throws Exception {
+        // given
+        final XPathStringMatcher xPathStringMatcher = new XPathStringMatcher("/element[key = 'some_key' and value = 'some_value']");
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+
+        // when
+        for (int i = 0; i < 400; i++) {
+            final boolean shouldMatch = i % 2 == 0;
+            results.add(executorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    String body = "<element><key>some_key</key><value>" + (shouldMatch ? "some_value" : "some_other_value") + "</value></element>";
+                    return xPathStringMatcher.matchesBody(new MatchContext(new HttpRequest().withBody(body))) == shouldMatch;
+                }
+            }));
+        }
+
+        // then
+        try {
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     @Test
     public void shouldNotMatchNullTest() {
         assertFalse(new XPathStringMatcher("some_value").matches(null));
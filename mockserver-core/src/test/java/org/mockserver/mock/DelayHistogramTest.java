@@ -0,0 +1,85 @@
+package org.mockserver.mock;
+
+import org.junit.Test;
+import org.mockserver.model.DelayHistogramStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author jamesdbloom
+ */
+public class DelayHistogramTest {
+
+    @Test
+    public void shouldReturnNullWhenNoDelaysRecorded() {
+        // when
+        DelayHistogram delayHistogram = new DelayHistogram();
+
+        // then
+        assertThat(delayHistogram.status(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReturnDistributionOfDelaysRecorded() {
+        // given
+        DelayHistogram delayHistogram = new DelayHistogram();
+
+        // when - 1 to 100 milliseconds
+        for (int i = 1; i <= 100; i++) {
+            delayHistogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // then - within the precision of the buckets
+        DelayHistogramStatus status = delayHistogram.status();
+        assertThat(status.getCount(), is(100L));
+        assertThat(status.getMin(), closeTo(1, 0.001));
+        assertThat(status.getMax(), closeTo(100, 0.001));
+        assertThat(status.getMean(), closeTo(50.5, 0.001));
+        assertThat(status.getP50(), closeTo(50, 50 * 0.04));
+        assertThat(status.getP90(), closeTo(90, 90 * 0.04));
+        assertThat(status.getP95(), closeTo(95, 95 * 0.04));
+        assertThat(status.getP99(), closeTo(99, 99 * 0.04));
+    }
+
+    @Test
+    public void shouldRecordSmallDelaysExactly() {
+        // given
+        DelayHistogram delayHistogram = new DelayHistogram();
+
+        // when
+        delayHistogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        delayHistogram.record(TimeUnit.MICROSECONDS.toNanos(20));
+
+        // then
+        DelayHistogramStatus status = delayHistogram.status();
+        assertThat(status.getP50(), is(0.01));
+        assertThat(status.getP99(), is(0.02));
+    }
+
+    @Test
+    public void shouldReset() {
+        // given
+        DelayHistogram delayHistogram = new DelayHistogram();
+        delayHistogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // when
+        delayHistogram.reset();
+
+        // then
+        assertThat(delayHistogram.status(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldMapEveryDelayToBucketContainingDelay() {
+        for (long micros = 0; micros < 1000000; micros++) {
+            int bucket = DelayHistogram.bucket(micros);
+            assertThat(DelayHistogram.highestValue(bucket) >= micros, is(true));
+            assertThat(bucket == 0 || DelayHistogram.highestValue(bucket - 1) < micros, is(true));
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.mockserver.mock;
+
+import com.google.common.base.Charsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.mockserver.model.BinaryBody.binary;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.Not.not;
+import static org.mockserver.model.NottableString.not;
+import static org.mockserver.model.RegexBody.regex;
+import static org.mockserver.model.StringBody.exact;
+
+/**
+ * @author jamesdbloom
+ */
+public class ExpectationStoreTest {
+
+    private ExpectationStore expectationStore;
+
+    @Before
+    public void prepareTestFixture() {
+        expectationStore = new ExpectationStore();
+    }
+
+    private Expectation expectation(HttpRequest httpRequest) {
+        return new Expectation(httpRequest, Times.unlimited(), TimeToLive.unlimited());
+    }
+
+    @Test
+    public void shouldOnlyReturnCandidatesWithMatchingMethodAndPath() {
+        // given
+        Expectation getSomePath = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation postSomePath = expectation(request().withMethod("POST").withPath("/somePath"));
+        Expectation getOtherPath = expectation(request().withMethod("GET").withPath("/otherPath"));
+
+        // when
+        expectationStore.add(getSomePath);
+        expectationStore.add(postSomePath);
+        expectationStore.add(getOtherPath);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), contains(getSomePath));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath")), contains(postSomePath));
+        assertThat(expectationStore.candidatesFor(request().withMethod("PUT").withPath("/somePath")), empty());
+    }
+
+    @Test
+    public void shouldReturnCandidatesAcrossBucketsInRegistrationOrder() {
+        // given
+        Expectation anyMethodSomePath = expectation(request().withPath("/somePath"));
+        Expectation regexPath = expectation(request().withMethod("GET").withPath("/some.*"));
+        Expectation getAnyPath = expectation(request().withMethod("GET"));
+        Expectation getSomePath = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation notPath = expectation(request().withPath(not("/otherPath")));
+        Expectation anything = expectation(request());
+
+        // when
+        expectationStore.add(anyMethodSomePath);
+        expectationStore.add(regexPath);
+        expectationStore.add(getAnyPath);
+        expectationStore.add(getSomePath);
+        expectationStore.add(notPath);
+        expectationStore.add(anything);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), contains(anyMethodSomePath, regexPath, getAnyPath, getSomePath, notPath, anything));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/otherPath")), contains(regexPath, notPath, anything));
+    }
+
+    @Test
+    public void shouldReturnCandidatesWithMatchingPathTemplate() {
+        // given
+        Expectation user = expectation(request().withMethod("GET").withPath("/users/{id}"));
+        Expectation userOrder = expectation(request().withPath("/users/{id}/orders/{orderId}"));
+        Expectation getSomePath = expectation(request().withMethod("GET").withPath("/users/somePath"));
+        Expectation regex = expectation(request().withPath("/users/.*"));
+        expectationStore.add(user);
+        expectationStore.add(userOrder);
+        expectationStore.add(getSomePath);
+        expectationStore.add(regex);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/users/123")), contains(user, regex));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/users/somePath")), contains(user, getSomePath, regex));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/users/123/orders/456")), contains(userOrder, regex));
+        assertThat(expectationStore.registeredWithSameMethodAndPath(request().withMethod("GET").withPath("/users/{id}")), contains(user));
+
+        // when
+        expectationStore.remove(user);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/users/123")), contains(regex));
+    }
+
+    @Test
+    public void shouldReturnAllExpectationsWhenRequestIsNotLiteral() {
+        // given
+        Expectation getSomePath = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation postOtherPath = expectation(request().withMethod("POST").withPath("/otherPath"));
+
+        // when
+        expectationStore.add(getSomePath);
+        expectationStore.add(postOtherPath);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/.*")), contains(getSomePath, postOtherPath));
+        assertThat(expectationStore.candidatesFor(request().withPath("/somePath")), contains(getSomePath, postOtherPath));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET")), contains(getSomePath, postOtherPath));
+    }
+
+    @Test
+    public void shouldOnlyCouldMatchRequestsWithIndexedMethodAndPath() {
+        // given
+        expectationStore.add(expectation(request().withMethod("GET").withPath("/somePath")));
+        expectationStore.add(expectation(request().withMethod("POST")));
+        expectationStore.add(expectation(request().withPath("/users/{id}")));
+
+        // then
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/somePath")), is(true));
+        assertThat(expectationStore.couldMatch(request().withMethod("POST").withPath("/otherPath")), is(true));
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/users/123")), is(true));
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/otherPath")), is(false));
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/users/123/orders")), is(false));
+
+        // and - requests that aren't literal could match anything
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/other.*")), is(true));
+        assertThat(expectationStore.couldMatch(request().withPath("/otherPath")), is(true));
+    }
+
+    @Test
+    public void shouldCouldMatchAnyRequestWhenExpectationCanNotBeIndexed() {
+        // given
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/otherPath")), is(false));
+        assertThat(expectationStore.couldMatch(request().withPath("/otherPath")), is(false));
+        Expectation regexPath = expectation(request().withMethod("GET").withPath("/some.*"));
+
+        // when
+        expectationStore.add(regexPath);
+
+        // then
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/otherPath")), is(true));
+
+        // when
+        expectationStore.remove(regexPath);
+
+        // then
+        assertThat(expectationStore.couldMatch(request().withMethod("GET").withPath("/otherPath")), is(false));
+    }
+
+    @Test
+    public void shouldRemoveExpectationsFromIndex() {
+        // given
+        Expectation first = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation second = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation regex = expectation(request().withPath("/some.*"));
+        expectationStore.add(first);
+        expectationStore.add(second);
+        expectationStore.add(regex);
+
+        // when
+        expectationStore.remove(first);
+        expectationStore.remove(regex);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), contains(second));
+        assertThat(expectationStore.size(), is(1));
+        assertThat(expectationStore.contains(first), is(false));
+    }
+
+    @Test
+    public void shouldRemoveExpectationsInBatch() {
+        // given
+        Expectation first = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation second = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation third = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation regex = expectation(request().withPath("/some.*"));
+        expectationStore.add(first);
+        expectationStore.add(second);
+        expectationStore.add(third);
+        expectationStore.add(regex);
+
+        // when
+        boolean removed = expectationStore.removeAll(Arrays.asList(first, third, regex));
+
+        // then
+        assertThat(removed, is(true));
+        assertThat(expectationStore, contains(second));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), contains(second));
+        assertThat(expectationStore.removeAll(Arrays.asList(first, third, regex)), is(false));
+    }
+
+    @Test
+    public void shouldOnlyReturnCandidatesWithSameExactBody() {
+        // given
+        Expectation someBody = expectation(request().withMethod("POST").withPath("/somePath").withBody("some_body"));
+        Expectation otherBody = expectation(request().withMethod("POST").withPath("/somePath").withBody("other_body"));
+        Expectation someBinaryBody = expectation(request().withMethod("POST").withPath("/somePath").withBody(binary("some_body".getBytes(Charsets.UTF_8))));
+        Expectation otherBinaryBody = expectation(request().withMethod("POST").withPath("/somePath").withBody(binary("other_body".getBytes(Charsets.UTF_8))));
+        Expectation notBody = expectation(request().withMethod("POST").withPath("/somePath").withBody(not(exact("some_body"))));
+        Expectation regexBody = expectation(request().withMethod("POST").withPath("/somePath").withBody(regex("some_.*")));
+        Expectation noBody = expectation(request().withMethod("POST").withPath("/somePath"));
+
+        // when
+        expectationStore.add(someBody);
+        expectationStore.add(otherBody);
+        expectationStore.add(someBinaryBody);
+        expectationStore.add(otherBinaryBody);
+        expectationStore.add(notBody);
+        expectationStore.add(regexBody);
+        expectationStore.add(noBody);
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody("some_body")), contains(someBody, someBinaryBody, notBody, regexBody, noBody));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody(binary("other_body".getBytes(Charsets.UTF_8)))), contains(otherBody, otherBinaryBody, notBody, regexBody, noBody));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody("unknown_body")), contains(notBody, regexBody, noBody));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath")), contains(notBody, regexBody, noBody));
+    }
+
+    @Test
+    public void shouldReturnAllCandidatesWhenBodyIsBodyMatcher() {
+        // given
+        Expectation someBody = expectation(request().withMethod("POST").withPath("/somePath").withBody("some_body"));
+        Expectation otherBody = expectation(request().withMethod("POST").withPath("/somePath").withBody("other_body"));
+        expectationStore.add(someBody);
+        expectationStore.add(otherBody);
+
+        // then - a body matcher in the request is compared with the expectation's body matcher not its value
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody("{\"type\":\"REGEX\",\"regex\":\"some_.*\"}")), contains(someBody, otherBody));
+    }
+
+    @Test
+    public void shouldRemoveExpectationsFromBodyIndex() {
+        // given
+        Expectation first = expectation(request().withMethod("POST").withPath("/somePath").withBody("some_body"));
+        Expectation second = expectation(request().withMethod("POST").withPath("/somePath").withBody("some_body"));
+        Expectation binaryBody = expectation(request().withMethod("POST").withPath("/somePath").withBody(binary("some_body".getBytes(Charsets.UTF_8))));
+        Expectation otherBody = expectation(request().withMethod("POST").withPath("/somePath").withBody("other_body"));
+        expectationStore.add(first);
+        expectationStore.add(second);
+        expectationStore.add(binaryBody);
+        expectationStore.add(otherBody);
+
+        // when
+        expectationStore.removeAll(Arrays.asList(first, binaryBody, otherBody));
+
+        // then
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody("some_body")), contains(second));
+        assertThat(expectationStore.candidatesFor(request().withMethod("POST").withPath("/somePath").withBody("other_body")), empty());
+        assertThat(expectationStore.registeredWithSameMethodAndPath(otherBody.getHttpRequest()), contains(second));
+    }
+
+    @Test
+    public void shouldNotChangeCandidatesAlreadyReturnedWhenExpectationsAreUpdated() {
+        // given
+        Expectation first = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation second = expectation(request().withMethod("GET").withPath("/somePath"));
+        expectationStore.add(first);
+        List<Expectation> candidates = expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath"));
+
+        // when
+        expectationStore.add(second);
+        expectationStore.remove(first);
+
+        // then
+        assertThat(candidates, contains(first));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), contains(second));
+    }
+
+    @Test
+    public void shouldAddExpectationsConcurrently() throws InterruptedException {
+        // given
+        final int threads = 8;
+        final int expectationsPerThread = 250;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> adders = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            Thread adder = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int j = 0; j < expectationsPerThread; j++) {
+                        expectationStore.add(expectation(request().withMethod("GET").withPath(j % 2 == 0 ? "/somePath" : "/some.*")));
+                    }
+                }
+            });
+            adder.start();
+            adders.add(adder);
+        }
+
+        // when
+        start.countDown();
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        // then
+        assertThat(expectationStore.size(), is(threads * expectationsPerThread));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")).size(), is(threads * expectationsPerThread));
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/otherPath")).size(), is(threads * expectationsPerThread / 2));
+    }
+
+    @Test
+    public void shouldNotAddExpectationWithExpiredTimeToLive() {
+        // when
+        boolean added = expectationStore.add(new Expectation(request().withPath("/somePath"), Times.unlimited(), TimeToLive.exactly(TimeUnit.MICROSECONDS, 0L)));
+
+        // then
+        assertThat(added, is(false));
+        assertThat(expectationStore, empty());
+    }
+
+    @Test
+    public void shouldRemoveExpectationWhenTimeToLiveExpires() throws InterruptedException {
+        // given
+        Expectation expiring = new Expectation(request().withPath("/somePath"), Times.unlimited(), TimeToLive.exactly(TimeUnit.MILLISECONDS, 50L));
+        Expectation notExpiring = new Expectation(request().withPath("/somePath"), Times.unlimited(), TimeToLive.exactly(TimeUnit.HOURS, 1L));
+
+        // when
+        expectationStore.add(expiring);
+        expectationStore.add(notExpiring);
+
+        // then
+        assertThat(expectationStore, contains(expiring, notExpiring));
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (expectationStore.contains(expiring) && System.currentTimeMillis() < timeout) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(expectationStore, contains(notExpiring));
+    }
+
+    @Test
+    public void shouldIterateInRegistrationOrder() {
+        // given
+        Expectation first = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation second = expectation(request().withPath("/some.*"));
+        Expectation third = expectation(request().withMethod("POST").withPath("/otherPath"));
+
+        // when
+        expectationStore.add(first);
+        expectationStore.add(second);
+        expectationStore.add(third);
+
+        // then
+        assertThat(expectationStore, contains(first, second, third));
+    }
+
+    @Test
+    public void shouldReturnExpectationsRegisteredWithSameMethodAndPath() {
+        // given
+        Expectation first = expectation(request().withMethod("GET").withPath("/somePath"));
+        Expectation second = expectation(request().withMethod("GET").withPath("/otherPath"));
+        Expectation regex = expectation(request().withPath("/some.*"));
+
+        // when
+        expectationStore.add(first);
+        expectationStore.add(second);
+        expectationStore.add(regex);
+
+        // then
+        assertThat(expectationStore.registeredWithSameMethodAndPath(request().withMethod("GET").withPath("/somePath")), contains(first));
+        assertThat(expectationStore.registeredWithSameMethodAndPath(request().withPath("/some.*")), contains(regex));
+    }
+
+    @Test
+    public void shouldClearAllExpectations() {
+        // given
+        expectationStore.add(expectation(request().withMethod("GET").withPath("/somePath")));
+        expectationStore.add(expectation(request().withPath("/some.*")));
+
+        // when
+        expectationStore.clear();
+
+        // then
+        assertThat(expectationStore, empty());
+        assertThat(expectationStore.candidatesFor(request().withMethod("GET").withPath("/somePath")), empty());
+    }
+}
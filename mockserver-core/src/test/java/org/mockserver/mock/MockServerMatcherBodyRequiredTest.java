@@ -0,0 +1,86 @@
+package org.mockserver.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockserver.model.HttpForward.forward;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+import static org.mockserver.model.StringBody.exact;
+
+/**
+ * @author jamesdbloom
+ */
+public class MockServerMatcherBodyRequiredTest {
+
+    private MockServerMatcher mockServerMatcher;
+
+    @Before
+    public void prepareTestFixture() {
+        mockServerMatcher = new MockServerMatcher();
+    }
+
+    @Test
+    public void shouldNotRequireBodyWhenNoExpectations() {
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(false));
+    }
+
+    @Test
+    public void shouldNotRequireBodyWhenRequestCantMatchAnyExpectation() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/other").withBody("some_body")).thenRespond(response());
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(false));
+    }
+
+    @Test
+    public void shouldNotRequireBodyWhenNoExpectationHasBodyMatcher() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload")).thenRespond(response());
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(false));
+    }
+
+    @Test
+    public void shouldRequireBodyWhenExpectationHasBodyMatcher() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload").withBody("some_body")).thenRespond(response());
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(true));
+    }
+
+    @Test
+    public void shouldRequireBodyWhenExpectationForwardsRequest() {
+        // given
+        mockServerMatcher.when(request().withPath("/upload")).thenForward(forward().withHost("localhost").withPort(1090));
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(true));
+    }
+
+    @Test
+    public void shouldNotRequireBodyWhenOnlyExpectationForOtherPathHasBodyMatcher() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload")).thenRespond(response());
+        mockServerMatcher.when(request().withMethod("POST").withPath("/other").withBody("some_body")).thenRespond(response());
+        mockServerMatcher.when(request().withMethod("GET").withPath("/upload")).thenForward(forward().withHost("localhost").withPort(1090));
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(false));
+    }
+
+    @Test
+    public void shouldRequireBodyWhenExpectationHasExactBodyAmongOthers() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload")).thenRespond(response());
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload").withBody(exact("some_body"))).thenRespond(response());
+
+        // then
+        assertThat(mockServerMatcher.bodyRequired(request().withMethod("POST").withPath("/upload")), is(true));
+    }
+}
@@ -0,0 +1,84 @@
+package org.mockserver.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.model.Delay;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockserver.model.HttpError.error;
+import static org.mockserver.model.HttpForward.forward;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * @author jamesdbloom
+ */
+public class MockServerMatcherDelayTest {
+
+    private MockServerMatcher mockServerMatcher;
+
+    @Before
+    public void prepareTestFixture() {
+        mockServerMatcher = new MockServerMatcher();
+    }
+
+    @Test
+    public void shouldReturnAndRecordDelayOfResponse() {
+        // when
+        long delayNanos = mockServerMatcher.delayNanos(response().withDelay(TimeUnit.MILLISECONDS, 20));
+
+        // then
+        assertThat(delayNanos, is(TimeUnit.MILLISECONDS.toNanos(20)));
+        assertThat(mockServerMatcher.delayHistogramStatus().getCount(), is(1L));
+        assertThat(mockServerMatcher.delayHistogramStatus().getMax(), closeTo(20, 0.001));
+    }
+
+    @Test
+    public void shouldReturnAndRecordDelayOfError() {
+        // when
+        long delayNanos = mockServerMatcher.delayNanos(error().withDelay(TimeUnit.SECONDS, 1));
+
+        // then
+        assertThat(delayNanos, is(TimeUnit.SECONDS.toNanos(1)));
+        assertThat(mockServerMatcher.delayHistogramStatus().getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldDrawDelayFromDistribution() {
+        // when
+        for (int i = 0; i < 100; i++) {
+            long delayNanos = mockServerMatcher.delayNanos(response().withDelay(Delay.uniform(TimeUnit.MILLISECONDS, 10, 30)));
+
+            // then
+            assertThat(delayNanos, allOf(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10)), lessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30))));
+        }
+        assertThat(mockServerMatcher.delayHistogramStatus().getCount(), is(100L));
+        assertThat(mockServerMatcher.delayHistogramStatus().getMin(), greaterThanOrEqualTo(10.0));
+        assertThat(mockServerMatcher.delayHistogramStatus().getMax(), lessThanOrEqualTo(30.0));
+    }
+
+    @Test
+    public void shouldNotRecordActionsWithoutDelay() {
+        // when
+        assertThat(mockServerMatcher.delayNanos(response()), is(0L));
+        assertThat(mockServerMatcher.delayNanos(forward()), is(0L));
+        assertThat(mockServerMatcher.delayNanos(null), is(0L));
+
+        // then
+        assertThat(mockServerMatcher.delayHistogramStatus(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldClearRecordedDelaysOnReset() {
+        // given
+        mockServerMatcher.delayNanos(response().withDelay(TimeUnit.MILLISECONDS, 20));
+
+        // when
+        mockServerMatcher.reset();
+
+        // then
+        assertThat(mockServerMatcher.delayHistogramStatus(), is(nullValue()));
+    }
+}
@@ -0,0 +1,143 @@
+package org.mockserver.mock;
+
+import com.google.common.base.Strings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.configuration.ConfigurationProperties;
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.HttpResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+import static org.mockserver.model.MatchCacheStatus.matchCacheStatus;
+
+/**
+ * @author jamesdbloom
+ */
+public class MockServerMatcherMatchCacheTest {
+
+    private MockServerMatcher mockServerMatcher;
+
+    @Before
+    public void prepareTestFixture() {
+        ConfigurationProperties.matchCacheSize(10);
+        mockServerMatcher = new MockServerMatcher();
+    }
+
+    @After
+    public void clearMatchCacheSize() {
+        System.clearProperty("mockserver.matchCacheSize");
+    }
+
+    @Test
+    public void shouldReturnCachedMatchForRepeatedRequest() {
+        // given
+        HttpResponse httpResponse = response().withBody("somebody");
+        mockServerMatcher.when(request().withPath("somepath").withHeader("name", "value")).thenRespond(httpResponse);
+
+        // then
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath").withHeader("name", "value")));
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath").withHeader("name", "value")));
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath").withHeader("name", "value")));
+        assertNull(mockServerMatcher.handle(request().withPath("somepath").withHeader("name", "otherValue")));
+        assertNull(mockServerMatcher.handle(request().withPath("somepath").withHeader("name", "otherValue")));
+        assertEquals(matchCacheStatus(3, 2, 2), mockServerMatcher.matchCacheStatus());
+    }
+
+    @Test
+    public void shouldNotCacheRequestsWithLargeBody() {
+        // given
+        HttpResponse httpResponse = response().withBody("somebody");
+        mockServerMatcher.when(request().withPath("somepath")).thenRespond(httpResponse);
+        String largeBody = Strings.repeat("a", MatchCache.MAXIMUM_CACHED_BODY_SIZE + 1);
+
+        // then
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath").withBody(largeBody)));
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath").withBody(largeBody)));
+        assertEquals(matchCacheStatus(0, 0, 0), mockServerMatcher.matchCacheStatus());
+    }
+
+    @Test
+    public void shouldNotCacheExpectationsWithLimitedTimes() {
+        // given
+        HttpResponse[] httpResponse = new HttpResponse[]{
+                response().withBody("somebody1"),
+                response().withBody("somebody2"),
+                response().withBody("somebody3")
+        };
+        mockServerMatcher.when(request().withPath("somepath"), Times.exactly(2), TimeToLive.unlimited()).thenRespond(httpResponse[0]);
+        mockServerMatcher.when(request().withPath("somepath"), Times.exactly(1), TimeToLive.unlimited()).thenRespond(httpResponse[1]);
+        mockServerMatcher.when(request().withPath("somepath")).thenRespond(httpResponse[2]);
+
+        // then
+        assertEquals(httpResponse[0], mockServerMatcher.handle(request().withPath("somepath")));
+        assertEquals(httpResponse[0], mockServerMatcher.handle(request().withPath("somepath")));
+        assertEquals(httpResponse[1], mockServerMatcher.handle(request().withPath("somepath")));
+        assertEquals(httpResponse[2], mockServerMatcher.handle(request().withPath("somepath")));
+        assertEquals(httpResponse[2], mockServerMatcher.handle(request().withPath("somepath")));
+        assertEquals(matchCacheStatus(1, 4, 1), mockServerMatcher.matchCacheStatus());
+    }
+
+    @Test
+    public void shouldNotReturnCachedMatchWhenExpectationsChange() {
+        // given
+        HttpResponse firstResponse = response().withBody("somebody1");
+        HttpResponse secondResponse = response().withBody("somebody2");
+        assertNull(mockServerMatcher.handle(request().withPath("somepath")));
+
+        // when - added
+        mockServerMatcher.when(request().withPath("somepath")).thenRespond(firstResponse);
+
+        // then
+        assertEquals(firstResponse, mockServerMatcher.handle(request().withPath("somepath")));
+
+        // when - cleared
+        mockServerMatcher.clear(request().withPath("somepath"));
+
+        // then
+        assertNull(mockServerMatcher.handle(request().withPath("somepath")));
+
+        // when - reset
+        mockServerMatcher.when(request().withPath("somepath")).thenRespond(secondResponse);
+        assertEquals(secondResponse, mockServerMatcher.handle(request().withPath("somepath")));
+        mockServerMatcher.reset();
+
+        // then
+        assertNull(mockServerMatcher.handle(request().withPath("somepath")));
+        // requests that can't match any expectation are rejected before the match cache
+        assertEquals(matchCacheStatus(0, 2, 1), mockServerMatcher.matchCacheStatus());
+    }
+
+    @Test
+    public void shouldNotReturnCachedMatchOnceTimeToLiveHasExpired() throws InterruptedException {
+        // given
+        HttpResponse httpResponse = response().withBody("somebody");
+        mockServerMatcher.when(request().withPath("somepath"), Times.unlimited(), TimeToLive.exactly(TimeUnit.MILLISECONDS, 250L)).thenRespond(httpResponse);
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath")));
+
+        // when
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        // then
+        assertNull(mockServerMatcher.handle(request().withPath("somepath")));
+    }
+
+    @Test
+    public void shouldNotHaveStatusWhenMatchCacheIsDisabled() {
+        // given
+        System.clearProperty("mockserver.matchCacheSize");
+        mockServerMatcher = new MockServerMatcher();
+        HttpResponse httpResponse = response().withBody("somebody");
+        mockServerMatcher.when(request().withPath("somepath")).thenRespond(httpResponse);
+
+        // then
+        assertEquals(httpResponse, mockServerMatcher.handle(request().withPath("somepath")));
+        assertNull(mockServerMatcher.matchCacheStatus());
+    }
+}
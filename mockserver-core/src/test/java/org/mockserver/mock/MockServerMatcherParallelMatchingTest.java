@@ -0,0 +1,128 @@
+package org.mockserver.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.configuration.ConfigurationProperties;
+import org.mockserver.matchers.TimeToLive;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.JsonBody.json;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * @author jamesdbloom
+ */
+public class MockServerMatcherParallelMatchingTest {
+
+    private MockServerMatcher mockServerMatcher;
+
+    @Before
+    public void prepareTestFixture() {
+        ConfigurationProperties.parallelMatchingThreshold(10);
+        mockServerMatcher = new MockServerMatcher();
+        // regex paths so every expectation is a candidate for every request
+        for (int i = 0; i < 100; i++) {
+            mockServerMatcher.when(request().withPath("/some.*").withHeader("name", "value_" + i)).thenRespond(response().withBody("response_" + i));
+        }
+    }
+
+    @After
+    public void clearParallelMatchingThreshold() {
+        System.clearProperty("mockserver.parallelMatchingThreshold");
+    }
+
+    @Test
+    public void shouldReturnFirstMatchingExpectationInRegistrationOrder() {
+        // given
+        mockServerMatcher.when(request().withPath("/some.*").withHeader("name", "value_1.*")).thenRespond(response().withBody("regex_response"));
+
+        // then
+        assertEquals(response().withBody("response_0"), mockServerMatcher.handle(request().withPath("/somePath").withHeader("name", "value_0")));
+        assertEquals(response().withBody("response_99"), mockServerMatcher.handle(request().withPath("/somePath").withHeader("name", "value_99")));
+        assertEquals(response().withBody("response_37"), mockServerMatcher.handle(request().withPath("/somePath").withHeader("name", "value_37")));
+        assertEquals(response().withBody("regex_response"), mockServerMatcher.handle(request().withPath("/somePath").withHeader("name", "value_1000")));
+        assertNull(mockServerMatcher.handle(request().withPath("/somePath").withHeader("name", "value_200")));
+    }
+
+    @Test
+    public void shouldMatchBodyInParallel() {
+        // given
+        for (int i = 0; i < 50; i++) {
+            mockServerMatcher.when(request().withPath("/json.*").withBody(json("{ \"id\": " + i + " }"))).thenRespond(response().withBody("json_" + i));
+        }
+
+        // then
+        assertEquals(response().withBody("json_0"), mockServerMatcher.handle(request().withPath("/jsonPath").withBody("{ \"id\": 0, \"other\": true }")));
+        assertEquals(response().withBody("json_42"), mockServerMatcher.handle(request().withPath("/jsonPath").withBody("{ \"id\": 42 }")));
+        assertNull(mockServerMatcher.handle(request().withPath("/jsonPath").withBody("{ \"id\": 50 }")));
+    }
+
+    @Test
+    public void shouldMatchNextExpectationWhenRemainingMatchesAreUsed() {
+        // given
+        mockServerMatcher.when(request().withPath("/other.*"), Times.once(), TimeToLive.unlimited()).thenRespond(response().withBody("once"));
+        for (int i = 0; i < 20; i++) {
+            mockServerMatcher.when(request().withPath("/other.*").withHeader("name", "filler_" + i)).thenRespond(response().withBody("filler"));
+        }
+        mockServerMatcher.when(request().withPath("/other.*"), Times.exactly(2), TimeToLive.unlimited()).thenRespond(response().withBody("twice"));
+
+        // then
+        assertEquals(response().withBody("once"), mockServerMatcher.handle(request().withPath("/otherPath")));
+        assertEquals(response().withBody("twice"), mockServerMatcher.handle(request().withPath("/otherPath")));
+        assertEquals(response().withBody("twice"), mockServerMatcher.handle(request().withPath("/otherPath")));
+        assertNull(mockServerMatcher.handle(request().withPath("/otherPath")));
+    }
+
+    @Test
+    public void shouldNotMatchExpectationMoreThanItsTimesWhenMatchedConcurrently() throws InterruptedException {
+        // given
+        mockServerMatcher.when(request().withPath("/other.*"), Times.exactly(25), TimeToLive.unlimited()).thenRespond(response().withBody("limited"));
+        mockServerMatcher.when(request().withPath("/other.*")).thenRespond(response().withBody("unlimited"));
+        final AtomicInteger limited = new AtomicInteger();
+        final AtomicInteger unlimited = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int j = 0; j < 10; j++) {
+                        HttpResponse httpResponse = (HttpResponse) mockServerMatcher.handle(request().withPath("/otherPath"));
+                        if (httpResponse.getBodyAsString().equals("limited")) {
+                            limited.incrementAndGet();
+                        } else {
+                            unlimited.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertEquals(25, limited.get());
+        assertEquals(55, unlimited.get());
+    }
+}
@@ -7,6 +7,11 @@ import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -98,4 +103,43 @@ public class MockServerMatcherSequentialResponsesTest {
     }
 
 
+
+    @Test
+    public void respondExactlyTheSpecifiedTimesWhenRequestsAreHandledConcurrently() throws InterruptedException {
+        // given
+        mockServerMatcher.when(new HttpRequest().withPath("somepath"), Times.exactly(50), TimeToLive.unlimited()).thenRespond(httpResponse[0].withBody("somebody1"));
+        final AtomicInteger responses = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int j = 0; j < 20; j++) {
+                        if (mockServerMatcher.handle(new HttpRequest().withPath("somepath")) != null) {
+                            responses.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertEquals(50, responses.get());
+        assertNull(mockServerMatcher.handle(new HttpRequest().withPath("somepath")));
+        assertEquals(0, mockServerMatcher.expectations.size());
+    }
 }
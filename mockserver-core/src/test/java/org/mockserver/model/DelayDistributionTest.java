@@ -0,0 +1,94 @@
+package org.mockserver.model;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * @author jamesdbloom
+ */
+public class DelayDistributionTest {
+
+    @Test
+    public void shouldSampleUniformDistribution() {
+        // given
+        DelayDistribution distribution = DelayDistribution.uniform(100, 200);
+
+        // then
+        assertThat(distribution.sample(0.0, 0.0), closeTo(100, 0.001));
+        assertThat(distribution.sample(0.25, 0.0), closeTo(125, 0.001));
+        assertThat(distribution.sample(1.0, 0.0), closeTo(200, 0.001));
+    }
+
+    @Test
+    public void shouldSampleNormalDistribution() {
+        // given
+        DelayDistribution distribution = DelayDistribution.normal(100, 20);
+
+        // then
+        assertThat(distribution.sample(0.5, 0.0), closeTo(100, 0.001));
+        assertThat(distribution.sample(0.5, 1.5), closeTo(130, 0.001));
+        assertThat(distribution.sample(0.5, -2.0), closeTo(60, 0.001));
+    }
+
+    @Test
+    public void shouldNotSampleNegativeValuesFromNormalDistribution() {
+        // given
+        DelayDistribution distribution = DelayDistribution.normal(10, 20);
+
+        // then
+        assertThat(distribution.sample(0.5, -3.0), closeTo(0, 0.001));
+    }
+
+    @Test
+    public void shouldSampleLogNormalDistribution() {
+        // given
+        DelayDistribution distribution = DelayDistribution.logNormal(100, 0.5);
+
+        // then
+        assertThat(distribution.sample(0.5, 0.0), closeTo(100, 0.001));
+        assertThat(distribution.sample(0.5, 2.0), closeTo(100 * Math.E, 0.001));
+        assertThat(distribution.sample(0.5, -2.0), closeTo(100 / Math.E, 0.001));
+    }
+
+    @Test
+    public void shouldSamplePercentilesDistribution() {
+        // given
+        Map<Double, Long> percentiles = new LinkedHashMap<Double, Long>();
+        percentiles.put(99.0, 500L);
+        percentiles.put(50.0, 100L);
+        percentiles.put(95.0, 300L);
+        DelayDistribution distribution = DelayDistribution.percentiles(percentiles);
+
+        // then - below the lowest percentile
+        assertThat(distribution.sample(0.1, 0.0), closeTo(100, 0.001));
+        // then - at each percentile
+        assertThat(distribution.sample(0.5, 0.0), closeTo(100, 0.001));
+        assertThat(distribution.sample(0.95, 0.0), closeTo(300, 0.001));
+        assertThat(distribution.sample(0.99, 0.0), closeTo(500, 0.001));
+        // then - between percentiles
+        assertThat(distribution.sample(0.725, 0.0), closeTo(200, 0.001));
+        assertThat(distribution.sample(0.97, 0.0), closeTo(400, 0.001));
+        // then - above the highest percentile
+        assertThat(distribution.sample(0.999, 0.0), closeTo(500, 0.001));
+    }
+
+    @Test
+    public void shouldSampleWithinDistribution() {
+        // given
+        DelayDistribution distribution = DelayDistribution.uniform(100, 200);
+
+        // then
+        for (int i = 0; i < 1000; i++) {
+            double sample = distribution.sample();
+            assertThat(sample, greaterThanOrEqualTo(100.0));
+            assertThat(sample, lessThanOrEqualTo(200.0));
+        }
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.Test;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 
 /**
@@ -21,4 +24,38 @@ public class DelayTest {
         assertThat(delay.getTimeUnit(), is(TimeUnit.DAYS));
         assertThat(delay.getValue(), is(5l));
     }
+
+    @Test
+    public void shouldReturnFixedDelayInNanoseconds() {
+        // when
+        Delay delay = new Delay(TimeUnit.MILLISECONDS, 5);
+
+        // then
+        assertThat(delay.getDistribution(), is(nullValue()));
+        assertThat(delay.sampleNanos(), is(TimeUnit.MILLISECONDS.toNanos(5)));
+        assertThat(new Delay(null, 5).sampleNanos(), is(0l));
+    }
+
+    @Test
+    public void shouldReturnDistributionCreatedByFactoryMethods() {
+        // then
+        assertThat(Delay.uniform(TimeUnit.SECONDS, 1, 2).getDistribution(), is(DelayDistribution.uniform(1, 2)));
+        assertThat(Delay.normal(TimeUnit.SECONDS, 5, 1).getDistribution(), is(DelayDistribution.normal(5, 1)));
+        assertThat(Delay.logNormal(TimeUnit.SECONDS, 5, 0.5).getDistribution(), is(DelayDistribution.logNormal(5, 0.5)));
+        assertThat(Delay.percentiles(TimeUnit.SECONDS, 1, 2, 3).getDistribution().getPercentiles().toString(), is("{50.0=1, 95.0=2, 99.0=3}"));
+        assertThat(Delay.uniform(TimeUnit.SECONDS, 1, 2).getTimeUnit(), is(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldDrawDelayInNanosecondsFromDistribution() {
+        // when
+        Delay delay = Delay.uniform(TimeUnit.MILLISECONDS, 5, 10);
+
+        // then
+        for (int i = 0; i < 100; i++) {
+            long delayNanos = delay.sampleNanos();
+            assertThat(delayNanos, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5)));
+            assertThat(delayNanos, lessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10)));
+        }
+    }
 }
@@ -6,6 +6,9 @@ import java.util.Arrays;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockserver.model.Header.header;
 import static org.mockserver.model.NottableString.string;
 
@@ -36,5 +39,35 @@ public class HeaderTest {
         assertThat(secondHeader.getValues(), containsInAnyOrder(string("second_one"), string("second_two")));
     }
 
+    @Test
+    public void shouldShareNamesOfCommonReceivedHeaders() {
+        // when
+        Header firstHeader = Header.receivedHeader(new String("Content-Type"), Arrays.asList("application/json"));
+        Header secondHeader = Header.receivedHeader(new String("Content-Type"), Arrays.asList("text/plain"));
+        Header firstUncommonHeader = Header.receivedHeader(new String("X-Some-Header"), Arrays.asList("some_value"));
+        Header secondUncommonHeader = Header.receivedHeader(new String("X-Some-Header"), Arrays.asList("some_value"));
+
+        // then
+        assertThat(firstHeader.getName().getValue(), sameInstance(secondHeader.getName().getValue()));
+        assertThat(firstHeader, is(header("Content-Type", "application/json")));
+        assertThat(firstUncommonHeader.getName().getValue(), not(sameInstance(secondUncommonHeader.getName().getValue())));
+        assertThat(firstUncommonHeader, is(header("X-Some-Header", "some_value")));
+    }
 
+    @Test
+    public void shouldChangeNameOfCommonReceivedHeaderToNotValueWithoutChangingOtherHeaders() {
+        // given
+        NottableString firstName = Header.receivedHeader("Content-Type", Arrays.asList("application/json")).getName();
+        NottableString secondName = Header.receivedHeader("Content-Type", Arrays.asList("text/plain")).getName();
+
+        // when
+        firstName.setNot(true);
+        NottableString notName = Not.not(secondName);
+
+        // then
+        assertThat(firstName.isNot(), is(true));
+        assertThat(notName.isNot(), is(true));
+        assertThat(notName.getValue(), is("Content-Type"));
+        assertThat(Header.receivedHeader("Content-Type", Arrays.asList("text/plain")).getName().isNot(), is(false));
+    }
 }
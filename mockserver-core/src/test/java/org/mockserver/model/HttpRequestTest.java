@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.NottableString.string;
@@ -92,6 +93,21 @@ public class HttpRequestTest {
         assertEquals(new Cookie("name", null), new HttpRequest().withCookie(new Cookie("name", null)).getCookies().get(0));
     }
 
+    @Test
+    public void shouldBeEqualWhenAllFieldsAreEqual() {
+        // given
+        HttpRequest httpRequest = request().withMethod("POST").withPath("/some_path").withQueryStringParameter("name", "value").withHeader("name", "value").withCookie("name", "value").withBody("some_body").withSecure(true).withKeepAlive(true);
+        HttpRequest sameHttpRequest = request().withMethod("POST").withPath("/some_path").withQueryStringParameter("name", "value").withHeader("name", "value").withCookie("name", "value").withBody("some_body").withSecure(true).withKeepAlive(true);
+
+        // then
+        assertEquals(httpRequest, sameHttpRequest);
+        assertEquals(httpRequest.hashCode(), sameHttpRequest.hashCode());
+        assertNotEquals(httpRequest, request().withMethod("POST").withPath("/some_path").withQueryStringParameter("name", "value").withHeader("name", "other_value").withCookie("name", "value").withBody("some_body").withSecure(true).withKeepAlive(true));
+        assertNotEquals(httpRequest, request().withMethod("POST").withPath("/some_path").withQueryStringParameter("name", "value").withHeader("name", "value").withCookie("name", "value").withBody("other_body").withSecure(true).withKeepAlive(true));
+        assertNotEquals(httpRequest, Not.not(request().withMethod("POST").withPath("/some_path").withQueryStringParameter("name", "value").withHeader("name", "value").withCookie("name", "value").withBody("some_body").withSecure(true).withKeepAlive(true)));
+        assertNotEquals(httpRequest, OutboundHttpRequest.outboundRequest("localhost", 80, "", sameHttpRequest));
+    }
+
     @Test
     public void shouldReturnFormattedRequestInToString() {
         TestCase.assertEquals("{" + System.getProperty("line.separator") +
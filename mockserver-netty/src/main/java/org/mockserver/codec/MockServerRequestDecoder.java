@@ -88,7 +88,7 @@ public class MockServerRequestDecoder extends MessageToMessageDecoder<FullHttpRe
     private void setHeaders(HttpRequest httpRequest, FullHttpRequest fullHttpResponse) {
         HttpHeaders headers = fullHttpResponse.headers();
         for (String headerName : headers.names()) {
-            httpRequest.withHeader(new Header(headerName, headers.getAll(headerName)));
+            httpRequest.withHeader(Header.receivedHeader(headerName, headers.getAll(headerName)));
         }
     }
 
@@ -2,6 +2,8 @@ package org.mockserver.codec;
 
 import com.google.common.base.Strings;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
@@ -12,51 +14,68 @@ import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.netty.util.CharsetUtil;
 import org.mockserver.mappers.ContentTypeMapper;
 import org.mockserver.model.Body;
+import org.mockserver.model.ConnectionOptions;
 import org.mockserver.model.Header;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.model.NottableString;
 
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_LENGTH;
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
 import static io.netty.handler.codec.http.HttpHeaders.Names.SET_COOKIE;
+import static org.mockserver.model.ConnectionOptions.isFalseOrNull;
 
 /**
+ * Encodes the body once, directly into a pooled buffer, and takes the Content-Length header from that buffer
+ * unless the connection options of the response override or suppress it, byte bodies are wrapped not copied
+ *
  * @author jamesdbloom
  */
 public class MockServerResponseEncoder extends MessageToMessageEncoder<HttpResponse> {
+
     @Override
     protected void encode(ChannelHandlerContext ctx, HttpResponse response, List<Object> out) {
+        ByteBuf content = getBody(response);
         DefaultFullHttpResponse defaultFullHttpResponse = new DefaultFullHttpResponse(
                 HttpVersion.HTTP_1_1,
                 HttpResponseStatus.valueOf((response.getStatusCode() != null ? response.getStatusCode() : 200)),
-                getBody(response)
+                content
         );
         setHeaders(response, defaultFullHttpResponse);
+        setContentLength(response, content, defaultFullHttpResponse);
         setCookies(response, defaultFullHttpResponse);
         out.add(defaultFullHttpResponse);
     }
 
     private ByteBuf getBody(HttpResponse response) {
-        ByteBuf content = Unpooled.buffer(0, 0);
-
         Body body = response.getBody();
         if (body != null) {
             Object bodyContents = body.getValue();
-            Charset bodyCharset = body.getCharset(ContentTypeMapper.determineCharsetForMessage(response));
             if (bodyContents instanceof byte[]) {
-                content = Unpooled.copiedBuffer((byte[]) bodyContents);
-            } else if (bodyContents instanceof String) {
-                content = Unpooled.copiedBuffer(((String) bodyContents).getBytes(bodyCharset));
-            } else if (body.toString() != null) {
-                content = Unpooled.copiedBuffer(body.toString().getBytes(bodyCharset));
+                return Unpooled.wrappedBuffer((byte[]) bodyContents);
+            }
+            String bodyString = bodyContents instanceof String ? (String) bodyContents : body.toString();
+            if (bodyString != null && !bodyString.isEmpty()) {
+                Charset bodyCharset = body.getCharset(ContentTypeMapper.determineCharsetForMessage(response));
+                if (CharsetUtil.UTF_8.equals(bodyCharset)) {
+                    ByteBuf content = PooledByteBufAllocator.DEFAULT.buffer(bodyString.length());
+                    ByteBufUtil.writeUtf8(content, bodyString);
+                    return content;
+                } else {
+                    return ByteBufUtil.encodeString(PooledByteBufAllocator.DEFAULT, CharBuffer.wrap(bodyString), bodyCharset);
+                }
             }
         }
-        return content;
+        return Unpooled.EMPTY_BUFFER;
     }
 
     private void setHeaders(HttpResponse response, DefaultFullHttpResponse httpServletResponse) {
@@ -81,30 +100,44 @@ public class MockServerResponseEncoder extends MessageToMessageEncoder<HttpRespo
         }
     }
 
+    private void setContentLength(HttpResponse response, ByteBuf content, DefaultFullHttpResponse httpServletResponse) {
+        ConnectionOptions connectionOptions = response.getConnectionOptions();
+        if (connectionOptions == null || (connectionOptions.getContentLengthHeaderOverride() == null && isFalseOrNull(connectionOptions.getSuppressContentLengthHeader()))) {
+            httpServletResponse.headers().set(CONTENT_LENGTH, content.readableBytes());
+        }
+    }
+
     private void setCookies(HttpResponse response, DefaultFullHttpResponse httpServletResponse) {
-        if (response.getCookies() != null) {
-            List<Cookie> cookieValues = new ArrayList<Cookie>();
+        if (response.getCookies() != null && !response.getCookies().isEmpty()) {
+            Set<String> existingCookies = existingCookies(httpServletResponse);
             for (org.mockserver.model.Cookie cookie : response.getCookies()) {
-                if (!cookieHeaderAlreadyExists(response, cookie)) {
-                    cookieValues.add(new DefaultCookie(cookie.getName().getValue(), cookie.getValue().getValue()));
+                if (!existingCookies.contains(cookieKey(cookie.getName().getValue(), cookie.getValue().getValue()))) {
+                    httpServletResponse.headers().add(SET_COOKIE, ServerCookieEncoder.LAX.encode(new DefaultCookie(cookie.getName().getValue(), cookie.getValue().getValue())));
                 }
             }
-            for (Cookie cookieValue : cookieValues) {
-                httpServletResponse.headers().add(SET_COOKIE, ServerCookieEncoder.LAX.encode(cookieValue));
-            }
         }
     }
 
-    private boolean cookieHeaderAlreadyExists(HttpResponse response, org.mockserver.model.Cookie cookieValue) {
-        List<String> setCookieHeaders = response.getHeader(SET_COOKIE);
-        setCookieHeaders.addAll(response.getHeader(SET_COOKIE.toLowerCase()));
+    /**
+     * The name and value of the cookies already set by a Set-Cookie header, each header is decoded once
+     */
+    private Set<String> existingCookies(DefaultFullHttpResponse httpServletResponse) {
+        List<String> setCookieHeaders = httpServletResponse.headers().getAll(SET_COOKIE);
+        if (setCookieHeaders.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> existingCookies = new HashSet<String>();
         for (String setCookieHeader : setCookieHeaders) {
-            String existingCookieName = ClientCookieDecoder.LAX.decode(setCookieHeader).name();
-            String existingCookieValue = ClientCookieDecoder.LAX.decode(setCookieHeader).value();
-            if (existingCookieName.equalsIgnoreCase(cookieValue.getName().getValue()) && existingCookieValue.equalsIgnoreCase(cookieValue.getValue().getValue())) {
-                return true;
+            Cookie existingCookie = ClientCookieDecoder.LAX.decode(setCookieHeader);
+            if (existingCookie != null) {
+                existingCookies.add(cookieKey(existingCookie.name(), existingCookie.value()));
             }
         }
-        return false;
+        return existingCookies;
+    }
+
+    private String cookieKey(String name, String value) {
+        // cookies are matched ignoring case, a cookie name can't contain an equals sign
+        return name.toLowerCase() + "=" + value.toLowerCase();
     }
 }
@@ -1,9 +1,11 @@
 package org.mockserver.mockserver;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.net.MediaType;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -11,10 +13,10 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.util.AttributeKey;
 import org.mockserver.client.serialization.*;
 import org.mockserver.filters.RequestLogFilter;
 import org.mockserver.logging.LogFormatter;
-import org.mockserver.mappers.ContentTypeMapper;
 import org.mockserver.mock.Expectation;
 import org.mockserver.mock.MockServerMatcher;
 import org.mockserver.mock.action.ActionHandler;
@@ -28,7 +30,10 @@ import org.slf4j.LoggerFactory;
 
 import java.net.BindException;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONNECTION;
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_LENGTH;
@@ -41,6 +46,8 @@ import static org.mockserver.model.PortBinding.portBinding;
 @ChannelHandler.Sharable
 public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest> {
 
+    // set while a delayed response is waiting to be written, holds the requests received on the connection since
+    private static final AttributeKey<Queue<HttpRequest>> QUEUED_REQUESTS = AttributeKey.valueOf("MOCK_SERVER_QUEUED_REQUESTS");
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private LogFormatter logFormatter = new LogFormatter(logger);
     // mockserver
@@ -48,6 +55,7 @@ public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest>
     private RequestLogFilter requestLogFilter;
     private MockServerMatcher mockServerMatcher;
     private ActionHandler actionHandler;
+    private PreEncodedResponses preEncodedResponses;
     // serializers
     private ExpectationSerializer expectationSerializer = new ExpectationSerializer();
     private HttpRequestSerializer httpRequestSerializer = new HttpRequestSerializer();
@@ -58,20 +66,35 @@ public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest>
     private ExpectationValidator expectationValidator = new ExpectationValidator();
 
     public MockServerHandler(MockServer server, MockServerMatcher mockServerMatcher, RequestLogFilter requestLogFilter) {
+        this(server, mockServerMatcher, requestLogFilter, new PreEncodedResponses());
+    }
+
+    public MockServerHandler(MockServer server, MockServerMatcher mockServerMatcher, RequestLogFilter requestLogFilter, PreEncodedResponses preEncodedResponses) {
         this.mockServerMatcher = mockServerMatcher;
         this.server = server;
         this.requestLogFilter = requestLogFilter;
+        this.preEncodedResponses = preEncodedResponses;
         actionHandler = new ActionHandler(requestLogFilter);
     }
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, HttpRequest request) {
+        Queue<HttpRequest> queuedRequests = ctx.attr(QUEUED_REQUESTS).get();
+        if (queuedRequests != null) {
+            // handled once the delayed response has been written so pipelined requests are answered in order
+            queuedRequests.add(request);
+        } else {
+            handle(ctx, request);
+        }
+    }
+
+    private void handle(final ChannelHandlerContext ctx, final HttpRequest request) {
 
         try {
             if (request.matches("PUT", "/status")) {
 
                 List<Integer> actualPortBindings = server.getPorts();
-                writeResponse(ctx, request, HttpResponseStatus.OK, portBindingSerializer.serialize(portBinding(actualPortBindings)), "application/json");
+                writeResponse(ctx, request, HttpResponseStatus.OK, portBindingSerializer.serialize(portBinding(actualPortBindings).setMatchCache(mockServerMatcher.matchCacheStatus()).setDelays(mockServerMatcher.delayHistogramStatus())), "application/json");
 
             } else if (request.matches("PUT", "/bind")) {
 
@@ -163,22 +186,33 @@ public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest>
             } else {
 
                 Action handle = mockServerMatcher.handle(request);
+                final PreEncodedResponses.PreEncodedResponse preEncodedResponse = handle instanceof HttpResponse ? preEncodedResponse(ctx, (HttpResponse) handle) : null;
                 if (handle instanceof HttpError) {
-                    HttpError httpError = ((HttpError) handle).applyDelay();
-                    if (httpError.getResponseBytes() != null) {
-                        // write byte directly by skipping over HTTP codec
-                        ChannelHandlerContext httpCodecContext = ctx.pipeline().context(HttpServerCodec.class);
-                        if (httpCodecContext != null) {
-                            httpCodecContext.writeAndFlush(Unpooled.wrappedBuffer(httpError.getResponseBytes())).awaitUninterruptibly();
+                    final HttpError httpError = (HttpError) handle;
+                    writeAfterDelay(ctx, request, mockServerMatcher.delayNanos(httpError), new Runnable() {
+                        @Override
+                        public void run() {
+                            writeError(ctx, httpError);
                         }
-                    }
-                    if (httpError.getDropConnection()) {
-                        ctx.close();
-                    }
+                    });
+                } else if (preEncodedResponse != null) {
+                    HttpResponse response = actionHandler.processUnmodifiedResponse((HttpResponse) handle, request);
+                    logFormatter.infoLog("returning response:{}" + System.getProperty("line.separator") + " for request:{}", response, request);
+                    writeAfterDelay(ctx, request, mockServerMatcher.delayNanos(handle), new Runnable() {
+                        @Override
+                        public void run() {
+                            writePreEncodedResponse(ctx, request, preEncodedResponse);
+                        }
+                    });
                 } else {
-                    HttpResponse response = actionHandler.processAction(handle, request);
+                    final HttpResponse response = actionHandler.processAction(handle, request);
                     logFormatter.infoLog("returning response:{}" + System.getProperty("line.separator") + " for request:{}", response, request);
-                    writeResponse(ctx, request, response);
+                    writeAfterDelay(ctx, request, mockServerMatcher.delayNanos(handle), new Runnable() {
+                        @Override
+                        public void run() {
+                            writeResponse(ctx, request, response);
+                        }
+                    });
                 }
 
             }
@@ -189,6 +223,101 @@ public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest>
 
     }
 
+    /**
+     * Writes once the delay has passed by scheduling the write on the channel's event loop, rather than sleeping,
+     * so a delayed response doesn't stop the event loop serving its other channels while it waits
+     *
+     * until the delayed response is written the connection isn't read and requests already received on it are
+     * queued, so a later request on the same connection (i.e. a pipelined request) is never answered first
+     */
+    private void writeAfterDelay(final ChannelHandlerContext ctx, final HttpRequest request, long delayNanos, final Runnable write) {
+        if (delayNanos > 0) {
+            ctx.attr(QUEUED_REQUESTS).set(new ArrayDeque<HttpRequest>());
+            ctx.channel().config().setAutoRead(false);
+            ctx.executor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        write.run();
+                    } catch (Exception e) {
+                        logger.error("Exception processing " + request, e);
+                        writeResponse(ctx, request, HttpResponseStatus.BAD_REQUEST);
+                    }
+                    handleQueuedRequests(ctx);
+                    // the read has already completed so the writes aren't flushed by channelReadComplete
+                    ctx.flush();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            write.run();
+        }
+    }
+
+    /**
+     * Handles the requests queued while a delayed response was waiting, in the order they were received, until
+     * one of them is also delayed, the remaining requests then wait for it, otherwise the connection is read again
+     */
+    private void handleQueuedRequests(ChannelHandlerContext ctx) {
+        Queue<HttpRequest> queuedRequests = ctx.attr(QUEUED_REQUESTS).getAndSet(null);
+        HttpRequest queuedRequest;
+        while ((queuedRequest = queuedRequests.poll()) != null) {
+            handle(ctx, queuedRequest);
+            Queue<HttpRequest> delayedQueue = ctx.attr(QUEUED_REQUESTS).get();
+            if (delayedQueue != null) {
+                delayedQueue.addAll(queuedRequests);
+                return;
+            }
+        }
+        ctx.channel().config().setAutoRead(true);
+    }
+
+    /**
+     * Returns the response encoded once for every request, which is encoded when it is first returned, not when
+     * the expectation is added, or null if the response can't be written as bytes as it depends on the request or
+     * there is no http codec to write the bytes from
+     */
+    private PreEncodedResponses.PreEncodedResponse preEncodedResponse(ChannelHandlerContext ctx, HttpResponse response) {
+        return ctx.pipeline().context(HttpServerCodec.class) != null ? preEncode(response) : null;
+    }
+
+    private PreEncodedResponses.PreEncodedResponse preEncode(HttpResponse response) {
+        if (!PreEncodedResponses.canPreEncode(response)) {
+            return null;
+        }
+        Optional<PreEncodedResponses.PreEncodedResponse> preEncodedResponse = preEncodedResponses.get(response);
+        if (preEncodedResponse == null) {
+            HttpResponse completeResponse = response.shallowClone();
+            addContentLengthHeader(completeResponse);
+            addContentTypeHeader(completeResponse);
+            preEncodedResponse = preEncodedResponses.encode(response, completeResponse);
+        }
+        return preEncodedResponse.orNull();
+    }
+
+    private void writePreEncodedResponse(ChannelHandlerContext ctx, HttpRequest request, PreEncodedResponses.PreEncodedResponse preEncodedResponse) {
+        boolean keepAlive = request.isKeepAlive() != null && request.isKeepAlive();
+        // write bytes directly by skipping over HTTP codec
+        ChannelHandlerContext httpCodecContext = ctx.pipeline().context(HttpServerCodec.class);
+        ChannelFuture channelFuture = preEncodedResponse.write(httpCodecContext, keepAlive);
+        if (!keepAlive) {
+            httpCodecContext.flush();
+            channelFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private void writeError(ChannelHandlerContext ctx, HttpError httpError) {
+        if (httpError.getResponseBytes() != null) {
+            // write byte directly by skipping over HTTP codec
+            ChannelHandlerContext httpCodecContext = ctx.pipeline().context(HttpServerCodec.class);
+            if (httpCodecContext != null) {
+                httpCodecContext.writeAndFlush(Unpooled.wrappedBuffer(httpError.getResponseBytes())).awaitUninterruptibly();
+            }
+        }
+        if (httpError.getDropConnection()) {
+            ctx.close();
+        }
+    }
+
     private void writeResponse(ChannelHandlerContext ctx, HttpRequest request, HttpResponseStatus responseStatus) {
         writeResponse(ctx, request, responseStatus, "", "application/json");
     }
@@ -228,25 +357,11 @@ public class MockServerHandler extends SimpleChannelInboundHandler<HttpRequest>
     }
 
     private void addContentLengthHeader(HttpResponse response) {
+        // by default the content length is set by the encoder from the encoded body, so the body is only encoded once
         ConnectionOptions connectionOptions = response.getConnectionOptions();
         if (connectionOptions != null && connectionOptions.getContentLengthHeaderOverride() != null) {
             response.updateHeader(header(CONTENT_LENGTH, connectionOptions.getContentLengthHeaderOverride()));
-        } else if (connectionOptions == null || isFalseOrNull(connectionOptions.getSuppressContentLengthHeader())) {
-            Body body = response.getBody();
-            byte[] bodyBytes = new byte[0];
-            if (body != null) {
-                Object bodyContents = body.getValue();
-                Charset bodyCharset = body.getCharset(ContentTypeMapper.determineCharsetForMessage(response));
-                if (bodyContents instanceof byte[]) {
-                    bodyBytes = (byte[]) bodyContents;
-                } else if (bodyContents instanceof String) {
-                    bodyBytes = ((String) bodyContents).getBytes(bodyCharset);
-                } else if (body.toString() != null) {
-                    bodyBytes = body.toString().getBytes(bodyCharset);
-                }
-            }
-            response.updateHeader(header(CONTENT_LENGTH, bodyBytes.length));
-        } else {
+        } else if (connectionOptions != null && !isFalseOrNull(connectionOptions.getSuppressContentLengthHeader())) {
             response.updateHeader(header(CONTENT_LENGTH, ""));
         }
     }
@@ -2,7 +2,9 @@ package org.mockserver.mockserver;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpObjectAggregator;
 import org.mockserver.codec.MockServerServerCodec;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.logging.LoggingHandler;
 import org.mockserver.mock.MockServerMatcher;
 import org.mockserver.server.unification.PortUnificationHandler;
@@ -14,6 +16,9 @@ public class MockServerInitializer extends PortUnificationHandler {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final MockServerMatcher mockServerMatcher;
     private final MockServer mockServer;
+    // shared by every channel so each response is only encoded once
+    private final PreEncodedResponses preEncodedResponses = new PreEncodedResponses(ConfigurationProperties.maxPreEncodedResponseBytes());
+    private final int streamingBodyThreshold = ConfigurationProperties.streamingBodyThreshold();
 
     public MockServerInitializer(MockServerMatcher mockServerMatcher, MockServer mockServer) {
         this.mockServerMatcher = mockServerMatcher;
@@ -22,6 +27,12 @@ public class MockServerInitializer extends PortUnificationHandler {
 
     @Override
     protected void configurePipeline(ChannelHandlerContext ctx, ChannelPipeline pipeline) {
+        // stream large bodies that aren't needed, and reject bodies that are too large, before they are aggregated
+        int maxAggregatedContentLength = ConfigurationProperties.maxAggregatedContentLength();
+        if (streamingBodyThreshold > 0 || maxAggregatedContentLength < Integer.MAX_VALUE) {
+            pipeline.addBefore(pipeline.context(HttpObjectAggregator.class).name(), null, new StreamingBodyHandler(mockServerMatcher, streamingBodyThreshold, maxAggregatedContentLength));
+        }
+
         // add logging
         if (logger.isDebugEnabled()) {
             pipeline.addLast(new LoggingHandler(logger));
@@ -34,6 +45,6 @@ public class MockServerInitializer extends PortUnificationHandler {
         pipeline.addLast(new MockServerServerCodec(isSecure));
 
         // add mock server handlers
-        pipeline.addLast(new MockServerHandler(mockServer, mockServerMatcher, ctx.channel().attr(MockServer.LOG_FILTER).get()));
+        pipeline.addLast(new MockServerHandler(mockServer, mockServerMatcher, ctx.channel().attr(MockServer.LOG_FILTER).get(), preEncodedResponses));
     }
 }
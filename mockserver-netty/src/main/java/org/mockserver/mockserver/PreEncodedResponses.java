@@ -0,0 +1,199 @@
+package org.mockserver.mockserver;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.util.CharsetUtil;
+import org.mockserver.codec.MockServerResponseEncoder;
+import org.mockserver.configuration.ConfigurationProperties;
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpResponse;
+
+import static io.netty.handler.codec.http.HttpHeaders.Names.CONNECTION;
+
+/**
+ * The bytes of the responses that are the same for every request, i.e. responses without connection options or
+ * a connection header, encoded once so when a response is returned again its bytes are written without the
+ * response being copied or encoded, only the connection header is written for each request
+ *
+ * a response is encoded when it is first returned, not when its expectation is added, so responses that are
+ * never returned are never encoded, the total size of the encoded responses is limited, the least recently
+ * used are removed once the limit is reached and are encoded again if they are returned again
+ *
+ * the bytes are held in an unreleasable heap buffer, which is written as duplicates so writing the response
+ * doesn't release it, and responses are held by weak reference so the buffer is freed once the expectation
+ * the response belongs to has been removed and collected
+ *
+ * @author jamesdbloom
+ */
+public class PreEncodedResponses {
+
+    private static final int MAXIMUM_ENCODED_SIZE = 1024 * 1024;
+    // the maximum weight is divided between the segments of the cache, so no response can be larger than a segment
+    private static final int CONCURRENCY_LEVEL = 4;
+    private static final ByteBuf KEEP_ALIVE = constant("Connection: keep-alive\r\n");
+    private static final ByteBuf CLOSE = constant("Connection: close\r\n");
+    private static final byte[] END_OF_HEADERS = "\r\n\r\n".getBytes(CharsetUtil.US_ASCII);
+    private final long maximumEncodedSize;
+    // keys are compared by identity as the responses belong to an expectation and aren't modified once added
+    private final Cache<HttpResponse, Optional<PreEncodedResponse>> cache;
+
+    public PreEncodedResponses() {
+        this(ConfigurationProperties.maxPreEncodedResponseBytes());
+    }
+
+    /**
+     * @param maximumBytes the maximum total size of the encoded responses, responses larger than a quarter of it aren't pre-encoded
+     */
+    public PreEncodedResponses(long maximumBytes) {
+        this.maximumEncodedSize = Math.min(MAXIMUM_ENCODED_SIZE, maximumBytes / CONCURRENCY_LEVEL);
+        this.cache = CacheBuilder.newBuilder()
+                .weakKeys()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumWeight(maximumBytes)
+                .weigher(new Weigher<HttpResponse, Optional<PreEncodedResponse>>() {
+                    @Override
+                    public int weigh(HttpResponse response, Optional<PreEncodedResponse> preEncodedResponse) {
+                        // responses that weren't pre-encoded hold no bytes so are only removed once collected
+                        return preEncodedResponse.isPresent() ? preEncodedResponse.get().size() : 0;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns true if the response can be pre-encoded as it has no parts that depend on the request
+     */
+    public static boolean canPreEncode(HttpResponse response) {
+        if (response.getConnectionOptions() != null) {
+            return false;
+        }
+        for (Header header : response.getHeaders()) {
+            if (header.getName().getValue().equalsIgnoreCase(CONNECTION)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the response pre-encoded, which is absent if the response was too large to be pre-encoded,
+     * or null if the response hasn't been encoded or was removed to keep the encoded responses within the limit
+     */
+    public Optional<PreEncodedResponse> get(HttpResponse response) {
+        return cache.getIfPresent(response);
+    }
+
+    /**
+     * Encodes the response once its content length and content type headers have been added, the response
+     * is only pre-encoded if it is smaller than a megabyte and a quarter of the maximum size of the encoded responses
+     *
+     * @param response         the response as returned by the expectation
+     * @param completeResponse a copy of the response with its content length and content type headers added
+     */
+    public Optional<PreEncodedResponse> encode(HttpResponse response, HttpResponse completeResponse) {
+        PreEncodedResponse preEncodedResponse = null;
+        ByteBuf encoded = encode(completeResponse);
+        try {
+            int endOfHeaders = endOfHeaders(encoded);
+            if (encoded.readableBytes() <= maximumEncodedSize && endOfHeaders >= 0) {
+                ByteBuf bytes = unreleasableBuffer(encoded);
+                // the connection header is written after the last header, i.e. before the blank line ending the headers
+                int connectionHeaderIndex = endOfHeaders + 2;
+                preEncodedResponse = new PreEncodedResponse(
+                        bytes.slice(0, connectionHeaderIndex),
+                        bytes.slice(connectionHeaderIndex, bytes.readableBytes() - connectionHeaderIndex)
+                );
+            }
+        } finally {
+            encoded.release();
+        }
+        Optional<PreEncodedResponse> result = Optional.fromNullable(preEncodedResponse);
+        cache.put(response, result);
+        return result;
+    }
+
+    private static ByteBuf encode(HttpResponse response) {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpResponseEncoder(), new MockServerResponseEncoder());
+        channel.writeOutbound(response);
+        channel.finish();
+        ByteBuf encoded = Unpooled.buffer();
+        Object output;
+        while ((output = channel.readOutbound()) != null) {
+            ByteBuf buffer = (ByteBuf) output;
+            encoded.writeBytes(buffer);
+            buffer.release();
+        }
+        return encoded;
+    }
+
+    private static int endOfHeaders(ByteBuf encoded) {
+        for (int i = encoded.readerIndex(); i <= encoded.writerIndex() - END_OF_HEADERS.length; i++) {
+            int matched = 0;
+            while (matched < END_OF_HEADERS.length && encoded.getByte(i + matched) == END_OF_HEADERS[matched]) {
+                matched++;
+            }
+            if (matched == END_OF_HEADERS.length) {
+                return i - encoded.readerIndex();
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuf constant(String value) {
+        return unreleasableBuffer(Unpooled.wrappedBuffer(value.getBytes(CharsetUtil.US_ASCII)));
+    }
+
+    /**
+     * Copies the bytes into a heap buffer of exactly their size, a direct buffer would be allocated outside the
+     * pool, as the bytes are never released, and would only be freed once the garbage collector found it
+     */
+    private static ByteBuf unreleasableBuffer(ByteBuf bytes) {
+        return Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(bytes));
+    }
+
+    /**
+     * The total size of the responses held encoded
+     */
+    long encodedBytes() {
+        long encodedBytes = 0;
+        for (Optional<PreEncodedResponse> preEncodedResponse : cache.asMap().values()) {
+            encodedBytes += preEncodedResponse.isPresent() ? preEncodedResponse.get().size() : 0;
+        }
+        return encodedBytes;
+    }
+
+    public static class PreEncodedResponse {
+
+        private final ByteBuf statusLineAndHeaders;
+        private final ByteBuf endOfHeadersAndBody;
+
+        private PreEncodedResponse(ByteBuf statusLineAndHeaders, ByteBuf endOfHeadersAndBody) {
+            this.statusLineAndHeaders = statusLineAndHeaders;
+            this.endOfHeadersAndBody = endOfHeadersAndBody;
+        }
+
+        int size() {
+            return statusLineAndHeaders.readableBytes() + endOfHeadersAndBody.readableBytes();
+        }
+
+        /**
+         * Writes the response with the connection header for the request
+         *
+         * @param ctx       the context of the http codec so the bytes written aren't encoded again
+         * @param keepAlive true if the connection header is keep-alive, false if it is close
+         */
+        public ChannelFuture write(ChannelHandlerContext ctx, boolean keepAlive) {
+            ctx.write(statusLineAndHeaders.duplicate());
+            ctx.write((keepAlive ? KEEP_ALIVE : CLOSE).duplicate());
+            return ctx.write(endOfHeadersAndBody.duplicate());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.mockserver.mockserver;
+
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import io.netty.util.ReferenceCountUtil;
+import org.mockserver.mock.MockServerMatcher;
+import org.mockserver.url.URLParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+
+import static org.mockserver.model.HttpRequest.request;
+
+/**
+ * Sits in front of the HttpObjectAggregator so a large request body is never held in memory unless it is needed,
+ * a body larger than the streaming threshold that no expectation can need, i.e. the request can't match any
+ * expectation or no expectation has a body matcher, is released as each chunk is received and the request is
+ * passed on with an empty body, a body larger than the maximum aggregated length is rejected with a 413 status
+ * code before any of it has been received
+ *
+ * @author jamesdbloom
+ */
+public class StreamingBodyHandler extends ChannelInboundHandlerAdapter {
+
+    // requests to these paths are handled by the MockServer itself so always need their body
+    private static final Set<String> CONTROL_PATHS = ImmutableSet.of(
+            "/status", "/bind", "/expectation", "/clear", "/reset", "/dumpToLog", "/retrieve", "/verify", "/verifySequence", "/stop"
+    );
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final MockServerMatcher mockServerMatcher;
+    private final long streamingBodyThreshold;
+    private final long maxAggregatedContentLength;
+    private boolean discarding;
+    private boolean tooLarge;
+    private long discarded;
+
+    /**
+     * @param streamingBodyThreshold     the size of a body above which it is discarded if it isn't needed, 0 never discards a body
+     * @param maxAggregatedContentLength the size of a body above which the request is rejected
+     */
+    public StreamingBodyHandler(MockServerMatcher mockServerMatcher, long streamingBodyThreshold, long maxAggregatedContentLength) {
+        this.mockServerMatcher = mockServerMatcher;
+        this.streamingBodyThreshold = streamingBodyThreshold;
+        this.maxAggregatedContentLength = maxAggregatedContentLength;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest && !(msg instanceof FullHttpRequest)) {
+            HttpRequest httpRequest = (HttpRequest) msg;
+            long contentLength = HttpHeaders.getContentLength(httpRequest, -1);
+            discarded = 0;
+            if (contentLength > maxAggregatedContentLength) {
+                tooLarge = true;
+                discarding = true;
+                logger.warn("Rejecting " + httpRequest.getMethod() + " " + httpRequest.getUri() + " as its body of " + contentLength + " bytes is larger than the maximum of " + maxAggregatedContentLength + " bytes");
+                DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, Unpooled.EMPTY_BUFFER);
+                HttpHeaders.setContentLength(response, 0);
+                HttpHeaders.setHeader(response, HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+                ReferenceCountUtil.release(msg);
+                return;
+            } else if (streamingBodyThreshold > 0 && contentLength > streamingBodyThreshold && !bodyRequired(httpRequest)) {
+                tooLarge = false;
+                discarding = true;
+                // the body passed on is empty, and a client expecting 100-continue must still be asked to send the body
+                HttpHeaders.setContentLength(httpRequest, 0);
+            } else {
+                tooLarge = false;
+                discarding = false;
+            }
+            ctx.fireChannelRead(msg);
+        } else if (msg instanceof HttpContent && discarding) {
+            HttpContent httpContent = (HttpContent) msg;
+            discarded += httpContent.content().readableBytes();
+            if (msg instanceof LastHttpContent) {
+                discarding = false;
+                if (!tooLarge) {
+                    logger.debug("Discarded request body of " + discarded + " bytes as no expectation can match it");
+                    LastHttpContent lastHttpContent = new DefaultLastHttpContent();
+                    lastHttpContent.trailingHeaders().set(((LastHttpContent) msg).trailingHeaders());
+                    ReferenceCountUtil.release(msg);
+                    ctx.fireChannelRead(lastHttpContent);
+                    return;
+                }
+            }
+            ReferenceCountUtil.release(msg);
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    private boolean bodyRequired(HttpRequest httpRequest) {
+        String path = URLParser.returnPath(new QueryStringDecoder(httpRequest.getUri()).path());
+        if (httpRequest.getMethod().equals(HttpMethod.PUT) && CONTROL_PATHS.contains(path)) {
+            return true;
+        }
+        return mockServerMatcher.bodyRequired(request().withMethod(httpRequest.getMethod().name()).withPath(path));
+    }
+}
@@ -15,8 +15,6 @@ import org.mockserver.filters.HopByHopHeaderFilter;
 import org.mockserver.filters.RequestLogFilter;
 import org.mockserver.filters.RequestResponseLogFilter;
 import org.mockserver.logging.LogFormatter;
-import org.mockserver.mappers.ContentTypeMapper;
-import org.mockserver.model.Body;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.model.OutboundHttpRequest;
@@ -29,10 +27,7 @@ import org.mockserver.verify.VerificationSequence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.Charset;
-
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONNECTION;
-import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_LENGTH;
 import static org.mockserver.model.Header.header;
 import static org.mockserver.model.HttpResponse.notFoundResponse;
 import static org.mockserver.model.HttpResponse.response;
@@ -192,7 +187,6 @@ public class HttpProxyHandler extends SimpleChannelInboundHandler<HttpRequest> {
     }
 
     private void writeResponse(ChannelHandlerContext ctx, HttpRequest request, HttpResponse response) {
-        addContentLengthHeader(response);
         if (request.isKeepAlive() != null && request.isKeepAlive()) {
             response.updateHeader(header(CONNECTION, HttpHeaders.Values.KEEP_ALIVE));
             ctx.write(response);
@@ -202,23 +196,6 @@ public class HttpProxyHandler extends SimpleChannelInboundHandler<HttpRequest> {
         }
     }
 
-    private void addContentLengthHeader(HttpResponse response) {
-        Body body = response.getBody();
-        byte[] bodyBytes = new byte[0];
-        if (body != null) {
-            Object bodyContents = body.getValue();
-            Charset bodyCharset = body.getCharset(ContentTypeMapper.determineCharsetForMessage(response));
-            if (bodyContents instanceof byte[]) {
-                bodyBytes = (byte[]) bodyContents;
-            } else if (bodyContents instanceof String) {
-                bodyBytes = ((String) bodyContents).getBytes(bodyCharset);
-            } else if (body.toString() != null) {
-                bodyBytes = body.toString().getBytes(bodyCharset);
-            }
-        }
-        response.updateHeader(header(CONTENT_LENGTH, bodyBytes.length));
-    }
-
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         ctx.flush();
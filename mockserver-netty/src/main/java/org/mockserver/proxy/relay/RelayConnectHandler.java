@@ -10,6 +10,7 @@ import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.ssl.SslHandler;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.logging.LoggingHandler;
 import org.mockserver.proxy.http.HttpProxy;
 import org.mockserver.proxy.unification.PortUnificationHandler;
@@ -56,7 +57,7 @@ public abstract class RelayConnectHandler<T> extends SimpleChannelInboundHandler
 
                                         downstreamPipeline.addLast(new HttpContentDecompressor());
 
-                                        downstreamPipeline.addLast(new HttpObjectAggregator(Integer.MAX_VALUE));
+                                        downstreamPipeline.addLast(new HttpObjectAggregator(ConfigurationProperties.maxAggregatedContentLength()));
 
                                         downstreamPipeline.addLast(new DownstreamProxyRelayHandler(serverCtx.channel(), logger));
 
@@ -76,7 +77,7 @@ public abstract class RelayConnectHandler<T> extends SimpleChannelInboundHandler
 
                                         upstreamPipeline.addLast(new HttpContentDecompressor());
 
-                                        upstreamPipeline.addLast(new HttpObjectAggregator(Integer.MAX_VALUE));
+                                        upstreamPipeline.addLast(new HttpObjectAggregator(ConfigurationProperties.maxAggregatedContentLength()));
 
                                         upstreamPipeline.addLast(new UpstreamProxyRelayHandler(clientCtx.channel(), logger));
                                     }
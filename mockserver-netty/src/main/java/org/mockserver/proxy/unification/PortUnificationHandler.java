@@ -13,6 +13,7 @@ import io.netty.handler.codec.socks.SocksMessageEncoder;
 import io.netty.handler.codec.socks.SocksProtocolVersion;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AttributeKey;
+import org.mockserver.configuration.ConfigurationProperties;
 import org.mockserver.logging.LoggingHandler;
 import org.mockserver.proxy.socks.SocksProxyHandler;
 import org.mockserver.socket.SSLFactory;
@@ -172,7 +173,7 @@ public abstract class PortUnificationHandler extends SimpleChannelInboundHandler
 
         addLastIfNotPresent(pipeline, new HttpServerCodec());
         addLastIfNotPresent(pipeline, new HttpContentDecompressor());
-        addLastIfNotPresent(pipeline, new HttpObjectAggregator(Integer.MAX_VALUE));
+        addLastIfNotPresent(pipeline, new HttpObjectAggregator(ConfigurationProperties.maxAggregatedContentLength()));
 
         configurePipeline(ctx, pipeline);
         pipeline.remove(this);
@@ -1,10 +1,13 @@
 package org.mockserver.codec;
 
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaders;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockserver.mappers.ContentTypeMapper;
+import org.mockserver.model.ConnectionOptions;
 import org.mockserver.model.Cookie;
 import org.mockserver.model.Header;
 import org.mockserver.model.HttpResponse;
@@ -13,8 +16,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
-import static org.hamcrest.collection.IsEmptyIterable.emptyIterable;
 import static org.hamcrest.core.Is.is;
 import static org.mockserver.model.BinaryBody.binary;
 import static org.mockserver.model.HttpResponse.response;
@@ -62,7 +65,8 @@ public class MockServerResponseEncoderBasicMappingTest {
 
         // then
         HttpHeaders headers = ((FullHttpResponse) output.get(0)).headers();
-        assertThat(headers, emptyIterable());
+        assertThat(headers.names(), contains("Content-Length"));
+        assertThat(headers.get("Content-Length"), is("0"));
     }
 
     @Test
@@ -91,7 +95,8 @@ public class MockServerResponseEncoderBasicMappingTest {
 
         // then
         HttpHeaders headers = ((FullHttpResponse) output.get(0)).headers();
-        assertThat(headers, emptyIterable());
+        assertThat(headers.names(), contains("Content-Length"));
+        assertThat(headers.get("Content-Length"), is("0"));
     }
 
     @Test
@@ -143,7 +148,7 @@ public class MockServerResponseEncoderBasicMappingTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array()), is("somebody"));
+        assertThat(new String(bytes(fullHttpResponse.content())), is("somebody"));
     }
 
     @Test
@@ -159,4 +164,54 @@ public class MockServerResponseEncoderBasicMappingTest {
         assertThat(fullHttpResponse.content().toString(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET), is(""));
     }
 
+    @Test
+    public void shouldSetContentLengthFromEncodedBody() {
+        // given
+        httpResponse.withBody("avro işarəsi: \u20AC", Charsets.UTF_8).withHeader(new Header("Content-Length", "1"));
+
+        // when
+        new MockServerResponseEncoder().encode(null, httpResponse, output);
+
+        // then
+        FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
+        assertThat(fullHttpResponse.headers().getAll("Content-Length"), contains("" + "avro işarəsi: \u20AC".getBytes(Charsets.UTF_8).length));
+        assertThat(fullHttpResponse.content().readableBytes(), is("avro işarəsi: \u20AC".getBytes(Charsets.UTF_8).length));
+    }
+
+    @Test
+    public void shouldNotSetContentLengthWhenOverridden() {
+        // given
+        httpResponse
+                .withBody("somebody")
+                .withHeader(new Header("Content-Length", "50"))
+                .withConnectionOptions(new ConnectionOptions().withContentLengthHeaderOverride(50));
+
+        // when
+        new MockServerResponseEncoder().encode(null, httpResponse, output);
+
+        // then
+        FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
+        assertThat(fullHttpResponse.headers().getAll("Content-Length"), contains("50"));
+    }
+
+    @Test
+    public void shouldNotSetContentLengthWhenSuppressed() {
+        // given
+        httpResponse
+                .withBody("somebody")
+                .withConnectionOptions(new ConnectionOptions().withSuppressContentLengthHeader(true));
+
+        // when
+        new MockServerResponseEncoder().encode(null, httpResponse, output);
+
+        // then
+        FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
+        assertThat(fullHttpResponse.headers().contains("Content-Length"), is(false));
+    }
+
+    private byte[] bytes(ByteBuf content) {
+        byte[] bytes = new byte[content.readableBytes()];
+        content.getBytes(content.readerIndex(), bytes);
+        return bytes;
+    }
 }
@@ -2,6 +2,7 @@ package org.mockserver.codec;
 
 import com.google.common.base.Charsets;
 import com.google.common.net.MediaType;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaders;
 import org.junit.Before;
@@ -44,7 +45,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(fullHttpResponse.content().array(), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
+        assertThat(bytes(fullHttpResponse.content()), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
     }
 
     @Test
@@ -57,7 +58,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(fullHttpResponse.content().array(), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
+        assertThat(bytes(fullHttpResponse.content()), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
     }
 
     @Test
@@ -71,7 +72,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(fullHttpResponse.content().array(), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
+        assertThat(bytes(fullHttpResponse.content()), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
     }
 
     @Test
@@ -85,7 +86,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(fullHttpResponse.content().array(), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
+        assertThat(bytes(fullHttpResponse.content()), is("avro işarəsi: \u20AC".getBytes(ContentTypeMapper.DEFAULT_HTTP_CHARACTER_SET)));
     }
 
     @Test
@@ -99,7 +100,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array(), Charsets.UTF_8), is("avro işarəsi: \u20AC"));
+        assertThat(new String(bytes(fullHttpResponse.content()), Charsets.UTF_8), is("avro işarəsi: \u20AC"));
     }
 
     @Test
@@ -113,7 +114,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array(), Charsets.UTF_16), is("我说中国话"));
+        assertThat(new String(bytes(fullHttpResponse.content()), Charsets.UTF_16), is("我说中国话"));
     }
 
     @Test
@@ -126,7 +127,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpRequest = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpRequest.content().array(), Charsets.UTF_16), is("我说中国话"));
+        assertThat(new String(bytes(fullHttpRequest.content()), Charsets.UTF_16), is("我说中国话"));
         assertThat(fullHttpRequest.headers().get(CONTENT_TYPE), is(MediaType.create("text", "plain").withCharset(Charsets.UTF_16).toString()));
     }
 
@@ -140,7 +141,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array(), Charsets.UTF_8), is("{ \"some_field\": \"我说中国话\" }"));
+        assertThat(new String(bytes(fullHttpResponse.content()), Charsets.UTF_8), is("{ \"some_field\": \"我说中国话\" }"));
         assertThat(fullHttpResponse.headers().get(CONTENT_TYPE), is(MediaType.JSON_UTF_8.withCharset(Charsets.UTF_8).toString()));
     }
 
@@ -154,7 +155,7 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array(), Charsets.UTF_8), is("{ \"some_field\": \"我说中国话\" }"));
+        assertThat(new String(bytes(fullHttpResponse.content()), Charsets.UTF_8), is("{ \"some_field\": \"我说中国话\" }"));
         assertThat(fullHttpResponse.headers().get(CONTENT_TYPE), is(MediaType.JSON_UTF_8.withCharset(Charsets.UTF_8).toString()));
     }
 
@@ -169,6 +170,12 @@ public class MockServerResponseEncoderContentTypeTest {
 
         // then
         FullHttpResponse fullHttpResponse = (FullHttpResponse) output.get(0);
-        assertThat(new String(fullHttpResponse.content().array(), Charsets.UTF_16), is("avro işarəsi: \u20AC"));
+        assertThat(new String(bytes(fullHttpResponse.content()), Charsets.UTF_16), is("avro işarəsi: \u20AC"));
+    }
+
+    private byte[] bytes(ByteBuf content) {
+        byte[] bytes = new byte[content.readableBytes()];
+        content.getBytes(content.readerIndex(), bytes);
+        return bytes;
     }
 }
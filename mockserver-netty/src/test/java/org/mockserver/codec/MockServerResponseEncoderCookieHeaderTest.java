@@ -67,7 +67,28 @@ public class MockServerResponseEncoderCookieHeaderTest {
                 cookieTwo,
                 "cookieName3=cookie==Value3"
         ));
-        assertThat(headers.names(), contains("Set-Cookie"));
+        assertThat(headers.names(), containsInAnyOrder("Set-Cookie", "Content-Length"));
     }
 
+    @Test
+    public void shouldNotMapACookieSetByALowerCaseSetCookieHeaderIgnoringCase() {
+        // given
+        httpResponse.withHeaders(
+                new Header("set-cookie", "cookieName1=cookieValue1; Path=/")
+        );
+        httpResponse.withCookies(
+                new Cookie("COOKIENAME1", "COOKIEVALUE1"),
+                new Cookie("cookieName2", "cookieValue2")
+        );
+
+        // when
+        mockServerResponseEncoder.encode(null, httpResponse, output);
+
+        // then
+        HttpHeaders headers = ((FullHttpResponse) output.get(0)).headers();
+        assertThat(headers.getAll("Set-Cookie"), containsInAnyOrder(
+                "cookieName1=cookieValue1; Path=/",
+                "cookieName2=cookieValue2"
+        ));
+    }
 }
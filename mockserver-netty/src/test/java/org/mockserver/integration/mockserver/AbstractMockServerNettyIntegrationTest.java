@@ -7,7 +7,11 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockserver.client.serialization.PortBindingSerializer;
 import org.mockserver.integration.server.SameJVMAbstractClientServerIntegrationTest;
+import org.mockserver.model.Delay;
+import org.mockserver.model.DelayHistogramStatus;
+import org.mockserver.model.HttpResponse;
 import org.mockserver.model.HttpStatusCode;
 import org.mockserver.server.TestClasspathTestExpectationCallback;
 import org.mockserver.socket.PortFactory;
@@ -22,9 +26,16 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.AnyOf.anyOf;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -436,6 +447,76 @@ public abstract class AbstractMockServerNettyIntegrationTest extends SameJVMAbst
         }
     }
 
+    @Test
+    public void shouldReturnDelayedResponsesWithoutBlockingEventLoop() throws Exception {
+        // given
+        mockServerClient
+                .when(
+                        request()
+                                .withPath(calculatePath("delayed"))
+                )
+                .respond(
+                        response()
+                                .withBody("delayed_response")
+                                .withDelay(TimeUnit.SECONDS, 2L)
+                );
+        int concurrentRequests = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrentRequests);
+        List<Future<HttpResponse>> responses = new ArrayList<Future<HttpResponse>>();
+        long start = System.currentTimeMillis();
+
+        // when
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(executorService.submit(new Callable<HttpResponse>() {
+                @Override
+                public HttpResponse call() {
+                    return makeRequest(request().withPath(calculatePath("delayed")), headersToIgnore);
+                }
+            }));
+        }
+
+        // then
+        try {
+            for (Future<HttpResponse> response : responses) {
+                assertThat(response.get().getBodyAsString(), is("delayed_response"));
+            }
+            // there are far fewer event loop threads than requests, if each delay blocked an event loop the responses would take over 20 seconds
+            assertThat(System.currentTimeMillis() - start, is(lessThan(TimeUnit.SECONDS.toMillis(10))));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReturnDistributionOfDelaysApplied() {
+        // given
+        mockServerClient
+                .when(
+                        request()
+                                .withPath(calculatePath("delayed"))
+                )
+                .respond(
+                        response()
+                                .withBody("delayed_response")
+                                .withDelay(Delay.uniform(TimeUnit.MILLISECONDS, 10, 30))
+                );
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            assertThat(makeRequest(request().withPath(calculatePath("delayed")), headersToIgnore).getBodyAsString(), is("delayed_response"));
+        }
+
+        // then
+        DelayHistogramStatus delays = new PortBindingSerializer().deserialize(
+                makeRequest(request().withPath(calculatePath("status")).withMethod("PUT"), headersToIgnore).getBodyAsString()
+        ).getDelays();
+        assertThat(delays.getCount(), is(20L));
+        assertThat(delays.getMin(), greaterThanOrEqualTo(10.0));
+        assertThat(delays.getMax(), lessThanOrEqualTo(30.0));
+        assertThat(delays.getP50(), greaterThanOrEqualTo(delays.getMin()));
+        assertThat(delays.getP99(), lessThanOrEqualTo(delays.getMax()));
+    }
+
     @Test
     public void shouldCallbackToSpecifiedClassInTestClasspath() {
         // given
@@ -1,6 +1,5 @@
 package org.mockserver.mockserver;
 
-import com.google.common.base.Charsets;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.hamcrest.collection.IsIterableContainingInOrder;
@@ -219,7 +218,8 @@ public class MockServerHandlerConnectionOptionsTest {
         assertThat(embeddedChannel.isOpen(), is(false));
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("keep-alive"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -250,7 +250,8 @@ public class MockServerHandlerConnectionOptionsTest {
         HttpResponse httpResponse = (HttpResponse) embeddedChannel.readOutbound();
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("keep-alive"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -285,7 +286,8 @@ public class MockServerHandlerConnectionOptionsTest {
         assertThat(embeddedChannel.isOpen(), is(true));
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("close"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -316,7 +318,8 @@ public class MockServerHandlerConnectionOptionsTest {
         HttpResponse httpResponse = (HttpResponse) embeddedChannel.readOutbound();
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("close"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -351,7 +354,8 @@ public class MockServerHandlerConnectionOptionsTest {
         assertThat(embeddedChannel.isOpen(), is(false));
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("close"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -386,7 +390,8 @@ public class MockServerHandlerConnectionOptionsTest {
         assertThat(embeddedChannel.isOpen(), is(true));
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
         assertThat(httpResponse.getHeader("Connection"), containsInAnyOrder("close"));
-        assertThat(httpResponse.getHeader("Content-Length"), containsInAnyOrder(Integer.toString("some_content".getBytes(Charsets.UTF_8).length)));
+        // content length is set by the encoder from the encoded body
+        assertThat(httpResponse.getHeader("Content-Length"), empty());
         assertThat(httpResponse.getBodyAsString(), is("some_content"));
     }
 
@@ -0,0 +1,87 @@
+package org.mockserver.mockserver;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.filters.RequestLogFilter;
+import org.mockserver.mock.MockServerMatcher;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * @author jamesdbloom
+ */
+public class MockServerHandlerPipeliningTest {
+
+    private EmbeddedChannel embeddedChannel;
+
+    @Before
+    public void setupFixture() {
+        MockServerMatcher mockServerMatcher = new MockServerMatcher();
+        mockServerMatcher.when(request().withPath("/delayed")).thenRespond(response().withBody("delayed").withDelay(new Delay(TimeUnit.MILLISECONDS, 50)));
+        mockServerMatcher.when(request().withPath("/immediate")).thenRespond(response().withBody("immediate"));
+        embeddedChannel = new EmbeddedChannel(new MockServerHandler(mock(MockServer.class), mockServerMatcher, mock(RequestLogFilter.class)));
+    }
+
+    @Test
+    public void shouldAnswerPipelinedRequestsInOrderWhenEarlierResponseIsDelayed() throws InterruptedException {
+        // when
+        embeddedChannel.writeInbound(request("/delayed").withMethod("GET").withKeepAlive(true));
+        embeddedChannel.writeInbound(request("/immediate").withMethod("GET").withKeepAlive(true));
+
+        // then - nothing is written until the delayed response is written
+        assertThat(embeddedChannel.readOutbound(), is(nullValue()));
+        assertThat(embeddedChannel.config().isAutoRead(), is(false));
+
+        // when
+        TimeUnit.MILLISECONDS.sleep(100);
+        embeddedChannel.runPendingTasks();
+
+        // then
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("delayed"));
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("immediate"));
+        assertThat(embeddedChannel.config().isAutoRead(), is(true));
+    }
+
+    @Test
+    public void shouldWaitForEachDelayedResponseInTurn() throws InterruptedException {
+        // when
+        embeddedChannel.writeInbound(request("/delayed").withMethod("GET").withKeepAlive(true));
+        embeddedChannel.writeInbound(request("/delayed").withMethod("GET").withKeepAlive(true));
+        embeddedChannel.writeInbound(request("/immediate").withMethod("GET").withKeepAlive(true));
+        TimeUnit.MILLISECONDS.sleep(100);
+        embeddedChannel.runPendingTasks();
+
+        // then - the second delay starts once the first response is written
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("delayed"));
+        assertThat(embeddedChannel.readOutbound(), is(nullValue()));
+
+        // when
+        TimeUnit.MILLISECONDS.sleep(100);
+        embeddedChannel.runPendingTasks();
+
+        // then
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("delayed"));
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("immediate"));
+        assertThat(embeddedChannel.config().isAutoRead(), is(true));
+    }
+
+    @Test
+    public void shouldAnswerRequestsWithoutDelayImmediately() {
+        // when
+        embeddedChannel.writeInbound(request("/immediate").withMethod("GET").withKeepAlive(true));
+
+        // then
+        assertThat(((HttpResponse) embeddedChannel.readOutbound()).getBodyAsString(), is("immediate"));
+        assertThat(embeddedChannel.config().isAutoRead(), is(true));
+    }
+}
@@ -0,0 +1,145 @@
+package org.mockserver.mockserver;
+
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+import org.mockserver.model.ConnectionOptions;
+import org.mockserver.model.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.mockserver.model.Header.header;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * @author jamesdbloom
+ */
+public class PreEncodedResponsesTest {
+
+    @Test
+    public void shouldWriteEncodedResponseWithConnectionHeader() {
+        // given
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses();
+        HttpResponse response = response().withStatusCode(201).withHeader("x-test", "some_value").withBody("some_body");
+
+        // when
+        preEncodedResponses.encode(response, response);
+
+        // then
+        assertThat(write(preEncodedResponses.get(response).get(), true), is("" +
+                "HTTP/1.1 201 Created\r\n" +
+                "x-test: some_value\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Length: 9\r\n" +
+                "Connection: keep-alive\r\n" +
+                "\r\n" +
+                "some_body"));
+        assertThat(write(preEncodedResponses.get(response).get(), false), is("" +
+                "HTTP/1.1 201 Created\r\n" +
+                "x-test: some_value\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Length: 9\r\n" +
+                "Connection: close\r\n" +
+                "\r\n" +
+                "some_body"));
+    }
+
+    @Test
+    public void shouldWriteEncodedResponseRepeatedly() {
+        // given
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses();
+        HttpResponse response = response().withBody("some_body");
+        preEncodedResponses.encode(response, response);
+
+        // when
+        String first = write(preEncodedResponses.get(response).get(), true);
+        String second = write(preEncodedResponses.get(response).get(), true);
+
+        // then
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void shouldReturnNullForResponseNotEncoded() {
+        // when
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses();
+        preEncodedResponses.encode(response().withBody("some_body"), response().withBody("some_body"));
+
+        // then - keys are compared by identity
+        assertThat(preEncodedResponses.get(response().withBody("some_body")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotPreEncodeLargeResponse() {
+        // given
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses();
+        HttpResponse response = response().withBody(Strings.repeat("a", 2 * 1024 * 1024));
+
+        // when
+        preEncodedResponses.encode(response, response);
+
+        // then
+        assertThat(preEncodedResponses.get(response).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldNotPreEncodeResponseLargerThanQuarterOfMaximumBytes() {
+        // given
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses(4 * 1024);
+        HttpResponse response = response().withBody(Strings.repeat("a", 1024));
+
+        // when
+        preEncodedResponses.encode(response, response);
+
+        // then
+        assertThat(preEncodedResponses.get(response).isPresent(), is(false));
+        assertThat(preEncodedResponses.encodedBytes(), is(0L));
+    }
+
+    @Test
+    public void shouldLimitTotalSizeOfEncodedResponses() {
+        // given
+        PreEncodedResponses preEncodedResponses = new PreEncodedResponses(4 * 1024);
+        List<HttpResponse> responses = new ArrayList<HttpResponse>();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            HttpResponse response = response().withBody(Strings.repeat("a", 500));
+            responses.add(response);
+            preEncodedResponses.encode(response, response);
+        }
+
+        // then
+        assertThat(preEncodedResponses.encodedBytes(), lessThanOrEqualTo(4 * 1024L));
+        assertThat(preEncodedResponses.get(responses.get(99)).isPresent(), is(true));
+        assertThat(preEncodedResponses.get(responses.get(0)), is(nullValue()));
+    }
+
+    @Test
+    public void shouldOnlyPreEncodeResponsesThatDoNotDependOnRequest() {
+        assertThat(PreEncodedResponses.canPreEncode(response().withBody("some_body")), is(true));
+        assertThat(PreEncodedResponses.canPreEncode(response().withConnectionOptions(new ConnectionOptions().withCloseSocket(true))), is(false));
+        assertThat(PreEncodedResponses.canPreEncode(response().withHeader(header("connection", "close"))), is(false));
+    }
+
+    private String write(PreEncodedResponses.PreEncodedResponse preEncodedResponse, boolean keepAlive) {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter());
+        preEncodedResponse.write(channel.pipeline().firstContext(), keepAlive);
+        channel.flush();
+        StringBuilder written = new StringBuilder();
+        Object output;
+        while ((output = channel.readOutbound()) != null) {
+            written.append(((ByteBuf) output).toString(CharsetUtil.UTF_8));
+            ((ByteBuf) output).release();
+        }
+        return written.toString();
+    }
+}
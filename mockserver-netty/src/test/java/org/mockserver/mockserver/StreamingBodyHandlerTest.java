@@ -0,0 +1,119 @@
+package org.mockserver.mockserver;
+
+import com.google.common.base.Strings;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.mock.MockServerMatcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * @author jamesdbloom
+ */
+public class StreamingBodyHandlerTest {
+
+    private static final String CHUNK = Strings.repeat("a", 100);
+    private MockServerMatcher mockServerMatcher;
+    private EmbeddedChannel embeddedChannel;
+
+    @Before
+    public void setupFixture() {
+        mockServerMatcher = new MockServerMatcher();
+        embeddedChannel = new EmbeddedChannel(new StreamingBodyHandler(mockServerMatcher, 150, 1000), new HttpObjectAggregator(1000));
+    }
+
+    @Test
+    public void shouldDiscardLargeBodyThatCantMatchAnyExpectation() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/other").withBody("some_body")).thenRespond(response());
+
+        // when
+        FullHttpRequest fullHttpRequest = send(HttpMethod.POST, "/upload", 2);
+
+        // then
+        assertThat(fullHttpRequest.content().readableBytes(), is(0));
+        assertThat(HttpHeaders.getContentLength(fullHttpRequest), is(0L));
+        fullHttpRequest.release();
+    }
+
+    @Test
+    public void shouldDiscardLargeBodyWhenNoExpectationHasBodyMatcher() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload")).thenRespond(response());
+
+        // when
+        FullHttpRequest fullHttpRequest = send(HttpMethod.POST, "/upload", 2);
+
+        // then
+        assertThat(fullHttpRequest.content().readableBytes(), is(0));
+        fullHttpRequest.release();
+    }
+
+    @Test
+    public void shouldAggregateLargeBodyWhenExpectationHasBodyMatcher() {
+        // given
+        mockServerMatcher.when(request().withMethod("POST").withPath("/upload").withBody("some_body")).thenRespond(response());
+
+        // when
+        FullHttpRequest fullHttpRequest = send(HttpMethod.POST, "/upload", 2);
+
+        // then
+        assertThat(fullHttpRequest.content().toString(CharsetUtil.UTF_8), is(CHUNK + CHUNK));
+        fullHttpRequest.release();
+    }
+
+    @Test
+    public void shouldAggregateBodyBelowThreshold() {
+        // when
+        FullHttpRequest fullHttpRequest = send(HttpMethod.POST, "/upload", 1);
+
+        // then
+        assertThat(fullHttpRequest.content().toString(CharsetUtil.UTF_8), is(CHUNK));
+        fullHttpRequest.release();
+    }
+
+    @Test
+    public void shouldAggregateLargeBodyOfControlRequest() {
+        // when
+        FullHttpRequest fullHttpRequest = send(HttpMethod.PUT, "/expectation", 2);
+
+        // then
+        assertThat(fullHttpRequest.content().toString(CharsetUtil.UTF_8), is(CHUNK + CHUNK));
+        fullHttpRequest.release();
+    }
+
+    @Test
+    public void shouldRejectBodyLargerThanMaximum() {
+        // given
+        HttpRequest httpRequest = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/upload");
+        HttpHeaders.setContentLength(httpRequest, 1001);
+
+        // when
+        embeddedChannel.writeInbound(httpRequest);
+
+        // then
+        assertThat(embeddedChannel.readInbound(), is(nullValue()));
+        HttpResponse httpResponse = (HttpResponse) embeddedChannel.readOutbound();
+        assertThat(httpResponse.getStatus(), is(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE));
+        assertThat(embeddedChannel.isOpen(), is(false));
+    }
+
+    private FullHttpRequest send(HttpMethod method, String uri, int chunks) {
+        HttpRequest httpRequest = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, uri);
+        HttpHeaders.setContentLength(httpRequest, chunks * CHUNK.length());
+        embeddedChannel.writeInbound(httpRequest);
+        for (int i = 0; i < chunks; i++) {
+            HttpContent httpContent = new DefaultHttpContent(Unpooled.copiedBuffer(CHUNK, CharsetUtil.UTF_8));
+            embeddedChannel.writeInbound(i == chunks - 1 ? new DefaultLastHttpContent(httpContent.content()) : httpContent);
+        }
+        return (FullHttpRequest) embeddedChannel.readInbound();
+    }
+}
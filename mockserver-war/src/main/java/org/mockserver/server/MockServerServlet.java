@@ -19,6 +19,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockserver.model.Header.header;
 import static org.mockserver.model.HttpResponse.notFoundResponse;
@@ -56,7 +57,7 @@ public class MockServerServlet extends HttpServlet {
 
                 httpServletResponse.setStatus(HttpStatusCode.OK_200.code());
                 httpServletResponse.setHeader(HttpHeaders.Names.CONTENT_TYPE, MediaType.JSON_UTF_8.toString());
-                IOStreamUtils.writeToOutputStream(portBindingSerializer.serialize(portBinding(httpServletRequest.getLocalPort())).getBytes(), httpServletResponse);
+                IOStreamUtils.writeToOutputStream(portBindingSerializer.serialize(portBinding(httpServletRequest.getLocalPort()).setMatchCache(mockServerMatcher.matchCacheStatus()).setDelays(mockServerMatcher.delayHistogramStatus())).getBytes(), httpServletResponse);
 
             } else if (request.matches("PUT", "/bind")) {
 
@@ -134,7 +135,10 @@ public class MockServerServlet extends HttpServlet {
 
                 Action action = mockServerMatcher.handle(request);
                 if (validateSupportedFeatures(action, httpServletResponse)) {
-                    mapResponse(actionHandler.processAction(action, request), httpServletResponse);
+                    HttpResponse httpResponse = actionHandler.processAction(action, request);
+                    // each request has its own container thread so the delay is applied by waiting
+                    TimeUnit.NANOSECONDS.sleep(mockServerMatcher.delayNanos(action));
+                    mapResponse(httpResponse, httpServletResponse);
                 }
 
             }